@@ -0,0 +1,122 @@
+package farm.core.farmgrid;
+
+import farm.core.UnableToInteractException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing a script of grid commands run one line at a time through
+ * {@link Grid#interact(String, int, int)} against the same script run as a typed batch through
+ * {@link GridCommandExecutor}.
+ * <p>
+ * The script places an animal on every tile, feeds and harvests each of them, ends the day and
+ * then clears the grid, so every run starts from an empty grid. The string path splits and
+ * parses each line as the farming mode of the shop front does; the batch path is measured both
+ * with commands parsed ahead of time and with parsing included.
+ * <p>
+ * Run with {@code java org.openjdk.jmh.Main CommandBatchBenchmark}, or through {@link #main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommandBatchBenchmark {
+
+    @Param({"object", "packed", "sparse"})
+    public String grid;
+
+    @Param({"100", "300"})
+    public int size;
+
+    private Grid farm;
+    private List<String> script;
+    private List<GridCommand> commands;
+    private GridCommandExecutor executor;
+
+    /**
+     * Creates an empty animal farm and writes the script for it.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        farm = switch (grid) {
+            case "packed" -> new PackedFarmGrid(size, size, "animal");
+            case "sparse" -> new SparseFarmGrid(size, size, "animal");
+            default -> new FarmGrid(size, size, "animal");
+        };
+        script = new ArrayList<>();
+        for (String command : new String[] {"place", "feed", "harvest"}) {
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    script.add(command + " " + i + " " + j
+                            + (command.equals("place") ? " ৬" : ""));
+                }
+            }
+        }
+        script.add("end-day");
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                script.add("remove " + i + " " + j);
+            }
+        }
+        commands = script.stream().map(GridCommand::parse).toList();
+        executor = new GridCommandExecutor(farm);
+    }
+
+    /**
+     * Runs the script one line at a time through the string commands of the grid.
+     */
+    @Benchmark
+    public void stringCommands(Blackhole blackhole) {
+        for (String line : script) {
+            String[] parts = line.split(" ");
+            try {
+                switch (parts[0]) {
+                    case "place" -> blackhole.consume(farm.place(Integer.parseInt(parts[1]),
+                            Integer.parseInt(parts[2]), parts[3].charAt(0)));
+                    case "harvest" -> blackhole.consume(farm.harvest(Integer.parseInt(parts[1]),
+                            Integer.parseInt(parts[2])));
+                    case "end-day" -> blackhole.consume(farm.interact(parts[0], 0, 0));
+                    default -> blackhole.consume(farm.interact(parts[0],
+                            Integer.parseInt(parts[1]), Integer.parseInt(parts[2])));
+                }
+            } catch (UnableToInteractException | IllegalStateException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+
+    /**
+     * Runs the script as a single batch of commands parsed ahead of time.
+     */
+    @Benchmark
+    public GridCommandExecutor.Result typedBatch() {
+        return executor.execute(commands);
+    }
+
+    /**
+     * Parses the script and runs it as a single batch.
+     */
+    @Benchmark
+    public GridCommandExecutor.Result parsedBatch() {
+        return executor.execute(script.stream().map(GridCommand::parse));
+    }
+
+    /**
+     * Runs the command batch benchmarks.
+     * @param args unused.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CommandBatchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,109 @@
+package farm.core.farmgrid;
+
+import farm.core.UnableToInteractException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing sequential and parallel end-of-day processing.
+ * <p>
+ * Each trial fills a square grid with a mix of plants (or animals, some of them fed) and
+ * measures a single "end-day" command. A parallelism of 0 uses the sequential path; any other
+ * value processes the grid on a fork-join pool with that many workers, so the speedup is the
+ * ratio against the 0 row for the same grid and size.
+ * <p>
+ * Run with {@code java org.openjdk.jmh.Main EndOfDayBenchmark}, or through {@link #main}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class EndOfDayBenchmark {
+    private static final char[] PLANTS = {'.', ':', 'ἴ'};
+    private static final char[] ANIMALS = {'৬', '४', 'ඔ'};
+
+    @Param({"object", "packed"})
+    public String grid;
+
+    @Param({"plant", "animal"})
+    public String farmType;
+
+    @Param({"1000", "3000"})
+    public int size;
+
+    @Param({"0", "2", "4", "8"})
+    public int parallelism;
+
+    private Grid farm;
+    private ForkJoinPool pool;
+
+    /**
+     * Fills a grid of the benchmark size and type.
+     */
+    @Setup(Level.Trial)
+    public void fill() throws UnableToInteractException {
+        pool = parallelism == 0 ? null : new ForkJoinPool(parallelism);
+        if (grid.equals("packed")) {
+            PackedFarmGrid packed = new PackedFarmGrid(size, size, farmType);
+            packed.setEndOfDayPool(pool);
+            farm = packed;
+        } else {
+            FarmGrid objects = new FarmGrid(size, size, farmType);
+            objects.setEndOfDayPool(pool);
+            farm = objects;
+        }
+        char[] symbols = farmType.equals("plant") ? PLANTS : ANIMALS;
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                farm.place(i, j, symbols[(i + j) % symbols.length]);
+            }
+        }
+    }
+
+    /**
+     * Feeds animals along the diagonal, so that each end of day has fed animals to reset.
+     */
+    @Setup(Level.Invocation)
+    public void feed() throws UnableToInteractException {
+        if (farmType.equals("animal")) {
+            for (int i = 0; i < size; i += 2) {
+                farm.interact("feed", i, i);
+            }
+        }
+    }
+
+    /**
+     * Shuts down the pool used for the trial.
+     */
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Ends the day on the whole grid.
+     */
+    @Benchmark
+    public boolean endDay() throws UnableToInteractException {
+        return farm.interact("end-day", 0, 0);
+    }
+
+    /**
+     * Runs the end-of-day benchmarks.
+     * @param args unused.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EndOfDayBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
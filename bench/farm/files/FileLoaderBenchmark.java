@@ -0,0 +1,131 @@
+package farm.files;
+
+import farm.core.farmgrid.FarmGrid;
+import farm.core.farmgrid.Grid;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing the streaming text loader against the previous loader, which read
+ * the whole stats line into memory and split it with regular expressions.
+ * <p>
+ * Each trial saves a square plant farm with a mix of crops and ground. Run through
+ * {@link #main} to include the GC profiler, whose allocation figures show the memory each load
+ * takes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class FileLoaderBenchmark {
+    private static final char[] PLANTS = {'.', ':', 'ἴ'};
+
+    @Param({"100", "1000"})
+    public int size;
+
+    private File file;
+
+    /**
+     * Saves a farm of the benchmark size as text.
+     */
+    @Setup(Level.Trial)
+    public void save() throws IOException {
+        FarmGrid grid = new FarmGrid(size, size, "plant");
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                if ((i + j) % 4 != 0) {
+                    grid.place(i, j, PLANTS[(i * j) % PLANTS.length]);
+                }
+            }
+        }
+        file = File.createTempFile("farm", ".txt");
+        file.deleteOnExit();
+        new FileSaver().save(file.getPath(), grid);
+    }
+
+    /**
+     * Deletes the saved farm.
+     */
+    @TearDown(Level.Trial)
+    public void delete() {
+        file.delete();
+    }
+
+    /**
+     * Loads the farm with the streaming loader.
+     */
+    @Benchmark
+    public Grid streaming() throws IOException {
+        return new FileLoader().load(file.getPath());
+    }
+
+    /**
+     * Loads the farm the way the previous loader did.
+     */
+    @Benchmark
+    public Grid legacy() throws IOException {
+        return legacyLoad(file.getPath());
+    }
+
+    /**
+     * The previous loader, kept here for comparison, with its row wrap corrected for
+     * non-square grids.
+     */
+    private static Grid legacyLoad(String filename) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
+            String farmType = reader.readLine();
+            int rows = Integer.parseInt(reader.readLine().split(": ")[1]);
+            int columns = Integer.parseInt(reader.readLine().split(": ")[1]);
+            List<List<String>> info = new ArrayList<>();
+            String line = reader.readLine();
+            String data = line.substring(line.indexOf(": ") + 2).trim();
+            data = data.substring(2, data.length() - 2);
+            for (String entry : data.split("], \\[")) {
+                List<String> itemInfo = new ArrayList<>();
+                for (String attr : entry.split(", ")) {
+                    itemInfo.add(attr.trim());
+                }
+                info.add(itemInfo);
+            }
+
+            Grid grid = new FarmGrid(rows, columns, farmType);
+            int i = 0;
+            int j = 0;
+            for (List<String> tile : info) {
+                if (j == columns) {
+                    j = 0;
+                    i++;
+                }
+                if (!tile.getFirst().equals("ground")) {
+                    grid.place(i, j, tile.get(1).charAt(0));
+                }
+                j++;
+            }
+            return grid;
+        }
+    }
+
+    /**
+     * Runs the file loader benchmarks with the GC profiler.
+     * @param args unused.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FileLoaderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,184 @@
+package farm.inventory;
+
+import farm.core.FailedTransactionException;
+import farm.core.InvalidStockRequestException;
+import farm.inventory.product.Product;
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the core {@link Inventory} operations across every implementation.
+ * <p>
+ * Each trial stocks an inventory with {@code depth} products spread evenly over every
+ * {@link Barcode}, with qualities drawn from the chosen {@link QualityMix}. The removal
+ * benchmarks put back what they take, so the depth stays the same for the whole trial; the
+ * {@link #add} benchmark lets the inventory grow and is restocked every iteration.
+ * <p>
+ * {@link BasicInventory} and {@link IndexedInventory} cannot remove several products at once, so
+ * {@link #removeBulk} removes them one at a time instead, which is what a till using either of
+ * them has to do.
+ * <p>
+ * Build the {@code bench} sources against {@code jmh-core} with
+ * {@code jmh-generator-annprocess} on the annotation processor path, then either run
+ * {@link #main(String[])}, which attaches the GC profiler, or use the JMH runner directly, e.g.
+ * {@code java org.openjdk.jmh.Main InventoryBenchmark -p depth=10,1000 -prof gc}. The
+ * {@code gc.alloc.rate.norm} column reports bytes allocated per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class InventoryBenchmark {
+    private static final Barcode[] BARCODES = Barcode.values();
+    private static final Quality[] QUALITIES = Quality.values();
+    private static final int BULK_QUANTITY = 10;
+
+    /**
+     * How the quality of stocked products is distributed.
+     */
+    public enum QualityMix {
+        /** Every product is of regular quality. */
+        REGULAR,
+        /** Products cycle evenly through every quality. */
+        UNIFORM,
+        /** Most products are regular, with one in ten spread over the higher qualities. */
+        SKEWED;
+
+        Quality qualityOf(int index) {
+            return switch (this) {
+                case REGULAR -> Quality.REGULAR;
+                case UNIFORM -> QUALITIES[index % QUALITIES.length];
+                case SKEWED -> index % 10 == 0
+                        ? QUALITIES[1 + (index / 10) % (QUALITIES.length - 1)]
+                        : Quality.REGULAR;
+            };
+        }
+    }
+
+    @Param({"basic", "fancy", "bucketed", "concurrent", "indexed"})
+    public String implementation;
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int depth;
+
+    @Param({"REGULAR", "UNIFORM", "SKEWED"})
+    public QualityMix mix;
+
+    private Inventory inventory;
+    private boolean singleUnit;
+    private int next;
+
+    /**
+     * Stocks a fresh inventory at the benchmark depth.
+     */
+    @Setup(Level.Iteration)
+    public void stock() throws InvalidStockRequestException {
+        inventory = switch (implementation) {
+            case "basic" -> new BasicInventory();
+            case "fancy" -> new FancyInventory();
+            case "bucketed" -> new BucketedInventory();
+            case "concurrent" -> new ConcurrentInventory();
+            case "indexed" -> new IndexedInventory();
+            default -> throw new IllegalArgumentException(
+                    "Unknown inventory: " + implementation);
+        };
+        singleUnit = inventory instanceof BasicInventory || inventory instanceof IndexedInventory;
+        for (int i = 0; i < depth; i++) {
+            stockProduct(i);
+        }
+        next = 0;
+    }
+
+    /**
+     * Stocks a single product.
+     */
+    @Benchmark
+    public void add() {
+        stockProduct(depth + next++);
+    }
+
+    /**
+     * Removes a single product and puts it back.
+     */
+    @Benchmark
+    public List<Product> removeSingle() {
+        Barcode barcode = BARCODES[next++ % BARCODES.length];
+        List<Product> removed = inventory.removeProduct(barcode);
+        restock(removed);
+        return removed;
+    }
+
+    /**
+     * Removes several products of one type and puts them back.
+     */
+    @Benchmark
+    public List<Product> removeBulk() throws FailedTransactionException {
+        Barcode barcode = BARCODES[next++ % BARCODES.length];
+        List<Product> removed;
+        if (singleUnit) {
+            removed = new ArrayList<>(BULK_QUANTITY);
+            for (int i = 0; i < BULK_QUANTITY; i++) {
+                removed.addAll(inventory.removeProduct(barcode));
+            }
+        } else {
+            removed = inventory.removeProduct(barcode, BULK_QUANTITY);
+        }
+        restock(removed);
+        return removed;
+    }
+
+    /**
+     * Checks whether a product type is in stock.
+     */
+    @Benchmark
+    public boolean existsProduct() {
+        return inventory.existsProduct(BARCODES[next++ % BARCODES.length]);
+    }
+
+    /**
+     * Lists the full stock of the inventory.
+     */
+    @Benchmark
+    public List<Product> getAllProducts() {
+        return inventory.getAllProducts();
+    }
+
+    /**
+     * Stocks the product at the given position in the stocking order, so that every barcode gets
+     * the whole quality mix whether stocked during setup or by {@link #add}.
+     */
+    private void stockProduct(int index) {
+        inventory.addProduct(BARCODES[index % BARCODES.length],
+                mix.qualityOf(index / BARCODES.length));
+    }
+
+    private void restock(List<Product> products) {
+        for (Product product : products) {
+            inventory.addProduct(product.getBarcode(), product.getQuality());
+        }
+    }
+
+    /**
+     * Runs every inventory benchmark with the GC profiler attached.
+     * @param args optionally, a regular expression restricting which benchmarks run.
+     */
+    public static void main(String[] args) throws RunnerException {
+        String include = InventoryBenchmark.class.getSimpleName()
+                + (args.length > 0 ? "." + args[0] : "");
+        new Runner(new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
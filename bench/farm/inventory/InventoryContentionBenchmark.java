@@ -0,0 +1,165 @@
+package farm.inventory;
+
+import farm.core.FailedTransactionException;
+import farm.core.InvalidStockRequestException;
+import farm.inventory.product.Product;
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures throughput of several checkout lanes sharing one inventory.
+ * <p>
+ * Each lane repeatedly restocks a product and then buys some of it back. In the shared runs
+ * every lane picks a random product each time; in the disjoint runs each lane only ever touches
+ * its own product, which shows whether lanes on different products scale across cores. Disjoint
+ * runs are skipped for more lanes than there are products. The {@link ConcurrentInventory} is
+ * compared against a {@link FancyInventory} guarded by a single global lock, which is the only
+ * way to share the unsynchronised inventories between threads.
+ * <p>
+ * Run with {@code java farm.inventory.InventoryContentionBenchmark [opsPerThread]}.
+ */
+public class InventoryContentionBenchmark {
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16};
+    private static final Barcode[] BARCODES = Barcode.values();
+    private static final Quality[] QUALITIES = Quality.values();
+
+    /**
+     * Runs the benchmark, printing operations per second for each inventory and lane count.
+     * @param args optionally, the number of operations each lane performs.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int opsPerThread = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        // warm up both code paths before measuring
+        for (boolean disjoint : new boolean[] {false, true}) {
+            run(new ConcurrentInventory(), 4, opsPerThread / 10, disjoint);
+            run(new LockedInventory(new FancyInventory()), 4, opsPerThread / 10, disjoint);
+        }
+
+        System.out.println("ops/s");
+        System.out.printf("%-8s %20s %20s %20s %20s%n", "lanes", "concurrent shared",
+                "concurrent disjoint", "global lock shared", "global lock disjoint");
+        for (int threads : THREAD_COUNTS) {
+            double concurrent = run(new ConcurrentInventory(), threads, opsPerThread, false);
+            double locked = run(new LockedInventory(new FancyInventory()), threads, opsPerThread,
+                    false);
+            if (threads > BARCODES.length) {
+                System.out.printf("%-8d %20.0f %20s %20.0f %20s%n", threads, concurrent, "-",
+                        locked, "-");
+                continue;
+            }
+            double concurrentDisjoint = run(new ConcurrentInventory(), threads, opsPerThread,
+                    true);
+            double lockedDisjoint = run(new LockedInventory(new FancyInventory()), threads,
+                    opsPerThread, true);
+            System.out.printf("%-8d %20.0f %20.0f %20.0f %20.0f%n", threads, concurrent,
+                    concurrentDisjoint, locked, lockedDisjoint);
+        }
+    }
+
+    /**
+     * Runs the given number of lanes against the inventory and checks that no stock was lost or
+     * handed out twice.
+     * @param disjoint whether each lane only buys and stocks its own product, rather than
+     *                 random products shared with the other lanes.
+     * @return the combined throughput of all lanes, in operations per second.
+     */
+    private static double run(Inventory inventory, int threads, int opsPerThread,
+            boolean disjoint) throws InterruptedException {
+        AtomicLong added = new AtomicLong();
+        AtomicLong removed = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            Barcode own = BARCODES[t % BARCODES.length];
+            Thread lane = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long laneAdded = 0;
+                long laneRemoved = 0;
+                try {
+                    start.await();
+                    for (int i = 0; i < opsPerThread; i++) {
+                        Barcode barcode = disjoint
+                                ? own : BARCODES[random.nextInt(BARCODES.length)];
+                        Quality quality = QUALITIES[random.nextInt(QUALITIES.length)];
+                        int quantity = 1 + random.nextInt(4);
+                        inventory.addProduct(barcode, quality, quantity);
+                        laneAdded += quantity;
+                        laneRemoved += inventory.removeProduct(barcode, 1 + random.nextInt(4))
+                                .size();
+                    }
+                } catch (InterruptedException | InvalidStockRequestException
+                         | FailedTransactionException e) {
+                    throw new RuntimeException(e);
+                } finally {
+                    added.addAndGet(laneAdded);
+                    removed.addAndGet(laneRemoved);
+                    done.countDown();
+                }
+            });
+            lane.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+
+        long remaining = inventory.getAllProducts().size();
+        if (added.get() != removed.get() + remaining) {
+            throw new IllegalStateException("Stock was lost or duplicated: added " + added
+                    + ", removed " + removed + ", remaining " + remaining);
+        }
+        return (double) threads * opsPerThread * 2 / (elapsed / 1e9);
+    }
+
+    /**
+     * Serialises every call to the wrapped inventory behind one lock.
+     */
+    private static class LockedInventory implements Inventory {
+        private final Inventory inventory;
+
+        private LockedInventory(Inventory inventory) {
+            this.inventory = inventory;
+        }
+
+        @Override
+        public synchronized void addProduct(Barcode barcode, Quality quality) {
+            inventory.addProduct(barcode, quality);
+        }
+
+        @Override
+        public synchronized void addProduct(Barcode barcode, Quality quality, int quantity)
+                throws InvalidStockRequestException {
+            inventory.addProduct(barcode, quality, quantity);
+        }
+
+        @Override
+        public synchronized boolean existsProduct(Barcode barcode) {
+            return inventory.existsProduct(barcode);
+        }
+
+        @Override
+        public synchronized List<Product> removeProduct(Barcode barcode) {
+            return inventory.removeProduct(barcode);
+        }
+
+        @Override
+        public synchronized List<Product> removeProduct(Barcode barcode, int quantity)
+                throws FailedTransactionException {
+            return new ArrayList<>(inventory.removeProduct(barcode, quantity));
+        }
+
+        @Override
+        public synchronized List<Product> getAllProducts() {
+            return inventory.getAllProducts();
+        }
+    }
+}
@@ -4,11 +4,14 @@ import farm.core.DuplicateCustomerException;
 import farm.core.Farm;
 import farm.core.FarmManager;
 import farm.core.ShopFront;
+import farm.core.farmgrid.Grid;
 import farm.customer.AddressBook;
 import farm.customer.Customer;
+import farm.files.FarmCheckpoint;
 import farm.inventory.FancyInventory;
 import farm.inventory.Inventory;
 
+import java.io.IOException;
 import java.util.List;
 
 
@@ -21,9 +24,18 @@ public class Main {
 
     /**
      * Start the farm program.
-     * @param args Parameters to the program, currently not supported.
+     * @param args Parameters to the program: optionally, a checkpoint file to restore the farm
+     *             from, saved with the "checkpoint" farming command.
      */
-    public static void main(String[] args) throws DuplicateCustomerException {
+    public static void main(String[] args) throws DuplicateCustomerException, IOException {
+        if (args.length > 0) {
+            FarmCheckpoint checkpoint = FarmCheckpoint.open(args[0]);
+            Farm farm = checkpoint.loadFarm();
+            Grid grid = checkpoint.loadGrid();
+            new FarmManager(farm, new ShopFront(), true, grid).run();
+            return;
+        }
+
         AddressBook addressBook = new AddressBook();
         Customer customer = new Customer("Ali", 33651111, "UQ");
         addressBook.addCustomer(customer);
@@ -3,15 +3,23 @@ package farm.core;
 import farm.customer.AddressBook;
 import farm.customer.Customer;
 import farm.inventory.Inventory;
+import farm.inventory.PerishableInventory;
+import farm.inventory.ReservableInventory;
+import farm.inventory.Reservation;
+import farm.inventory.StockVisitor;
 import farm.inventory.product.Product;
 import farm.inventory.product.data.Barcode;
 import farm.inventory.product.data.Quality;
+import farm.sales.Cart;
 import farm.sales.TransactionHistory;
 import farm.sales.TransactionManager;
 import farm.sales.transaction.Transaction;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Top-level model class responsible for storing and making updates to the data and
@@ -29,10 +37,21 @@ public class Farm {
      * @param addressBook The address book storing the farm's customer records.
      */
     public Farm(Inventory inventory, AddressBook addressBook) {
+        this(inventory, addressBook, new TransactionHistory());
+    }
+
+    /**
+     * Creates a farm instance which carries on from an existing record of past transactions,
+     * such as one restored from a checkpoint.
+     * @param inventory The inventory through which access to the farm's stock is provisioned.
+     * @param addressBook The address book storing the farm's customer records.
+     * @param history The record of the farm's past transactions.
+     */
+    public Farm(Inventory inventory, AddressBook addressBook, TransactionHistory history) {
         this.inventory = inventory;
         this.addressBook = addressBook;
         this.transactionManager = new TransactionManager();
-        this.history = new TransactionHistory();
+        this.history = history;
     }
 
     /**
@@ -44,6 +63,14 @@ public class Farm {
         return new ArrayList<>(addressBook.getAllRecords());
     }
 
+    /**
+     * Retrieves the inventory through which the farm's stock is provisioned.
+     * @return the farm's inventory
+     */
+    public Inventory getInventory() {
+        return inventory;
+    }
+
     /**
      * Retrieves all products currently stored in the farm's inventory.
      * @return a list of all products in the inventory
@@ -53,6 +80,61 @@ public class Farm {
         return new ArrayList<>(inventory.getAllProducts());
     }
 
+    /**
+     * Streams the products currently stored in the farm's inventory, without copying them into
+     * a list first.
+     * @return a stream over all products in the inventory
+     */
+    public Stream<Product> streamStock() {
+        return inventory.stream();
+    }
+
+    /**
+     * Passes the stock currently stored in the farm's inventory to a visitor, in batches of
+     * identical products.
+     * @param visitor the visitor to pass each batch to
+     * @requires the visitor does not modify the farm's stock
+     * @see Inventory#visitStock(StockVisitor)
+     */
+    public void visitStock(StockVisitor visitor) {
+        inventory.visitStock(visitor);
+    }
+
+    /**
+     * Performs the given action for each product currently stored in the farm's inventory.
+     * @param action the action to perform on each product
+     * @requires the action does not modify the farm's stock
+     */
+    public void forEachStock(Consumer<? super Product> action) {
+        inventory.forEach(action);
+    }
+
+    /**
+     * Counts how many products of each type are currently stored in the farm's inventory.
+     * @return a mapping from each product type in stock to the number of products of that type
+     */
+    public Map<Barcode, Integer> getStockCounts() {
+        return inventory.countByBarcode();
+    }
+
+    /**
+     * Counts how many products of the given type are stored in the farm's inventory at each
+     * quality level.
+     * @param barcode the product type to count
+     * @return a mapping from each quality level in stock to the number of products at that quality
+     */
+    public Map<Quality, Integer> getStockCounts(Barcode barcode) {
+        return inventory.countByQuality(barcode);
+    }
+
+    /**
+     * Calculates the total base price of all products currently stored in the farm's inventory.
+     * @return the value of all stock, in cents
+     */
+    public long getStockValue() {
+        return inventory.getStockValue();
+    }
+
     /**
      * Retrieves the farm's transaction manager.
      * @return the farm's transaction manager
@@ -109,6 +191,18 @@ public class Farm {
         }
     }
 
+    /**
+     * Ends the day for the farm's stock. If the farm's inventory is a
+     * {@link PerishableInventory}, any stock past its shelf life is thrown out.
+     * @return the number of products which expired.
+     */
+    public int endDay() {
+        if (inventory instanceof PerishableInventory perishable) {
+            return perishable.advanceDay();
+        }
+        return 0;
+    }
+
     /**
      * Sets the provided transaction as the current ongoing transaction.
      * @param transaction the transaction to set as ongoing.
@@ -134,6 +228,9 @@ public class Farm {
     /**
      * Attempts to add the specified number of products of the given type to the customer's shopping
      * cart.
+     * <p>
+     * If the farm's inventory is a {@link ReservableInventory}, the stock is reserved rather than
+     * removed, and only becomes products in the cart when the customer checks out.
      * @param barcode the product type to add.
      * @param quantity the number of products to add.
      * @return the number of products successfully added to the cart.
@@ -150,6 +247,15 @@ public class Farm {
             throw new IllegalArgumentException("Quantity must be at least 1.");
         }
         
+        if (inventory instanceof ReservableInventory reservable) {
+            int reserved = 0;
+            for (Reservation reservation : reservable.reserve(barcode, quantity)) {
+                transactionManager.registerPendingReservation(reservation);
+                reserved += reservation.getQuantity();
+            }
+            return reserved;
+        }
+
         List<Product> products;
         if (quantity == 1) {
             products = inventory.removeProduct(barcode);
@@ -170,6 +276,10 @@ public class Farm {
      * @throws FailedTransactionException if transaction cannot be closed.
      */
     public boolean checkout() throws FailedTransactionException {
+        if (transactionManager.hasOngoingTransaction()) {
+            commitReservations(transactionManager.getOngoingTransaction()
+                    .getAssociatedCustomer().getCart());
+        }
         Transaction result = transactionManager.closeCurrentTransaction();
         if (!result.getPurchases().isEmpty()) {
             history.recordTransaction(result);
@@ -179,6 +289,32 @@ public class Farm {
         }
     }
 
+    /**
+     * Abandons the ongoing transaction without recording it, returning everything in the
+     * customer's cart to the farm's inventory.
+     * @throws FailedTransactionException if no transaction is ongoing.
+     */
+    public void cancelTransaction() throws FailedTransactionException {
+        Cart cart = transactionManager.abandonCurrentTransaction().getAssociatedCustomer().getCart();
+        releaseReservations(cart, 0);
+        for (Product product : cart.getContents()) {
+            inventory.addProduct(product.getBarcode(), product.getQuality());
+        }
+        cart.setEmpty();
+    }
+
+    /**
+     * Returns stock reserved by the ongoing transaction to the farm's inventory if it has been
+     * held for at least the given time, e.g. because the customer walked away from their cart.
+     * @param maxAgeMillis how long stock may stay reserved, in milliseconds.
+     * @return the number of products returned to the inventory.
+     * @throws FailedTransactionException if no transaction is ongoing.
+     */
+    public int releaseStaleReservations(long maxAgeMillis) throws FailedTransactionException {
+        return releaseReservations(transactionManager.getOngoingTransaction()
+                .getAssociatedCustomer().getCart(), maxAgeMillis);
+    }
+
     /**
      * Retrieves the receipt associated with the most recent transaction.
      * @return the receipt associated with the most recent transaction.
@@ -197,4 +333,39 @@ public class Farm {
     public Customer getCustomer(String name, int phoneNumber) throws CustomerNotFoundException {
         return this.addressBook.getCustomer(name, phoneNumber);
     }
+
+    /**
+     * Turns the pending reservations in the cart into products in the cart.
+     */
+    private void commitReservations(Cart cart) {
+        if (inventory instanceof ReservableInventory reservable) {
+            for (Reservation reservation : cart.getReservations()) {
+                if (reservation.isPending()) {
+                    reservable.commit(reservation).forEach(cart::addProduct);
+                }
+            }
+        }
+        cart.clearReservations();
+    }
+
+    /**
+     * Releases the pending reservations in the cart that were made at least maxAgeMillis ago,
+     * removing them from the cart.
+     * @return the number of products released.
+     */
+    private int releaseReservations(Cart cart, long maxAgeMillis) {
+        if (!(inventory instanceof ReservableInventory reservable)) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        int released = 0;
+        for (Reservation reservation : cart.getReservations()) {
+            if (reservation.isPending() && now - reservation.getReservedAt() >= maxAgeMillis) {
+                reservable.release(reservation);
+                cart.removeReservation(reservation);
+                released += reservation.getQuantity();
+            }
+        }
+        return released;
+    }
 }
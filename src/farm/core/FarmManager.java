@@ -2,6 +2,9 @@ package farm.core;
 
 import farm.core.farmgrid.*;
 import farm.customer.Customer;
+import farm.files.BinaryFileLoader;
+import farm.files.FarmCheckpointSaver;
+import farm.files.IncrementalFileSaver;
 import farm.files.FileLoader;
 import farm.files.FileSaver;
 import farm.inventory.product.Product;
@@ -13,17 +16,34 @@ import farm.sales.transaction.SpecialSaleTransaction;
 import farm.sales.transaction.Transaction;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 /**
  * Controller class, coordinating information between the model and view/UI of the program.
  */
 public class FarmManager {
+    // how long a customer's reserved stock is held before it is returned to the inventory
+    private static final long RESERVATION_TIMEOUT_MILLIS = 15 * 60 * 1000;
+
     private final Farm farm;
     private final ShopFront shop;
     private final boolean enableFancy;
     private final FileLoader loader;
     private final FileSaver saver;
+    private final BinaryFileLoader binaryLoader;
+    private IncrementalFileSaver binarySaver = null;
+    private final FarmCheckpointSaver checkpointSaver;
+    private final Executor saveExecutor;
+    private CompletableFuture<Void> lastSave = CompletableFuture.completedFuture(null);
+    // outcomes of background saves, shown by the interactive thread before its next prompt
+    private final Queue<String> saveReports = new ConcurrentLinkedQueue<>();
     private Grid grid;
 
 
@@ -51,11 +71,31 @@ public class FarmManager {
      * @param enableFancy flag indicating whether to use the FancyInventory inventory type (Stage 2)
      */
     public FarmManager(Farm farm, ShopFront shop, boolean enableFancy) {
+        this(farm, shop, enableFancy, null);
+    }
+
+    /**
+     * Create a new FarmManager instance which starts with a grid already set up, such as one
+     * restored from a checkpoint.
+     * @param farm the model for the program.
+     * @param shop the UI/view for the program.
+     * @param enableFancy flag indicating whether to use the FancyInventory inventory type (Stage 2)
+     * @param grid the farm's grid, or null to ask the user to create or load one
+     */
+    public FarmManager(Farm farm, ShopFront shop, boolean enableFancy, Grid grid) {
         this.farm = farm;
+        this.grid = grid;
         this.shop = shop;
         this.enableFancy = enableFancy;
         this.loader = new FileLoader();
         this.saver = new FileSaver();
+        this.binaryLoader = new BinaryFileLoader();
+        this.checkpointSaver = new FarmCheckpointSaver();
+        this.saveExecutor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "farm-saver");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     /**
@@ -145,11 +185,16 @@ public class FarmManager {
 
     /**
      * Load in a farm from given file and set it as grid
-     * @param filename save file to load
+     * @param filename save file to load, either a binary save file or an exported text file
      */
     private void loadFarm(String filename) {
+        awaitSaves();
         try {
-            this.grid = loader.load(filename);
+            if (BinaryFileLoader.isBinaryFile(filename)) {
+                this.grid = binaryLoader.load(filename);
+            } else {
+                this.grid = loader.load(filename);
+            }
         } catch (IOException | IllegalArgumentException exception) {
             shop.displayMessage(exception.getMessage());
         }
@@ -301,6 +346,7 @@ public class FarmManager {
         boolean running = true;
         while (running) {
             List<String> input = shop.promptSalesCmd();
+            releaseStaleReservations();
             switch (input.getFirst()) {
                 case "q" -> {
                     if (farm.getTransactionManager().hasOngoingTransaction()) {
@@ -313,6 +359,7 @@ public class FarmManager {
                 case "start" -> handleStartTransaction(input);
                 case "add" -> handleTransactionAddRequest(input);
                 case "checkout" -> handleCheckoutRequest();
+                case "cancel" -> handleCancelRequest();
             }
         }
     }
@@ -407,6 +454,34 @@ public class FarmManager {
         }
     }
 
+    /**
+     * Returns stock which the ongoing transaction has held for too long to the inventory, so a
+     * customer who walks away from their cart does not keep it from the next customer.
+     */
+    private void releaseStaleReservations() {
+        if (!farm.getTransactionManager().hasOngoingTransaction()) {
+            return;
+        }
+        try {
+            int released = farm.releaseStaleReservations(RESERVATION_TIMEOUT_MILLIS);
+            if (released > 0) {
+                shop.displayMessage("Reservations timed out, " + released
+                        + " item/s returned to stock.");
+            }
+        } catch (FailedTransactionException e) {
+            // no transaction is ongoing, so nothing is reserved
+        }
+    }
+
+    private void handleCancelRequest() {
+        try {
+            farm.cancelTransaction();
+            shop.displayMessage("Transaction cancelled, cart returned to stock.");
+        } catch (FailedTransactionException e) {
+            shop.displayMessage("Cancel request failed: " + e.getMessage());
+        }
+    }
+
     private void handleTransactionAddRequest(List<String> cmdInput) {
         if (cmdInput.size() == 2 || cmdInput.size() == 3) {
 
@@ -547,6 +622,45 @@ public class FarmManager {
     }
 
 
+    /**
+     * Waits for every save still being written in the background to finish, then shows how
+     * they went.
+     */
+    private void awaitSaves() {
+        lastSave.handle((result, failure) -> null).join();
+        displaySaveReports();
+    }
+
+    /**
+     * Shows the outcome of every background save which has finished since the last call.
+     * <p>
+     * Only called from the interactive thread, so save outcomes never interleave with prompts.
+     */
+    private void displaySaveReports() {
+        String report;
+        while ((report = saveReports.poll()) != null) {
+            shop.displayMessage(report);
+        }
+    }
+
+    /**
+     * Queues the outcome of a background save once it has been written, to be shown by
+     * {@link #displaySaveReports()}.
+     * @param filename the file the grid was saved to
+     * @param failure the reason the save failed, or null if it succeeded
+     */
+    private void reportSave(String filename, Throwable failure) {
+        if (failure == null) {
+            saveReports.add("Saved farm grid to " + filename);
+            return;
+        }
+        Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+        if (cause instanceof UncheckedIOException unchecked) {
+            cause = unchecked.getCause();
+        }
+        saveReports.add("There was an error saving your file: " + cause.getMessage());
+    }
+
     // -- FARMING MODE CONTROLS -- //
 
     private void launchFarmingMode() {
@@ -554,9 +668,13 @@ public class FarmManager {
         boolean canSave = true;
         shop.displayMessage(grid.farmDisplay());
         while (running) {
+            displaySaveReports();
             List<String> input = shop.promptFarmingCmd();
             switch (input.getFirst()) {
-                case "q" -> running = false;
+                case "q" -> {
+                    awaitSaves();
+                    running = false;
+                }
                 case "place" -> {
                     if (input.size() == (4)) {
                         int row = Integer.parseInt(input.get(2));
@@ -586,15 +704,27 @@ public class FarmManager {
                     }
                 }
 
-                case "save" -> {
+                case "save", "export" -> {
                     if (canSave) {
                         String filename;
                         Scanner saveInput = new Scanner(System.in);
                         shop.displayMessage("Enter the filename to save farm grid as: ");
                         filename = saveInput.nextLine().trim();
                         try {
-                            saver.save(filename, this.grid);
-                        } catch (IOException e) {
+                            CompletableFuture<Void> save;
+                            if (input.getFirst().equals("save")) {
+                                if (binarySaver == null || !binarySaver.getPath()
+                                        .equals(Path.of(filename).toAbsolutePath())) {
+                                    binarySaver = new IncrementalFileSaver(filename);
+                                }
+                                save = binarySaver.saveInBackground(this.grid, saveExecutor);
+                            } else {
+                                save = saver.saveInBackground(filename, this.grid, saveExecutor);
+                            }
+                            // waiting on lastSave also waits for the outcome to be queued
+                            lastSave = save.whenComplete((result, failure) ->
+                                    reportSave(filename, failure));
+                        } catch (IllegalArgumentException | ArithmeticException e) {
                             shop.displayMessage("There was an error saving your file: " + e.getMessage());
                         }
                     } else {
@@ -602,6 +732,23 @@ public class FarmManager {
                     }
                 }
 
+                case "checkpoint" -> {
+                    if (canSave) {
+                        Scanner saveInput = new Scanner(System.in);
+                        shop.displayMessage("Enter the filename to save the checkpoint as: ");
+                        String filename = saveInput.nextLine().trim();
+                        try {
+                            checkpointSaver.save(filename, farm, this.grid);
+                            shop.displayMessage("Saved checkpoint to " + filename);
+                        } catch (IOException | IllegalArgumentException e) {
+                            shop.displayMessage("There was an error saving your checkpoint: "
+                                    + e.getMessage());
+                        }
+                    } else {
+                        shop.displayMessage("You can only save at the start of the day!");
+                    }
+                }
+
                 case "load" -> {
                     try {
                         loadFarm(input.get(1));
@@ -664,7 +811,7 @@ public class FarmManager {
     }
 
     /**
-     * End the day on the farm.
+     * End the day on the farm, throwing out any stock which has expired.
      */
     private void endDay() {
         try {
@@ -673,6 +820,10 @@ public class FarmManager {
             shop.displayMessage("Unexpected exception thrown when ending the day: "
                     + e.getMessage());
         }
+        int expired = this.farm.endDay();
+        if (expired > 0) {
+            shop.displayMessage(expired + " products expired overnight.");
+        }
     }
 
     /**
@@ -681,15 +832,11 @@ public class FarmManager {
      * @return symbol representation
      */
     private char nameToSymbol(String input) {
-        return switch (input) {
-            case "berry" -> '.';
-            case "coffee" -> ':';
-            case "wheat" -> '\u1F34';
-            case "chicken" -> '\u09EC';
-            case "cow" -> '\u096A';
-            case "sheep" -> '\u0D94';
-            default -> throw new IllegalArgumentException("Invalid object to place.");
-        };
+        Character symbol = SpeciesRegistry.getDefault().findSymbol(input);
+        if (symbol == null) {
+            throw new IllegalArgumentException("Invalid object to place.");
+        }
+        return symbol;
     }
 }
 
@@ -87,7 +87,7 @@ public class ShopFront {
      * @return a list of commands entered.
      */
     public List<String> promptFarmingCmd() {
-        Set<String> commands = Set.of("q", "place", "remove", "harvest", "save", "load", "end-day", "feed", "stats");
+        Set<String> commands = Set.of("q", "place", "remove", "harvest", "save", "export", "checkpoint", "load", "end-day", "feed", "stats");
         String helpMsg = """
                 Farming Options:
                 - q: Quit the application.
@@ -95,6 +95,8 @@ public class ShopFront {
                 - remove <row> <column>: Remove the object at the specified coordinate.
                 - harvest <row> <column>: Harvests the product at the specified coordinate, placing it in the inventory.
                 - save: Save the current farm to a file.
+                - export: Save the current farm to a text file.
+                - checkpoint: Save the current farm along with its stock, customers and sales history.
                 - load: Load a new farm.
                 - end-day: End day on the farm and start new day.
                 - stats: View the farm alongside a description of each tile in the farm.
@@ -143,7 +145,7 @@ public class ShopFront {
      * @hidden
      */
     public List<String> promptSalesCmd() {
-        Set<String> commands = Set.of("q", "start", "add", "checkout");
+        Set<String> commands = Set.of("q", "start", "add", "checkout", "cancel");
         String helpMsg = """
             Command Options:
             - q: Quit the sales mode.
@@ -153,6 +155,7 @@ public class ShopFront {
                                    ** Note: There must already be an ongoing transaction. **
             - add -o: List all the product type options available to be sold.
             - checkout: Finalise the sale of the products in the current customer's cart.
+            - cancel: Abandon the current transaction, returning the cart's contents to stock.
             """;
         return List.of(modePromptHandler("SALES", commands, helpMsg));
     }
@@ -51,6 +51,12 @@ public abstract class AbstractAnimal implements Animal {
         );
     }
 
+    @Override
+    public void restoreStatus(boolean fed, boolean collected) {
+        this.fed = fed;
+        this.collected = collected;
+    }
+
     @Override
     public void reset() {
         this.fed = false;
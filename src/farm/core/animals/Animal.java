@@ -50,4 +50,14 @@ public interface Animal {
      * returns stats of a animal
      */
     List<String> getsStats();
-}
\ No newline at end of file
+
+    /**
+     * Sets whether the animal has been fed and collected today, when loading a saved farm.
+     * By default the animal is only fed.
+     */
+    default void restoreStatus(boolean fed, boolean collected) {
+        if (fed) {
+            feed();
+        }
+    }
+}
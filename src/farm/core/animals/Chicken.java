@@ -1,7 +1,8 @@
 package farm.core.animals;
 
-import farm.inventory.product.Egg;
 import farm.inventory.product.Product;
+import farm.inventory.product.ProductFactory;
+import farm.inventory.product.data.Barcode;
 import farm.inventory.product.data.Quality;
 
 /**
@@ -11,7 +12,7 @@ public class Chicken extends AbstractAnimal {
 
     @Override
     protected Product createProduct(Quality quality) {
-        return new Egg(quality);
+        return ProductFactory.create(Barcode.EGG, quality);
     }
 
     @Override
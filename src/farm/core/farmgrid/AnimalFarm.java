@@ -2,37 +2,49 @@ package farm.core.farmgrid;
 
 import farm.core.UnableToInteractException;
 import farm.core.animals.Animal;
-import farm.core.animals.Chicken;
-import farm.core.animals.Cow;
-import farm.core.animals.Sheep;
 import farm.inventory.product.Product;
 import farm.inventory.product.data.Quality;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * class representing an animal farm
  */
 public class AnimalFarm implements ItemFarm {
-    private static final Map<Character, Class<?>> SYMBOL_TO_ANIMAL = Map.of(
-            '৬', Chicken.class,
-            '४', Cow.class,
-            'ඔ', Sheep.class
-    );
+    private final SpeciesRegistry registry;
+
+    /**
+     * constructor for an animal farm using the species of the default registry
+     */
+    public AnimalFarm() {
+        this(SpeciesRegistry.getDefault());
+    }
+
+    /**
+     * constructor for an animal farm
+     * @param registry the species which can be placed on the farm
+     */
+    public AnimalFarm(SpeciesRegistry registry) {
+        this.registry = registry;
+    }
 
     @Override
     public Object createItem(char symbol) {
-        Class<?> animalClass = SYMBOL_TO_ANIMAL.get(symbol);
-        if (animalClass == null) {
-            return null;
-        }
+        return registry.createAnimal(symbol);
+    }
 
-        try {
-            return animalClass.getDeclaredConstructor().newInstance();
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to create animal from symbol: " + symbol, e);
+    @Override
+    public Object restoreItem(char symbol, int stage, boolean fed, boolean collected) {
+        Object item = createItem(symbol);
+        if (item instanceof Animal animal) {
+            animal.restoreStatus(fed, collected);
         }
+        return item;
+    }
+
+    @Override
+    public boolean canCreate(char symbol) {
+        return registry.isAnimal(symbol);
     }
 
     @Override
@@ -49,6 +61,11 @@ public class AnimalFarm implements ItemFarm {
         }
     }
 
+    @Override
+    public boolean isHarvestable(Object item) {
+        return item instanceof Animal animal && animal.isFed() && !animal.isCollected();
+    }
+
     @Override
     public List<String> getItemStats(Object item) {
         if (item instanceof Animal animal) {
@@ -58,6 +75,16 @@ public class AnimalFarm implements ItemFarm {
         }
     }
 
+    @Override
+    public void visitItem(Object item, int row, int column, TileVisitor visitor) {
+        if (item instanceof Animal animal) {
+            visitor.visitAnimal(row, column, animal.getType(), animal.getSymbol(),
+                    animal.isFed(), animal.isCollected());
+        } else {
+            visitor.visitGround(row, column);
+        }
+    }
+
     @Override
     public boolean feedItem(Object item) {
 
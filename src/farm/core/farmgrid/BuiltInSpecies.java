@@ -0,0 +1,24 @@
+package farm.core.farmgrid;
+
+import farm.core.animals.Chicken;
+import farm.core.animals.Cow;
+import farm.core.animals.Sheep;
+import farm.core.plants.Berry;
+import farm.core.plants.CoffeePlant;
+import farm.core.plants.Wheat;
+
+/**
+ * Provides the plants and animals which every farm supports.
+ */
+class BuiltInSpecies implements SpeciesProvider {
+
+    @Override
+    public void registerSpecies(SpeciesRegistry registry) {
+        registry.registerPlant("berry", '.', Berry::new);
+        registry.registerPlant("coffee", ':', CoffeePlant::new);
+        registry.registerPlant("wheat", 'ἴ', Wheat::new);
+        registry.registerAnimal("chicken", '৬', Chicken::new);
+        registry.registerAnimal("cow", '४', Cow::new);
+        registry.registerAnimal("sheep", 'ඔ', Sheep::new);
+    }
+}
@@ -0,0 +1,36 @@
+package farm.core.farmgrid;
+
+/**
+ * A grid which keeps track of what has changed since it was last saved, so that only the
+ * changes need to be written.
+ * <p>
+ * Changes are described as a number of ended days followed by the current state of each tile
+ * changed since the last save: ending that many days on the saved grid and then restoring the
+ * changed tiles gives the grid as it is now.
+ */
+public interface ChangeTracking {
+
+    /**
+     * Retrieves the number of days ended since changes were last cleared.
+     * @return the number of "end-day" commands run since the last save
+     */
+    int getEndedDays();
+
+    /**
+     * Counts the tiles changed since changes were last cleared.
+     * @return the number of tiles placed, harvested, fed or removed since the last save
+     */
+    int getChangedCount();
+
+    /**
+     * Passes the current state of each tile changed since changes were last cleared to a
+     * visitor, in row-major order. Tiles which are now ground are visited as ground.
+     * @param visitor the visitor to pass each changed tile to
+     */
+    void visitChangedTiles(TileVisitor visitor);
+
+    /**
+     * Forgets every change, after the grid has been saved.
+     */
+    void clearChanges();
+}
@@ -5,25 +5,28 @@ import farm.inventory.product.Product;
 import farm.inventory.product.data.RandomQuality;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Represents a grid-based farm that can contain plants or animals.
  * Implements the Grid interface to provide farming functionality.
  */
-public class FarmGrid implements Grid {
+public class FarmGrid implements Grid, ChangeTracking {
     private final int rows;
     private final int columns;
     private final Object[][] grid;
     private final RandomQuality randomQuality;
     private final String farmType;
     private final ItemFarm itemFarm;
-
-    private static final Map<String, ItemFarm> FARM_TYPE_TO_FACTORY = Map.of(
-            "plant", new PlantFarm(),
-            "animal", new AnimalFarm()
-    );
+    private ForkJoinPool endOfDayPool = null;
+    private final String[] renderedRows;
+    private final BitSet dirtyRows;
+    private String renderedDisplay = null;
+    private final HarvestIndex harvestIndex;
+    private TileMap changedTiles = new TileMap();
+    private int endedDays = 0;
 
     /**
      * Constructor for the FarmGrid, creating a farm of specified type.
@@ -36,17 +39,49 @@ public class FarmGrid implements Grid {
         this.columns = columns;
         this.farmType = farmType;
         this.grid = new Object[rows][columns];
+        this.renderedRows = new String[rows];
+        this.dirtyRows = new BitSet(rows);
+        this.dirtyRows.set(0, rows);
         this.randomQuality = new RandomQuality();
-        this.itemFarm = FARM_TYPE_TO_FACTORY.get(farmType.toLowerCase());
-        if (this.itemFarm == null) {
-            throw new IllegalArgumentException("Invalid farm type: " + farmType);
-        }
+        this.itemFarm = switch (farmType.toLowerCase()) {
+            case "plant" -> new PlantFarm();
+            case "animal" -> new AnimalFarm();
+            default -> throw new IllegalArgumentException("Invalid farm type: " + farmType);
+        };
+        this.harvestIndex = new HarvestIndex(itemFarm);
+    }
+
+    @Override
+    public boolean canPlace(char symbol) {
+        return itemFarm.canCreate(symbol);
     }
 
     @Override
     public boolean place(int row, int column, char symbol) {
+        if (!isValidPosition(row, column)) {
+            return false;
+        }
         Object newItem = itemFarm.createItem(symbol);
-        if (!isValidPosition(row, column) || !itemFarm.isValidForFarm(newItem)) {
+        if (!itemFarm.isValidForFarm(newItem)) {
+            return false;
+        }
+        if (grid[row][column] != null) {
+            throw new IllegalStateException("Something is already there!");
+        }
+
+        grid[row][column] = newItem;
+        changed(row, column);
+        return true;
+    }
+
+    @Override
+    public boolean restoreTile(int row, int column, char symbol, int stage, boolean fed,
+            boolean collected) {
+        if (!isValidPosition(row, column)) {
+            return false;
+        }
+        Object newItem = itemFarm.restoreItem(symbol, stage, fed, collected);
+        if (!itemFarm.isValidForFarm(newItem)) {
             return false;
         }
         if (grid[row][column] != null) {
@@ -54,6 +89,7 @@ public class FarmGrid implements Grid {
         }
 
         grid[row][column] = newItem;
+        changed(row, column);
         return true;
     }
 
@@ -63,7 +99,106 @@ public class FarmGrid implements Grid {
             throw new UnableToInteractException("You can't harvest this location");
         }
         Object item = grid[row][column];
-        return itemFarm.harvestItem(item, randomQuality.getRandomQuality());
+        Product product = itemFarm.harvestItem(item, randomQuality.getRandomQuality());
+        changed(row, column);
+        return product;
+    }
+
+    @Override
+    public int placeRegion(int fromRow, int fromColumn, int toRow, int toColumn, char symbol) {
+        if (!canPlace(symbol)) {
+            return 0;
+        }
+        int placed = 0;
+        for (int i = Math.max(0, fromRow); i < Math.min(rows, toRow); i++) {
+            int placedBefore = placed;
+            for (int j = Math.max(0, fromColumn); j < Math.min(columns, toColumn); j++) {
+                if (grid[i][j] == null) {
+                    grid[i][j] = itemFarm.createItem(symbol);
+                    tileChanged(i * columns + j, grid[i][j]);
+                    placed++;
+                }
+            }
+            if (placed != placedBefore) {
+                markDirty(i);
+            }
+        }
+        return placed;
+    }
+
+    /**
+     * Harvests every tile in a rectangular region of the grid which is ready to harvest.
+     * <p>
+     * Tiles are checked before harvesting, so no exceptions are thrown for tiles with nothing
+     * ready. A random quality is drawn for each product harvested, in row-major order.
+     * @param fromRow the first row of the region
+     * @param fromColumn the first column of the region
+     * @param toRow the row after the last row of the region
+     * @param toColumn the column after the last column of the region
+     * @param batch the batch to add the products gathered from the region to
+     */
+    @Override
+    public void harvestRegion(int fromRow, int fromColumn, int toRow, int toColumn,
+            HarvestBatch batch) {
+        for (int i = Math.max(0, fromRow); i < Math.min(rows, toRow); i++) {
+            int harvestedBefore = batch.getTotal();
+            for (int j = Math.max(0, fromColumn); j < Math.min(columns, toColumn); j++) {
+                Object item = grid[i][j];
+                if (!itemFarm.isHarvestable(item)) {
+                    batch.skip();
+                    continue;
+                }
+                try {
+                    Product product = itemFarm.harvestItem(item,
+                            randomQuality.getRandomQuality());
+                    batch.add(product.getBarcode(), product.getQuality());
+                    tileChanged(i * columns + j, item);
+                } catch (UnableToInteractException e) {
+                    // not thrown for an item which is harvestable
+                    batch.skip();
+                }
+            }
+            if (batch.getTotal() != harvestedBefore) {
+                markDirty(i);
+            }
+        }
+    }
+
+    @Override
+    public int feedRegion(int fromRow, int fromColumn, int toRow, int toColumn) {
+        int fed = 0;
+        for (int i = Math.max(0, fromRow); i < Math.min(rows, toRow); i++) {
+            int fedBefore = fed;
+            for (int j = Math.max(0, fromColumn); j < Math.min(columns, toColumn); j++) {
+                if (itemFarm.feedItem(grid[i][j])) {
+                    tileChanged(i * columns + j, grid[i][j]);
+                    fed++;
+                }
+            }
+            if (fed != fedBefore) {
+                markDirty(i);
+            }
+        }
+        return fed;
+    }
+
+    @Override
+    public int removeRegion(int fromRow, int fromColumn, int toRow, int toColumn) {
+        int removed = 0;
+        for (int i = Math.max(0, fromRow); i < Math.min(rows, toRow); i++) {
+            int removedBefore = removed;
+            for (int j = Math.max(0, fromColumn); j < Math.min(columns, toColumn); j++) {
+                if (grid[i][j] != null) {
+                    grid[i][j] = null;
+                    tileChanged(i * columns + j, null);
+                    removed++;
+                }
+            }
+            if (removed != removedBefore) {
+                markDirty(i);
+            }
+        }
+        return removed;
     }
 
     @Override
@@ -78,6 +213,14 @@ public class FarmGrid implements Grid {
         return stats;
     }
 
+    @Override
+    public void visitTiles(TileVisitor visitor) {
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                itemFarm.visitItem(grid[i][j], i, j, visitor);
+            }
+        }
+    }
 
     @Override
     public boolean interact(String command, int row, int column) throws UnableToInteractException {
@@ -86,25 +229,150 @@ public class FarmGrid implements Grid {
         }
         Object item = grid[row][column];
         return switch (command) {
-            case "feed" -> itemFarm.feedItem(item);
+            case "feed" -> feed(item, row, column);
             case "end-day" -> endDay();
             case "remove" -> remove(row, column);
             default -> throw new UnableToInteractException("Unknown command: " + command);
         };
     }
 
+    /**
+     * Harvests every tile on the grid which is ready to harvest.
+     * <p>
+     * The grid keeps an index of the ready tiles, so only those tiles are visited. A random
+     * quality is drawn for each product harvested, in row-major order.
+     * @return the products gathered from the grid.
+     */
+    @Override
+    public HarvestBatch harvestAllReady() {
+        HarvestBatch batch = new HarvestBatch();
+        for (int tile : harvestIndex.readyTiles()) {
+            int row = tile / columns;
+            int column = tile % columns;
+            try {
+                Product product = itemFarm.harvestItem(grid[row][column],
+                        randomQuality.getRandomQuality());
+                batch.add(product.getBarcode(), product.getQuality());
+            } catch (UnableToInteractException e) {
+                throw new IllegalStateException("Harvest index is out of date", e);
+            }
+            changed(row, column);
+        }
+        return batch;
+    }
+
+    /**
+     * Counts the tiles which are ready to harvest.
+     * @return the number of tiles which would be harvested by {@link #harvestAllReady()}
+     */
+    public int getReadyCount() {
+        return harvestIndex.readyCount();
+    }
+
+    /**
+     * Retrieves the number of days which have ended on this grid.
+     * @return the current day
+     */
+    public int getDay() {
+        return harvestIndex.getDay();
+    }
+
+    /**
+     * Finds the first day on which something on the grid will be ready to harvest, if nothing
+     * else is done to the grid.
+     * @return the current day if something is ready now, the day the next plant is fully grown,
+     * or -1 if nothing will become ready without being fed
+     */
+    public int nextReadyDay() {
+        return harvestIndex.nextReadyDay();
+    }
+
+    @Override
+    public int getEndedDays() {
+        return endedDays;
+    }
+
+    @Override
+    public int getChangedCount() {
+        return changedTiles.size();
+    }
+
+    /**
+     * Passes the current state of each tile changed since changes were last cleared to a
+     * visitor, in row-major order.
+     * <p>
+     * Only the changed tiles are visited, so this takes time in proportion to the number of
+     * changes rather than the area of the grid.
+     * @param visitor the visitor to pass each changed tile to
+     */
+    @Override
+    public void visitChangedTiles(TileVisitor visitor) {
+        for (int tile : changedTiles.sortedKeys()) {
+            int row = tile / columns;
+            int column = tile % columns;
+            itemFarm.visitItem(grid[row][column], row, column, visitor);
+        }
+    }
+
+    @Override
+    public void clearChanges() {
+        changedTiles = new TileMap();
+        endedDays = 0;
+    }
+
+    /**
+     * feeds the item on a tile
+     * @param item the item to feed
+     * @param row the row of the item
+     * @param column the column of the item
+     * @return true iff the item is fed
+     */
+    private boolean feed(Object item, int row, int column) {
+        boolean fed = itemFarm.feedItem(item);
+        if (fed) {
+            changed(row, column);
+        }
+        return fed;
+    }
+
+    /**
+     * Sets the pool used to process the end of the day. With a pool, the grid is split into
+     * bands of rows which are processed in parallel; without one, every tile is processed in
+     * turn on the calling thread. Either way, each tile ends up in the same state.
+     * @param pool the pool to process the end of the day on, or null to process it sequentially
+     */
+    public void setEndOfDayPool(ForkJoinPool pool) {
+        this.endOfDayPool = pool;
+    }
+
     /**
      * process the end of day of each farm
      * @return always true
      */
     private boolean endDay() {
-        for (int i = 0; i < rows; i++) {
+        harvestIndex.advanceDay();
+        endedDays++;
+        if (itemFarm.advanceDay()) {
+            RowBandTask.run(endOfDayPool, rows, columns, this::endDay);
+            reindex();
+        }
+        dirtyRows.set(0, rows);
+        renderedDisplay = null;
+        return true;
+    }
+
+    /**
+     * process the end of day of each tile in a band of rows
+     * @param fromRow the first row to process
+     * @param toRow the row after the last row to process
+     */
+    private void endDay(int fromRow, int toRow) {
+        for (int i = fromRow; i < toRow; i++) {
             for (int j = 0; j < columns; j++) {
                 Object item = grid[i][j];
                 itemFarm.processEndOfDay(item);
             }
         }
-        return true;
     }
 
     /**
@@ -116,23 +384,94 @@ public class FarmGrid implements Grid {
     private boolean remove(int row, int column) {
         if (isValidPosition(row, column)) {
             grid[row][column] = null;
+            changed(row, column);
             return true;
         }
         return false;
     }
 
+    /**
+     * Generates the grid display of the farm as a String.
+     * <p>
+     * Each row is drawn once and then kept until something on it changes, so after a change to
+     * a single tile only that tile's row is drawn again. If nothing has changed since the last
+     * call, the previous display is returned as is.
+     */
     @Override
     public String farmDisplay() {
-        StringBuilder display = new StringBuilder("-".repeat((columns * 2) + 3)).append('\n');
+        if (renderedDisplay != null) {
+            return renderedDisplay;
+        }
+        for (int i = dirtyRows.nextSetBit(0); i >= 0; i = dirtyRows.nextSetBit(i + 1)) {
+            renderedRows[i] = renderRow(i);
+        }
+        dirtyRows.clear();
+
+        String border = "-".repeat((columns * 2) + 3);
+        StringBuilder display = new StringBuilder((rows + 2) * (columns * 2 + 4));
+        display.append(border).append('\n');
+        for (String renderedRow : renderedRows) {
+            display.append(renderedRow);
+        }
+        renderedDisplay = display.append(border).append('\n').toString();
+        return renderedDisplay;
+    }
+
+    /**
+     * draws a single row of the grid display
+     * @param row the row to draw
+     * @return the row, including its borders and line break
+     */
+    private String renderRow(int row) {
+        StringBuilder line = new StringBuilder((columns * 2) + 4).append("| ");
+        for (int j = 0; j < columns; j++) {
+            line.append(itemFarm.getDisplaySymbol(grid[row][j]));
+        }
+        return line.append("|\n").toString();
+    }
+
+    /**
+     * records every tile in the harvest index again, after every tile has been processed
+     */
+    private void reindex() {
+        harvestIndex.clear();
         for (int i = 0; i < rows; i++) {
-            display.append("| ");
             for (int j = 0; j < columns; j++) {
-                Object item = grid[i][j];
-                display.append(itemFarm.getDisplaySymbol(item));
+                if (grid[i][j] != null) {
+                    harvestIndex.update(i * columns + j, grid[i][j]);
+                }
             }
-            display.append("|\n");
         }
-        return display.append("-".repeat((columns * 2) + 3)).append('\n').toString();
+    }
+
+    /**
+     * records a change to a single tile, in the display and in the harvest index
+     * @param row the row of the tile
+     * @param column the column of the tile
+     */
+    private void changed(int row, int column) {
+        tileChanged(row * columns + column, grid[row][column]);
+        markDirty(row);
+    }
+
+    /**
+     * records a change to a single tile in the harvest index and the changes since the last
+     * save, leaving the display to the caller
+     * @param tile the index of the tile
+     * @param item the item now on the tile, or null for ground
+     */
+    private void tileChanged(int tile, Object item) {
+        harvestIndex.update(tile, item);
+        changedTiles.put(tile, 0);
+    }
+
+    /**
+     * marks a row as needing to be drawn again
+     * @param row the row which changed
+     */
+    private void markDirty(int row) {
+        dirtyRows.set(row);
+        renderedDisplay = null;
     }
 
     @Override
@@ -0,0 +1,122 @@
+package farm.core.farmgrid;
+
+import farm.core.UnableToInteractException;
+import farm.inventory.product.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A read-only copy of a grid as it stood at one moment.
+ * <p>
+ * The copy is a {@link GridStats} snapshot, so taking it creates no objects per tile and
+ * costs far less than writing the grid anywhere. The frozen grid can then be saved or
+ * displayed on another thread while the original keeps changing. Every attempt to change a
+ * frozen grid fails.
+ */
+public final class FrozenGrid implements Grid {
+    private final GridStats stats;
+    private final String farmType;
+
+    private FrozenGrid(GridStats stats, String farmType) {
+        this.stats = stats;
+        this.farmType = farmType;
+    }
+
+    /**
+     * Takes a frozen copy of the current state of a grid.
+     * @param grid the grid to copy
+     * @return the frozen copy, or the grid itself if it is already frozen
+     * @throws ArithmeticException if the grid has too many tiles to hold in arrays
+     */
+    public static FrozenGrid of(Grid grid) {
+        if (grid instanceof FrozenGrid frozen) {
+            return frozen;
+        }
+        return new FrozenGrid(grid.snapshotStats(), grid.toString());
+    }
+
+    @Override
+    public boolean interact(String command, int row, int column)
+            throws UnableToInteractException {
+        throw new UnableToInteractException("A frozen grid cannot be changed");
+    }
+
+    @Override
+    public boolean canPlace(char symbol) {
+        return false;
+    }
+
+    @Override
+    public boolean place(int row, int column, char symbol) {
+        return false;
+    }
+
+    @Override
+    public boolean restoreTile(int row, int column, char symbol, int stage, boolean fed,
+            boolean collected) {
+        return false;
+    }
+
+    @Override
+    public Product harvest(int row, int column) throws UnableToInteractException {
+        throw new UnableToInteractException("A frozen grid cannot be changed");
+    }
+
+    @Override
+    public String farmDisplay() {
+        int columns = stats.getColumns();
+        String border = "-".repeat((columns * 2) + 3);
+        StringBuilder display = new StringBuilder((stats.getRows() + 2) * (columns * 2 + 4));
+        display.append(border).append('\n');
+        int tile = 0;
+        for (int i = 0; i < stats.getRows(); i++) {
+            display.append("| ");
+            for (int j = 0; j < columns; j++, tile++) {
+                if (stats.isGround(tile)) {
+                    display.append("  ");
+                } else if (stats.isPlant(tile)) {
+                    display.append(stats.getSymbol(tile)).append(' ');
+                } else {
+                    display.append(stats.getSymbol(tile));
+                }
+            }
+            display.append("|\n");
+        }
+        return display.append(border).append('\n').toString();
+    }
+
+    @Override
+    public List<List<String>> getStats() {
+        List<List<String>> tiles = new ArrayList<>(stats.size());
+        for (int tile = 0; tile < stats.size(); tile++) {
+            tiles.add(stats.toStats(tile));
+        }
+        return tiles;
+    }
+
+    @Override
+    public void visitTiles(TileVisitor visitor) {
+        stats.accept(visitor);
+    }
+
+    @Override
+    public GridStats snapshotStats() {
+        return stats;
+    }
+
+    @Override
+    public int getRows() {
+        return stats.getRows();
+    }
+
+    @Override
+    public int getColumns() {
+        return stats.getColumns();
+    }
+
+    @Override
+    public String toString() {
+        return farmType;
+    }
+}
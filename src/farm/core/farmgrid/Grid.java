@@ -29,6 +29,50 @@ public interface Grid {
      */
     boolean place(int row, int column, char symbol);
 
+    /**
+     * Determines whether an item could be placed on the grid, without placing it.
+     * <p>
+     * By default any species in the default {@link SpeciesRegistry} is accepted; grids which
+     * hold fewer kinds of item should override this.
+     * @param symbol character representing the item, as passed to
+     * {@link #place(int, int, char)}
+     * @return true iff an item with the symbol could be placed on an empty tile of the grid.
+     */
+    default boolean canPlace(char symbol) {
+        SpeciesRegistry registry = SpeciesRegistry.getDefault();
+        return registry.isPlant(symbol) || registry.isAnimal(symbol);
+    }
+
+    /**
+     * Places an item on the grid in a saved state, as when loading a saved farm.
+     * <p>
+     * By default the item is placed and, if it is fed, fed; grids should override this to
+     * restore the stage of plants and the collected status of animals as well.
+     * @param row the row coordinate
+     * @param column the column coordinate
+     * @param symbol character representing the item to be placed, as passed to
+     * {@link #place(int, int, char)}
+     * @param stage the stage of a plant, as shown in {@link #getStats()}
+     * @param fed whether an animal has been fed
+     * @param collected whether an animal's product has been collected
+     * @return true iff the item was successfully placed.
+     * @throws IllegalStateException if something is already at the coordinate
+     */
+    default boolean restoreTile(int row, int column, char symbol, int stage, boolean fed,
+            boolean collected) {
+        if (!place(row, column, symbol)) {
+            return false;
+        }
+        if (fed) {
+            try {
+                interact("feed", row, column);
+            } catch (UnableToInteractException ignored) {
+                // never thrown for a position inside the grid
+            }
+        }
+        return true;
+    }
+
     /**
      * Attempts to harvest the product at the specified coordinate, placing the
      * resulting product into the inventory.
@@ -55,6 +99,30 @@ public interface Grid {
      */
     List<List<String>> getStats();
 
+    /**
+     * Passes the state of each tile on the grid to a visitor, in row-major order.
+     * <p>
+     * Grids should override this to visit their tiles directly; by default the stats from
+     * {@link #getStats()} are read back.
+     * @param visitor the visitor to pass each tile to
+     */
+    default void visitTiles(TileVisitor visitor) {
+        List<List<String>> stats = getStats();
+        for (int tile = 0; tile < stats.size(); tile++) {
+            GridStats.visitStats(stats.get(tile), tile / getColumns(), tile % getColumns(),
+                    visitor);
+        }
+    }
+
+    /**
+     * Takes a snapshot of the state of every tile on the grid, held in primitive arrays rather
+     * than lists of strings.
+     * @return the snapshot
+     */
+    default GridStats snapshotStats() {
+        return GridStats.of(this);
+    }
+
     /**
      * returns the number of rows in the grid.
      */
@@ -64,4 +132,154 @@ public interface Grid {
      * returns the number of columns in the grid.
      */
     int getColumns();
+
+    /**
+     * Places an item on every empty tile in a rectangular region of the grid.
+     * <p>
+     * The region covers rows {@code fromRow} to {@code toRow} and columns {@code fromColumn} to
+     * {@code toColumn}, each inclusive of the first and exclusive of the last, and is clipped to
+     * the grid. Tiles which are already occupied are skipped.
+     * @param fromRow the first row of the region
+     * @param fromColumn the first column of the region
+     * @param toRow the row after the last row of the region
+     * @param toColumn the column after the last column of the region
+     * @param symbol character representing the item to be placed
+     * @return the number of items placed, which is 0 if the symbol is not valid for this grid.
+     */
+    default int placeRegion(int fromRow, int fromColumn, int toRow, int toColumn, char symbol) {
+        int placed = 0;
+        for (int i = Math.max(0, fromRow); i < Math.min(getRows(), toRow); i++) {
+            for (int j = Math.max(0, fromColumn); j < Math.min(getColumns(), toColumn); j++) {
+                try {
+                    if (!place(i, j, symbol)) {
+                        return placed;
+                    }
+                    placed++;
+                } catch (IllegalStateException occupied) {
+                    // skip tiles which already hold something
+                }
+            }
+        }
+        return placed;
+    }
+
+    /**
+     * Harvests every tile in a rectangular region of the grid which is ready to harvest.
+     * <p>
+     * The region is given as in {@link #placeRegion(int, int, int, int, char)}. Tiles with
+     * nothing ready to harvest are counted as skipped rather than reported as errors.
+     * @param fromRow the first row of the region
+     * @param fromColumn the first column of the region
+     * @param toRow the row after the last row of the region
+     * @param toColumn the column after the last column of the region
+     * @return the products gathered from the region.
+     */
+    default HarvestBatch harvestRegion(int fromRow, int fromColumn, int toRow, int toColumn) {
+        HarvestBatch batch = new HarvestBatch();
+        harvestRegion(fromRow, fromColumn, toRow, toColumn, batch);
+        return batch;
+    }
+
+    /**
+     * Harvests every tile in a rectangular region of the grid which is ready to harvest, adding
+     * the products gathered to an existing batch.
+     * <p>
+     * Behaves as {@link #harvestRegion(int, int, int, int)}, but lets many harvests share one
+     * batch.
+     * @param fromRow the first row of the region
+     * @param fromColumn the first column of the region
+     * @param toRow the row after the last row of the region
+     * @param toColumn the column after the last column of the region
+     * @param batch the batch to add the products gathered from the region to
+     */
+    default void harvestRegion(int fromRow, int fromColumn, int toRow, int toColumn,
+            HarvestBatch batch) {
+        for (int i = Math.max(0, fromRow); i < Math.min(getRows(), toRow); i++) {
+            for (int j = Math.max(0, fromColumn); j < Math.min(getColumns(), toColumn); j++) {
+                try {
+                    Product product = harvest(i, j);
+                    batch.add(product.getBarcode(), product.getQuality());
+                } catch (UnableToInteractException nothingReady) {
+                    batch.skip();
+                }
+            }
+        }
+    }
+
+    /**
+     * Harvests every tile on the grid which is ready to harvest.
+     * <p>
+     * Unlike {@link #harvestRegion(int, int, int, int)}, tiles with nothing ready are not
+     * counted as skipped.
+     * @return the products gathered from the grid.
+     */
+    default HarvestBatch harvestAllReady() {
+        HarvestBatch batch = new HarvestBatch();
+        for (int i = 0; i < getRows(); i++) {
+            for (int j = 0; j < getColumns(); j++) {
+                try {
+                    Product product = harvest(i, j);
+                    batch.add(product.getBarcode(), product.getQuality());
+                } catch (UnableToInteractException nothingReady) {
+                    // only ready tiles are counted
+                }
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Feeds every animal in a rectangular region of the grid.
+     * <p>
+     * The region is given as in {@link #placeRegion(int, int, int, int, char)}.
+     * @param fromRow the first row of the region
+     * @param fromColumn the first column of the region
+     * @param toRow the row after the last row of the region
+     * @param toColumn the column after the last column of the region
+     * @return the number of animals fed.
+     */
+    default int feedRegion(int fromRow, int fromColumn, int toRow, int toColumn) {
+        int fed = 0;
+        for (int i = Math.max(0, fromRow); i < Math.min(getRows(), toRow); i++) {
+            for (int j = Math.max(0, fromColumn); j < Math.min(getColumns(), toColumn); j++) {
+                try {
+                    if (interact("feed", i, j)) {
+                        fed++;
+                    }
+                } catch (UnableToInteractException ignored) {
+                    // never thrown for a position inside the grid
+                }
+            }
+        }
+        return fed;
+    }
+
+    /**
+     * Resets every tile in a rectangular region of the grid to ground.
+     * <p>
+     * The region is given as in {@link #placeRegion(int, int, int, int, char)}.
+     * @param fromRow the first row of the region
+     * @param fromColumn the first column of the region
+     * @param toRow the row after the last row of the region
+     * @param toColumn the column after the last column of the region
+     * @return the number of items removed.
+     */
+    default int removeRegion(int fromRow, int fromColumn, int toRow, int toColumn) {
+        int removed = 0;
+        List<List<String>> stats = getStats();
+        for (int i = Math.max(0, fromRow); i < Math.min(getRows(), toRow); i++) {
+            for (int j = Math.max(0, fromColumn); j < Math.min(getColumns(), toColumn); j++) {
+                if (stats.get(i * getColumns() + j).get(0).equals("ground")) {
+                    continue;
+                }
+                try {
+                    interact("remove", i, j);
+                    removed++;
+                } catch (UnableToInteractException ignored) {
+                    // never thrown for a position inside the grid
+                }
+            }
+        }
+        return removed;
+    }
 }
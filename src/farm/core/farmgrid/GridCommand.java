@@ -0,0 +1,132 @@
+package farm.core.farmgrid;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A single action to perform on a {@link Grid}, for running many actions at once through a
+ * {@link GridCommandExecutor}.
+ * <p>
+ * Commands are typed, so that they can be checked once up front and run without looking up the
+ * command by name each time, as {@link Grid#interact(String, int, int)} does.
+ * @param type the kind of action to perform
+ * @param row the row of the tile to act on (ignored when ending the day)
+ * @param column the column of the tile to act on (ignored when ending the day)
+ * @param symbol the symbol of the item to place (only used when placing)
+ */
+public record GridCommand(Type type, int row, int column, char symbol) {
+
+    /**
+     * The kinds of action which can be performed on a grid.
+     */
+    public enum Type {
+        PLACE,
+        HARVEST,
+        FEED,
+        REMOVE,
+        END_DAY
+    }
+
+    /**
+     * Creates a command which places an item on a tile.
+     * @param row the row of the tile
+     * @param column the column of the tile
+     * @param symbol character representing the item to be placed
+     * @return the command
+     */
+    public static GridCommand place(int row, int column, char symbol) {
+        return new GridCommand(Type.PLACE, row, column, symbol);
+    }
+
+    /**
+     * Creates a command which harvests a tile.
+     * @param row the row of the tile
+     * @param column the column of the tile
+     * @return the command
+     */
+    public static GridCommand harvest(int row, int column) {
+        return new GridCommand(Type.HARVEST, row, column, ' ');
+    }
+
+    /**
+     * Creates a command which feeds the animal on a tile.
+     * @param row the row of the tile
+     * @param column the column of the tile
+     * @return the command
+     */
+    public static GridCommand feed(int row, int column) {
+        return new GridCommand(Type.FEED, row, column, ' ');
+    }
+
+    /**
+     * Creates a command which resets a tile to ground.
+     * @param row the row of the tile
+     * @param column the column of the tile
+     * @return the command
+     */
+    public static GridCommand remove(int row, int column) {
+        return new GridCommand(Type.REMOVE, row, column, ' ');
+    }
+
+    /**
+     * Creates a command which ends the day on the whole grid.
+     * @return the command
+     */
+    public static GridCommand endDay() {
+        return new GridCommand(Type.END_DAY, 0, 0, ' ');
+    }
+
+    /**
+     * Converts a command in the form typed into the farming mode of the shop front, such as
+     * {@code "feed 1 2"} or {@code "end-day"}, into a typed command.
+     * <p>
+     * Items to place are given by their symbol, e.g. {@code "place 0 3 ."}.
+     * @param line the command to convert
+     * @return the command
+     * @throws IllegalArgumentException if the command is not recognised or its arguments are
+     * missing or malformed
+     */
+    public static GridCommand parse(String line) {
+        String[] parts = words(line);
+        try {
+            return switch (parts[0]) {
+                case "place" -> {
+                    if (parts[3].length() != 1) {
+                        throw new IllegalArgumentException("Invalid symbol: " + parts[3]);
+                    }
+                    yield place(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                            parts[3].charAt(0));
+                }
+                case "harvest" -> harvest(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+                case "feed" -> feed(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+                case "remove" -> remove(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+                case "end-day" -> endDay();
+                default -> throw new IllegalArgumentException("Unknown command: " + parts[0]);
+            };
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed command: " + line, e);
+        }
+    }
+
+    /**
+     * Splits a line into words separated by whitespace, without the cost of a regular
+     * expression.
+     */
+    private static String[] words(String line) {
+        List<String> words = new ArrayList<>(4);
+        int start = -1;
+        for (int i = 0; i <= line.length(); i++) {
+            boolean separator = i == line.length() || Character.isWhitespace(line.charAt(i));
+            if (separator && start >= 0) {
+                words.add(line.substring(start, i));
+                start = -1;
+            } else if (!separator && start < 0) {
+                start = i;
+            }
+        }
+        if (words.isEmpty()) {
+            words.add("");
+        }
+        return words.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,167 @@
+package farm.core.farmgrid;
+
+import farm.core.UnableToInteractException;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Runs batches of {@link GridCommand}s against a grid.
+ * <p>
+ * Every command in a batch is checked before any of them are run, so a batch with a command
+ * outside the grid, or which places an unknown item or one the grid's farm type cannot hold, is
+ * rejected as a whole and leaves the grid untouched.
+ * Commands are then run in order through the region operations of {@link Grid}, which report
+ * what they did rather than throwing, so a batch never stops part way through.
+ */
+public class GridCommandExecutor {
+    /** Status of a command which changed the grid or harvested a product. */
+    public static final byte SUCCEEDED = 1;
+    /** Status of a command which had nothing to act on, such as harvesting an unripe crop. */
+    public static final byte NO_EFFECT = 0;
+
+    private final Grid grid;
+
+    /**
+     * Creates an executor which runs commands against the given grid.
+     * @param grid the grid to run commands against
+     */
+    public GridCommandExecutor(Grid grid) {
+        this.grid = grid;
+    }
+
+    /**
+     * Checks and then runs a stream of commands, in encounter order.
+     * @param commands the commands to run
+     * @return the status of each command and the products harvested
+     * @throws IllegalArgumentException if any command is invalid for the grid
+     * @see #execute(List)
+     */
+    public Result execute(Stream<GridCommand> commands) {
+        return execute(commands.toList());
+    }
+
+    /**
+     * Checks and then runs a list of commands, in order.
+     * <p>
+     * Unlike {@link Grid#interact(String, int, int)}, removing bare ground or feeding a plant
+     * counts as having no effect.
+     * @param commands the commands to run
+     * @return the status of each command and the products harvested
+     * @throws IllegalArgumentException if any command is invalid for the grid, in which case no
+     * commands are run
+     */
+    public Result execute(List<GridCommand> commands) {
+        validate(commands);
+        byte[] statuses = new byte[commands.size()];
+        HarvestBatch harvested = new HarvestBatch();
+        int index = 0;
+        for (GridCommand command : commands) {
+            statuses[index++] = run(command, harvested) ? SUCCEEDED : NO_EFFECT;
+        }
+        return new Result(statuses, harvested);
+    }
+
+    /**
+     * Ensures every command refers to a tile on the grid and every placed item can be placed on
+     * the grid.
+     * @param commands the commands to check
+     * @throws IllegalArgumentException naming the first invalid command
+     */
+    private void validate(List<GridCommand> commands) {
+        int rows = grid.getRows();
+        int columns = grid.getColumns();
+        int index = 0;
+        for (GridCommand command : commands) {
+            if (command.type() == null) {
+                throw new IllegalArgumentException("Command " + index + " has no type");
+            }
+            if (command.type() != GridCommand.Type.END_DAY
+                    && (command.row() < 0 || command.row() >= rows
+                    || command.column() < 0 || command.column() >= columns)) {
+                throw new IllegalArgumentException("Command " + index + " is outside the grid: "
+                        + command);
+            }
+            if (command.type() == GridCommand.Type.PLACE && !grid.canPlace(command.symbol())) {
+                throw new IllegalArgumentException("Command " + index
+                        + " places an item the grid cannot hold: " + command);
+            }
+            index++;
+        }
+    }
+
+    private boolean run(GridCommand command, HarvestBatch harvested) {
+        int row = command.row();
+        int column = command.column();
+        return switch (command.type()) {
+            case PLACE -> grid.placeRegion(row, column, row + 1, column + 1,
+                    command.symbol()) > 0;
+            case HARVEST -> {
+                int before = harvested.getTotal();
+                grid.harvestRegion(row, column, row + 1, column + 1, harvested);
+                yield harvested.getTotal() > before;
+            }
+            case FEED -> grid.feedRegion(row, column, row + 1, column + 1) > 0;
+            case REMOVE -> grid.removeRegion(row, column, row + 1, column + 1) > 0;
+            case END_DAY -> endDay();
+        };
+    }
+
+    private boolean endDay() {
+        try {
+            return grid.interact("end-day", 0, 0);
+        } catch (UnableToInteractException emptyGrid) {
+            return false;
+        }
+    }
+
+    /**
+     * The outcome of running a batch of commands.
+     */
+    public static class Result {
+        private final byte[] statuses;
+        private final HarvestBatch harvested;
+
+        private Result(byte[] statuses, HarvestBatch harvested) {
+            this.statuses = statuses;
+            this.harvested = harvested;
+        }
+
+        /**
+         * Retrieves the status of each command, in the order the commands were given.
+         * @return an array holding {@link #SUCCEEDED} or {@link #NO_EFFECT} for each command
+         */
+        public byte[] getStatuses() {
+            return statuses.clone();
+        }
+
+        /**
+         * Retrieves the status of a single command.
+         * @param index the position of the command in the batch
+         * @return {@link #SUCCEEDED} or {@link #NO_EFFECT}
+         */
+        public byte getStatus(int index) {
+            return statuses[index];
+        }
+
+        /**
+         * Counts the commands which succeeded.
+         * @return the number of commands with status {@link #SUCCEEDED}
+         */
+        public int getSucceeded() {
+            int succeeded = 0;
+            for (byte status : statuses) {
+                succeeded += status;
+            }
+            return succeeded;
+        }
+
+        /**
+         * Retrieves the products harvested by the batch.
+         * @return every product harvested, combined into one batch
+         */
+        public HarvestBatch getHarvested() {
+            return harvested;
+        }
+    }
+}
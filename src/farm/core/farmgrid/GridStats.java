@@ -0,0 +1,287 @@
+package farm.core.farmgrid;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A snapshot of the state of every tile of a grid, held in columns of primitive arrays.
+ * <p>
+ * Each tile has a kind, which is an index into a small table of the distinct type and symbol
+ * pairs on the grid, along with its stage for plants and whether it is fed and collected for
+ * animals. Kind 0 is always ground. Taking a snapshot creates no objects per tile, so saving,
+ * displaying and analysing a grid can read its state without building the string lists of
+ * {@link Grid#getStats()}.
+ */
+public final class GridStats {
+    private static final byte FED = 0x01;
+    private static final byte COLLECTED = 0x02;
+
+    private final int rows;
+    private final int columns;
+    private final short[] kinds;
+    private final short[] stages;
+    private final byte[] flags;
+    private String[] types = {"ground"};
+    private String[] symbols = {" "};
+    private boolean[] plants = {false};
+
+    private GridStats(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        int size = Math.multiplyExact(rows, columns);
+        this.kinds = new short[size];
+        this.stages = new short[size];
+        this.flags = new byte[size];
+    }
+
+    /**
+     * Takes a snapshot of the current state of a grid.
+     * @param grid the grid to take a snapshot of
+     * @return the snapshot
+     * @throws ArithmeticException if the grid has too many tiles to hold in arrays
+     */
+    public static GridStats of(Grid grid) {
+        GridStats stats = new GridStats(grid.getRows(), grid.getColumns());
+        grid.visitTiles(stats.new Recorder());
+        return stats;
+    }
+
+    /**
+     * Retrieves the number of rows in the grid.
+     * @return the number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Retrieves the number of columns in the grid.
+     * @return the number of columns
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Retrieves the number of tiles in the grid. Tiles are numbered in row-major order.
+     * @return the number of tiles
+     */
+    public int size() {
+        return kinds.length;
+    }
+
+    /**
+     * Retrieves the number of distinct kinds of tile, including ground.
+     * @return the number of kinds
+     */
+    public int getKindCount() {
+        return types.length;
+    }
+
+    /**
+     * Retrieves the kind of a tile, which is the same for every tile with the same type and
+     * symbol.
+     * @param tile the index of the tile
+     * @return the kind of the tile, which is 0 for ground
+     */
+    public int getKind(int tile) {
+        return kinds[tile];
+    }
+
+    /**
+     * Retrieves the type of a kind of tile.
+     * @param kind the kind, as returned by {@link #getKind(int)}
+     * @return the type of plant or animal, or "ground"
+     */
+    public String getKindType(int kind) {
+        return types[kind];
+    }
+
+    /**
+     * Retrieves the symbol of a kind of tile.
+     * @param kind the kind, as returned by {@link #getKind(int)}
+     * @return the symbol of the plant or animal, or " " for ground
+     */
+    public String getKindSymbol(int kind) {
+        return symbols[kind];
+    }
+
+    /**
+     * Retrieves the type of the item on a tile.
+     * @param tile the index of the tile
+     * @return the type of plant or animal, or "ground"
+     */
+    public String getType(int tile) {
+        return types[kinds[tile]];
+    }
+
+    /**
+     * Retrieves the symbol of the item on a tile.
+     * @param tile the index of the tile
+     * @return the symbol of the plant or animal, or " " for ground
+     */
+    public String getSymbol(int tile) {
+        return symbols[kinds[tile]];
+    }
+
+    /**
+     * Determines whether a tile has nothing on it.
+     * @param tile the index of the tile
+     * @return true iff the tile is ground
+     */
+    public boolean isGround(int tile) {
+        return kinds[tile] == 0;
+    }
+
+    /**
+     * Determines whether a tile has a plant on it.
+     * @param tile the index of the tile
+     * @return true iff the tile holds a plant
+     */
+    public boolean isPlant(int tile) {
+        return plants[kinds[tile]];
+    }
+
+    /**
+     * Retrieves the stage of the plant on a tile, as shown in {@link Grid#getStats()}.
+     * @param tile the index of the tile
+     * @return the stage of the plant, or 0 if the tile does not hold a plant
+     */
+    public int getStage(int tile) {
+        return stages[tile];
+    }
+
+    /**
+     * Determines whether the animal on a tile has been fed.
+     * @param tile the index of the tile
+     * @return true iff the tile holds an animal which has been fed today
+     */
+    public boolean isFed(int tile) {
+        return (flags[tile] & FED) != 0;
+    }
+
+    /**
+     * Determines whether the product of the animal on a tile has been collected.
+     * @param tile the index of the tile
+     * @return true iff the tile holds an animal whose product has been collected today
+     */
+    public boolean isCollected(int tile) {
+        return (flags[tile] & COLLECTED) != 0;
+    }
+
+    /**
+     * Counts the tiles of each kind.
+     * @return an array holding, for each kind, the number of tiles of that kind
+     */
+    public int[] countByKind() {
+        int[] counts = new int[types.length];
+        for (short kind : kinds) {
+            counts[kind]++;
+        }
+        return counts;
+    }
+
+    /**
+     * Visits every tile of the snapshot, in row-major order.
+     * @param visitor the visitor to pass each tile to
+     */
+    public void accept(TileVisitor visitor) {
+        for (int tile = 0; tile < kinds.length; tile++) {
+            visit(tile, visitor);
+        }
+    }
+
+    /**
+     * Builds the stats of a tile, in the form returned by {@link Grid#getStats()}.
+     * @param tile the index of the tile
+     * @return the type, symbol and stage or fed and collected status of the tile
+     */
+    public List<String> toStats(int tile) {
+        if (isGround(tile)) {
+            return List.of("ground", " ");
+        }
+        if (isPlant(tile)) {
+            return List.of(getType(tile), getSymbol(tile), "Stage: " + getStage(tile));
+        }
+        return List.of(getType(tile), getSymbol(tile), "Fed: " + isFed(tile),
+                "Collected: " + isCollected(tile));
+    }
+
+    private void visit(int tile, TileVisitor visitor) {
+        int row = tile / columns;
+        int column = tile % columns;
+        if (isGround(tile)) {
+            visitor.visitGround(row, column);
+        } else if (isPlant(tile)) {
+            visitor.visitPlant(row, column, getType(tile), getSymbol(tile), getStage(tile));
+        } else {
+            visitor.visitAnimal(row, column, getType(tile), getSymbol(tile), isFed(tile),
+                    isCollected(tile));
+        }
+    }
+
+    /**
+     * Passes a tile, given in the form returned by {@link Grid#getStats()}, to a visitor.
+     * @param stats the stats of the tile
+     * @param row the row of the tile
+     * @param column the column of the tile
+     * @param visitor the visitor to pass the tile to
+     */
+    static void visitStats(List<String> stats, int row, int column, TileVisitor visitor) {
+        switch (stats.size()) {
+            case 3 -> visitor.visitPlant(row, column, stats.get(0), stats.get(1),
+                    Integer.parseInt(valueOf(stats.get(2))));
+            case 4 -> visitor.visitAnimal(row, column, stats.get(0), stats.get(1),
+                    Boolean.parseBoolean(valueOf(stats.get(2))),
+                    Boolean.parseBoolean(valueOf(stats.get(3))));
+            default -> visitor.visitGround(row, column);
+        }
+    }
+
+    private static String valueOf(String stat) {
+        return stat.substring(stat.indexOf(':') + 1).trim();
+    }
+
+    /**
+     * Fills in the snapshot from the tiles of a grid.
+     */
+    private class Recorder implements TileVisitor {
+
+        @Override
+        public void visitPlant(int row, int column, String type, String symbol, int stage) {
+            int tile = row * columns + column;
+            kinds[tile] = kindOf(type, symbol, true);
+            stages[tile] = (short) stage;
+        }
+
+        @Override
+        public void visitAnimal(int row, int column, String type, String symbol, boolean fed,
+                boolean collected) {
+            int tile = row * columns + column;
+            kinds[tile] = kindOf(type, symbol, false);
+            flags[tile] = (byte) ((fed ? FED : 0) | (collected ? COLLECTED : 0));
+        }
+
+        /**
+         * finds the kind with the given type and symbol, adding it if it is new
+         */
+        private short kindOf(String type, String symbol, boolean plant) {
+            for (int kind = 1; kind < types.length; kind++) {
+                if (types[kind].equals(type) && symbols[kind].equals(symbol)) {
+                    return (short) kind;
+                }
+            }
+            if (types.length > Short.MAX_VALUE) {
+                throw new IllegalStateException("Too many kinds of tile");
+            }
+            int kind = types.length;
+            types = Arrays.copyOf(types, kind + 1);
+            symbols = Arrays.copyOf(symbols, kind + 1);
+            plants = Arrays.copyOf(plants, kind + 1);
+            types[kind] = type;
+            symbols[kind] = symbol;
+            plants[kind] = plant;
+            return (short) kind;
+        }
+    }
+}
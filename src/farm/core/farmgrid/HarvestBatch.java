@@ -0,0 +1,129 @@
+package farm.core.farmgrid;
+
+import farm.inventory.product.Product;
+import farm.inventory.product.ProductFactory;
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The combined result of harvesting many tiles at once.
+ * <p>
+ * Rather than holding a product for every tile harvested, a batch counts how many products of
+ * each {@link Barcode} and {@link Quality} were gathered, along with how many tiles had nothing
+ * ready to harvest.
+ */
+public class HarvestBatch {
+    private static final Barcode[] BARCODES = Barcode.values();
+    private static final Quality[] QUALITIES = Quality.values();
+
+    private final int[][] counts = new int[BARCODES.length][QUALITIES.length];
+    private int total = 0;
+    private int skipped = 0;
+
+    /**
+     * Records a single harvested product.
+     * @param barcode the type of product harvested
+     * @param quality the quality of product harvested
+     */
+    public void add(Barcode barcode, Quality quality) {
+        counts[barcode.ordinal()][quality.ordinal()]++;
+        total++;
+    }
+
+    /**
+     * Records a tile which had nothing ready to harvest.
+     */
+    public void skip() {
+        skipped++;
+    }
+
+    /**
+     * Records several tiles which had nothing ready to harvest.
+     * @param tiles the number of tiles skipped
+     */
+    public void skip(int tiles) {
+        skipped += tiles;
+    }
+
+    /**
+     * Retrieves the number of products harvested.
+     * @return the total number of products in the batch
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Retrieves the number of tiles which had nothing ready to harvest.
+     * @return the number of tiles skipped
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Retrieves the number of products of a given type harvested.
+     * @param barcode the type of product
+     * @return the number of products of that type in the batch
+     */
+    public int getCount(Barcode barcode) {
+        int count = 0;
+        for (int quality : counts[barcode.ordinal()]) {
+            count += quality;
+        }
+        return count;
+    }
+
+    /**
+     * Retrieves the number of products of a given type and quality harvested.
+     * @param barcode the type of product
+     * @param quality the quality of product
+     * @return the number of products of that type and quality in the batch
+     */
+    public int getCount(Barcode barcode, Quality quality) {
+        return counts[barcode.ordinal()][quality.ordinal()];
+    }
+
+    /**
+     * Counts how many products of each type were harvested.
+     * @return A mapping from each product type harvested to the number of products of that type.
+     * Types that were not harvested are not included.
+     */
+    public Map<Barcode, Integer> countByBarcode() {
+        Map<Barcode, Integer> byBarcode = new EnumMap<>(Barcode.class);
+        for (Barcode barcode : BARCODES) {
+            int count = getCount(barcode);
+            if (count > 0) {
+                byBarcode.put(barcode, count);
+            }
+        }
+        return byBarcode;
+    }
+
+    /**
+     * Creates the harvested products, grouped by type in {@link Barcode} order and then from
+     * highest to lowest quality.
+     * @return a list containing every product in the batch
+     */
+    public List<Product> getProducts() {
+        List<Product> products = new ArrayList<>(total);
+        for (Barcode barcode : BARCODES) {
+            for (int q = QUALITIES.length - 1; q >= 0; q--) {
+                products.addAll(Collections.nCopies(counts[barcode.ordinal()][q],
+                        ProductFactory.create(barcode, QUALITIES[q])));
+            }
+        }
+        return products;
+    }
+
+    @Override
+    public String toString() {
+        return "HarvestBatch" + countByBarcode() + " (" + skipped + " skipped)";
+    }
+}
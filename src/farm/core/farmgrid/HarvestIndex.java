@@ -0,0 +1,130 @@
+package farm.core.farmgrid;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps track of which tiles of a grid are ready to harvest, and on which day the others will
+ * become ready.
+ * <p>
+ * Ready tiles are held in a {@link TileMap} used as a set, and tiles which will become ready by
+ * themselves, such as growing plants, are held in a calendar from day to the tiles ready on
+ * that day. Tiles which only become ready through some action, such as animals waiting to be
+ * fed, are in neither. The grid reports every change to a tile, so listing the ready tiles,
+ * finding the next ready day and ending the day all cost time in proportion to the number of
+ * tiles involved rather than the area of the grid.
+ */
+class HarvestIndex {
+    private static final int READY = 0;
+
+    private final ItemFarm itemFarm;
+    private TileMap ready = new TileMap();
+    private TileMap scheduledDay = new TileMap();
+    private final TreeMap<Integer, TileMap> calendar = new TreeMap<>();
+    private int day = 0;
+
+    /**
+     * Creates an empty index for a grid of the given farm.
+     * @param itemFarm the farm which decides when items are ready
+     */
+    HarvestIndex(ItemFarm itemFarm) {
+        this.itemFarm = itemFarm;
+    }
+
+    /**
+     * Records the current state of a tile, after it has been placed, harvested, fed or
+     * otherwise changed.
+     * @param tile the index of the tile
+     * @param item the item now on the tile, or null for ground
+     */
+    void update(int tile, Object item) {
+        unschedule(tile);
+        int days = item == null ? -1 : itemFarm.daysUntilHarvestable(item);
+        if (days == 0) {
+            ready.put(tile, READY);
+            return;
+        }
+        ready.remove(tile);
+        if (days > 0) {
+            int readyDay = Math.addExact(day, days);
+            calendar.computeIfAbsent(readyDay, unused -> new TileMap()).put(tile, READY);
+            scheduledDay.put(tile, readyDay);
+        }
+    }
+
+    /**
+     * Moves on to the next day, marking the tiles scheduled for it as ready.
+     */
+    void advanceDay() {
+        day++;
+        while (!calendar.isEmpty() && calendar.firstKey() <= day) {
+            TileMap tiles = calendar.pollFirstEntry().getValue();
+            for (int slot = 0; slot < tiles.capacity(); slot++) {
+                int tile = tiles.keyAt(slot);
+                if (tile != TileMap.EMPTY) {
+                    scheduledDay.remove(tile);
+                    ready.put(tile, READY);
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets every tile, keeping the current day. Used before recording every tile again.
+     */
+    void clear() {
+        ready = new TileMap();
+        scheduledDay = new TileMap();
+        calendar.clear();
+    }
+
+    /**
+     * Lists the tiles which are ready to harvest.
+     * @return the indices of the ready tiles, in ascending order
+     */
+    int[] readyTiles() {
+        return ready.sortedKeys();
+    }
+
+    /**
+     * Counts the tiles which are ready to harvest.
+     * @return the number of ready tiles
+     */
+    int readyCount() {
+        return ready.size();
+    }
+
+    /**
+     * Retrieves the number of days which have ended.
+     * @return the current day
+     */
+    int getDay() {
+        return day;
+    }
+
+    /**
+     * Finds the first day on which some tile will be ready to harvest.
+     * @return the current day if a tile is ready now, the day the next tile becomes ready, or
+     * -1 if no tile will become ready without some action
+     */
+    int nextReadyDay() {
+        if (ready.size() > 0) {
+            return day;
+        }
+        Map.Entry<Integer, TileMap> next = calendar.firstEntry();
+        return next == null ? -1 : next.getKey();
+    }
+
+    private void unschedule(int tile) {
+        int readyDay = scheduledDay.get(tile);
+        if (readyDay == TileMap.EMPTY) {
+            return;
+        }
+        scheduledDay.remove(tile);
+        TileMap tiles = calendar.get(readyDay);
+        tiles.remove(tile);
+        if (tiles.size() == 0) {
+            calendar.remove(readyDay);
+        }
+    }
+}
@@ -18,6 +18,27 @@ public interface ItemFarm {
      */
     Object createItem(char symbol);
 
+    /**
+     * recreates an object of the farm in a saved state
+     * @param symbol a symbol representing the object on the farm
+     * @param stage the stage of a plant, as shown in its stats
+     * @param fed whether an animal has been fed
+     * @param collected whether an animal's product has been collected
+     * @return the object to be created and null if no matching object
+     */
+    default Object restoreItem(char symbol, int stage, boolean fed, boolean collected) {
+        return createItem(symbol);
+    }
+
+    /**
+     * checks whether an item with the given symbol could be created and added to the farm
+     * @param symbol a symbol representing the object on the farm
+     * @return true iff the symbol belongs to an item that is valid for this farm
+     */
+    default boolean canCreate(char symbol) {
+        return isValidForFarm(createItem(symbol));
+    }
+
     /**
      * a check before placement whether this is a valid item to add to the farm
      * @param item an object representing an item that could be placed on the farm
@@ -35,6 +56,26 @@ public interface ItemFarm {
      */
     Product harvestItem(Object item, Quality quality) throws UnableToInteractException;
 
+    /**
+     * checks whether an item on the farm can be harvested right now
+     * @param item the object on the farm
+     * @return true iff harvesting the item would produce a product
+     * @requires item to be an object of the farm or ground
+     */
+    boolean isHarvestable(Object item);
+
+    /**
+     * works out how many days an item on the farm needs before it can be harvested, assuming
+     * nothing else is done to it
+     * @param item the object on the farm
+     * @return 0 if the item can be harvested now, the number of days until it can, or -1 if it
+     * will not become harvestable just by waiting
+     * @requires item to be an object of the farm or ground
+     */
+    default int daysUntilHarvestable(Object item) {
+        return isHarvestable(item) ? 0 : -1;
+    }
+
     /**
      * displays the item stats of an object (i.e. fed or not fed)
      * @param item an object on the farm to return the stats of
@@ -43,6 +84,18 @@ public interface ItemFarm {
      */
     List<String> getItemStats(Object item);
 
+    /**
+     * passes the state of an item on the farm to a visitor, without building its stats
+     * @param item the object on the farm, or null for ground
+     * @param row the row of the item
+     * @param column the column of the item
+     * @param visitor the visitor to pass the item to
+     * @requires item to be an object of the farm or ground
+     */
+    default void visitItem(Object item, int row, int column, TileVisitor visitor) {
+        GridStats.visitStats(getItemStats(item), row, column, visitor);
+    }
+
     /**
      * checks whether an item on the farm is feedable or not and feeds them
      * @param item the object on the farm
@@ -50,6 +103,15 @@ public interface ItemFarm {
      */
     boolean feedItem(Object item);
 
+    /**
+     * performs the end of day actions which apply to the farm as a whole, before any items are
+     * processed
+     * @return true iff processEndOfDay still needs to be called on each item of the farm
+     */
+    default boolean advanceDay() {
+        return true;
+    }
+
     /**
      * performs action on an item of the farm after the day is over
      * @param item the object on the farm to perform the action to
@@ -0,0 +1,345 @@
+package farm.core.farmgrid;
+
+import farm.core.UnableToInteractException;
+import farm.inventory.product.Product;
+import farm.inventory.product.ProductFactory;
+import farm.inventory.product.data.Quality;
+import farm.inventory.product.data.RandomQuality;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A grid-based farm which stores its tiles in primitive arrays rather than as objects.
+ * <p>
+ * Each tile takes two bytes: one for the code of the species placed there (or ground), and one
+ * for its state. For plants the state holds the growth stage and whether the plant has just
+ * been harvested; for animals it holds whether the animal has been fed and whether its product
+ * has been collected (see {@link TileStates}). Ending the day, listing stats and drawing the
+ * farm are then single passes over the arrays, looking each tile up in tables shared by every
+ * grid.
+ * <p>
+ * Behaves exactly like a {@link FarmGrid} of the same type, including the order in which
+ * random qualities are drawn, so the two can be used interchangeably.
+ */
+public class PackedFarmGrid implements Grid {
+    private final int rows;
+    private final int columns;
+    private final byte[] species;
+    private final byte[] states;
+    private final RandomQuality randomQuality;
+    private final String farmType;
+    private final boolean plantFarm;
+    private ForkJoinPool endOfDayPool = null;
+
+    /**
+     * Constructor for the PackedFarmGrid, creating a farm of specified type.
+     * @param rows the number of rows on the grid
+     * @param columns the number of columns on the grid
+     * @param farmType the type of farm (either "plant" or "animal")
+     * @throws IllegalArgumentException if the farm type is invalid or the grid is too large to
+     * index
+     */
+    public PackedFarmGrid(int rows, int columns, String farmType) {
+        String type = farmType.toLowerCase();
+        if (!type.equals("plant") && !type.equals("animal")) {
+            throw new IllegalArgumentException("Invalid farm type: " + farmType);
+        }
+        if ((long) rows * columns > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Grid is too large: " + rows + "x" + columns);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.farmType = farmType;
+        this.plantFarm = type.equals("plant");
+        this.species = new byte[rows * columns];
+        this.states = new byte[rows * columns];
+        this.randomQuality = new RandomQuality();
+    }
+
+    @Override
+    public boolean canPlace(char symbol) {
+        return TileStates.code(symbol, plantFarm) != TileStates.GROUND;
+    }
+
+    @Override
+    public boolean place(int row, int column, char symbol) {
+        int code = TileStates.code(symbol, plantFarm);
+        if (!isValidPosition(row, column) || code == TileStates.GROUND) {
+            return false;
+        }
+        int tile = row * columns + column;
+        if (species[tile] != 0) {
+            throw new IllegalStateException("Something is already there!");
+        }
+
+        species[tile] = (byte) code;
+        states[tile] = 0;
+        return true;
+    }
+
+    @Override
+    public boolean restoreTile(int row, int column, char symbol, int stage, boolean fed,
+            boolean collected) {
+        if (!place(row, column, symbol)) {
+            return false;
+        }
+        int tile = row * columns + column;
+        states[tile] = TileStates.restoredState(species[tile], stage, fed, collected);
+        return true;
+    }
+
+    @Override
+    public Product harvest(int row, int column) throws UnableToInteractException {
+        if (!isValidPosition(row, column)) {
+            throw new UnableToInteractException("You can't harvest this location");
+        }
+        Quality quality = randomQuality.getRandomQuality();
+        int tile = row * columns + column;
+        states[tile] = TileStates.harvest(species[tile], states[tile]);
+        return ProductFactory.create(TileStates.product(species[tile]), quality);
+    }
+
+    @Override
+    public int placeRegion(int fromRow, int fromColumn, int toRow, int toColumn, char symbol) {
+        int code = TileStates.code(symbol, plantFarm);
+        if (code == TileStates.GROUND) {
+            return 0;
+        }
+        int count = 0;
+        for (int i = Math.max(0, fromRow); i < Math.min(rows, toRow); i++) {
+            for (int j = Math.max(0, fromColumn); j < Math.min(columns, toColumn); j++) {
+                int tile = i * columns + j;
+                if (species[tile] == 0) {
+                    species[tile] = (byte) code;
+                    states[tile] = 0;
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Harvests every tile in a rectangular region of the grid which is ready to harvest.
+     * <p>
+     * A random quality is drawn for each product harvested, in row-major order.
+     * @param fromRow the first row of the region
+     * @param fromColumn the first column of the region
+     * @param toRow the row after the last row of the region
+     * @param toColumn the column after the last column of the region
+     * @param batch the batch to add the products gathered from the region to
+     */
+    @Override
+    public void harvestRegion(int fromRow, int fromColumn, int toRow, int toColumn,
+            HarvestBatch batch) {
+        for (int i = Math.max(0, fromRow); i < Math.min(rows, toRow); i++) {
+            for (int j = Math.max(0, fromColumn); j < Math.min(columns, toColumn); j++) {
+                int tile = i * columns + j;
+                if (!TileStates.isHarvestable(species[tile], states[tile])) {
+                    batch.skip();
+                    continue;
+                }
+                states[tile] = TileStates.afterHarvest(species[tile], states[tile]);
+                batch.add(TileStates.product(species[tile]),
+                        randomQuality.getRandomQuality());
+            }
+        }
+    }
+
+    /**
+     * Harvests every tile on the grid which is ready to harvest.
+     * <p>
+     * Each tile is checked rather than harvested and caught, and a random quality is drawn for
+     * each product harvested, in row-major order.
+     * @return the products gathered from the grid.
+     */
+    @Override
+    public HarvestBatch harvestAllReady() {
+        HarvestBatch batch = new HarvestBatch();
+        for (int tile = 0; tile < species.length; tile++) {
+            if (TileStates.isHarvestable(species[tile], states[tile])) {
+                states[tile] = TileStates.afterHarvest(species[tile], states[tile]);
+                batch.add(TileStates.product(species[tile]),
+                        randomQuality.getRandomQuality());
+            }
+        }
+        return batch;
+    }
+
+    @Override
+    public int feedRegion(int fromRow, int fromColumn, int toRow, int toColumn) {
+        int fed = 0;
+        for (int i = Math.max(0, fromRow); i < Math.min(rows, toRow); i++) {
+            for (int j = Math.max(0, fromColumn); j < Math.min(columns, toColumn); j++) {
+                if (feed(i * columns + j)) {
+                    fed++;
+                }
+            }
+        }
+        return fed;
+    }
+
+    @Override
+    public int removeRegion(int fromRow, int fromColumn, int toRow, int toColumn) {
+        int removed = 0;
+        for (int i = Math.max(0, fromRow); i < Math.min(rows, toRow); i++) {
+            for (int j = Math.max(0, fromColumn); j < Math.min(columns, toColumn); j++) {
+                int tile = i * columns + j;
+                if (species[tile] != 0) {
+                    remove(tile);
+                    removed++;
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Generates information about each position on the grid.
+     * <p>
+     * The returned list is an unmodifiable snapshot backed by a copy of the grid's tile arrays,
+     * so it takes two bytes per tile, and the entries for tiles in the same state are shared.
+     * @return List containing the type and symbol of item in each position.
+     */
+    @Override
+    public List<List<String>> getStats() {
+        return new StatsList(species.clone(), states.clone());
+    }
+
+    @Override
+    public void visitTiles(TileVisitor visitor) {
+        for (int tile = 0; tile < species.length; tile++) {
+            TileStates.visit(species[tile], states[tile], tile / columns, tile % columns,
+                    visitor);
+        }
+    }
+
+    @Override
+    public boolean interact(String command, int row, int column) throws UnableToInteractException {
+        if (!isValidPosition(row, column)) {
+            throw new UnableToInteractException("Invalid position.");
+        }
+        int tile = row * columns + column;
+        return switch (command) {
+            case "feed" -> feed(tile);
+            case "end-day" -> endDay();
+            case "remove" -> remove(tile);
+            default -> throw new UnableToInteractException("Unknown command: " + command);
+        };
+    }
+
+    /**
+     * feeds the animal on a tile
+     * @param tile the index of the tile to feed
+     * @return true iff there is an animal on the tile
+     */
+    private boolean feed(int tile) {
+        if (plantFarm || species[tile] == 0) {
+            return false;
+        }
+        states[tile] |= TileStates.FED;
+        return true;
+    }
+
+    /**
+     * Sets the pool used to process the end of the day. With a pool, the grid is split into
+     * bands of rows which are processed in parallel; without one, every tile is processed in
+     * turn on the calling thread. Either way, each tile ends up in the same state.
+     * @param pool the pool to process the end of the day on, or null to process it sequentially
+     */
+    public void setEndOfDayPool(ForkJoinPool pool) {
+        this.endOfDayPool = pool;
+    }
+
+    /**
+     * process the end of day of each tile
+     * @return always true
+     */
+    private boolean endDay() {
+        RowBandTask.run(endOfDayPool, rows, columns, this::endDay);
+        return true;
+    }
+
+    /**
+     * process the end of day of each tile in a band of rows
+     * @param fromRow the first row to process
+     * @param toRow the row after the last row to process
+     */
+    private void endDay(int fromRow, int toRow) {
+        for (int tile = fromRow * columns; tile < toRow * columns; tile++) {
+            states[tile] = TileStates.endOfDay(species[tile], states[tile]);
+        }
+    }
+
+    /**
+     * resets a tile to ground
+     * @param tile the index of the tile to reset
+     * @return always true
+     */
+    private boolean remove(int tile) {
+        species[tile] = 0;
+        states[tile] = 0;
+        return true;
+    }
+
+    @Override
+    public String farmDisplay() {
+        String border = "-".repeat((columns * 2) + 3);
+        StringBuilder display = new StringBuilder((rows + 2) * (columns * 2 + 4));
+        display.append(border).append('\n');
+        int tile = 0;
+        for (int i = 0; i < rows; i++) {
+            display.append("| ");
+            for (int j = 0; j < columns; j++, tile++) {
+                display.append(TileStates.display(species[tile], states[tile]));
+            }
+            display.append("|\n");
+        }
+        return display.append(border).append('\n').toString();
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    private boolean isValidPosition(int row, int column) {
+        return row >= 0 && row < this.rows && column >= 0 && column < this.columns;
+    }
+
+    @Override
+    public String toString() {
+        return farmType;
+    }
+
+    /**
+     * A read-only list of tile stats, looked up from copies of the tile arrays on demand.
+     */
+    private static class StatsList extends AbstractList<List<String>> implements RandomAccess {
+        private final byte[] species;
+        private final byte[] states;
+
+        private StatsList(byte[] species, byte[] states) {
+            this.species = species;
+            this.states = states;
+        }
+
+        @Override
+        public List<String> get(int index) {
+            return TileStates.stats(species[index], states[index]);
+        }
+
+        @Override
+        public int size() {
+            return species.length;
+        }
+    }
+}
@@ -1,38 +1,60 @@
 package farm.core.farmgrid;
 
 import farm.core.UnableToInteractException;
-import farm.core.plants.Berry;
-import farm.core.plants.CoffeePlant;
+import farm.core.plants.GrowthClock;
 import farm.core.plants.Plant;
-import farm.core.plants.Wheat;
 import farm.inventory.product.Product;
 import farm.inventory.product.data.Quality;
 
 import java.util.List;
-import java.util.Map;
 
 /**
- * class representing an animal farm
+ * class representing a plant farm
+ * <p>
+ * Plants placed on the farm follow the farm's {@link GrowthClock} where they can, so that
+ * ending the day only has to advance the clock rather than grow every plant.
  */
 public class PlantFarm implements ItemFarm {
-    private static final Map<Character, Class<?>> SYMBOL_TO_PLANT = Map.of(
-            '.', Berry.class,
-            ':', CoffeePlant.class,
-            'ἴ', Wheat.class
-    );
+    private final SpeciesRegistry registry;
+    private final GrowthClock clock = new GrowthClock();
+    private boolean hasUnclockedPlants = false;
+
+    /**
+     * constructor for a plant farm using the species of the default registry
+     */
+    public PlantFarm() {
+        this(SpeciesRegistry.getDefault());
+    }
+
+    /**
+     * constructor for a plant farm
+     * @param registry the species which can be placed on the farm
+     */
+    public PlantFarm(SpeciesRegistry registry) {
+        this.registry = registry;
+    }
 
     @Override
     public Object createItem(char symbol) {
-        Class<?> plantClass = SYMBOL_TO_PLANT.get(symbol);
-        if (plantClass == null) {
-            return null;
+        Plant plant = registry.createPlant(symbol);
+        if (plant != null && !plant.followClock(clock)) {
+            hasUnclockedPlants = true;
         }
+        return plant;
+    }
 
-        try {
-            return plantClass.getDeclaredConstructor().newInstance();
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to create plant from symbol: " + symbol, e);
+    @Override
+    public Object restoreItem(char symbol, int stage, boolean fed, boolean collected) {
+        Object item = createItem(symbol);
+        if (item instanceof Plant plant) {
+            plant.restoreStage(stage);
         }
+        return item;
+    }
+
+    @Override
+    public boolean canCreate(char symbol) {
+        return registry.isPlant(symbol);
     }
 
     @Override
@@ -49,6 +71,16 @@ public class PlantFarm implements ItemFarm {
         }
     }
 
+    @Override
+    public boolean isHarvestable(Object item) {
+        return item instanceof Plant plant && plant.isHarvestable();
+    }
+
+    @Override
+    public int daysUntilHarvestable(Object item) {
+        return item instanceof Plant plant ? plant.getDaysUntilHarvestable() : -1;
+    }
+
     @Override
     public List<String> getItemStats(Object item) {
         if (item instanceof Plant plant) {
@@ -58,11 +90,38 @@ public class PlantFarm implements ItemFarm {
         }
     }
 
+    @Override
+    public void visitItem(Object item, int row, int column, TileVisitor visitor) {
+        if (item instanceof Plant plant) {
+            visitor.visitPlant(row, column, plant.getType(), plant.getSymbol(), plant.getStage());
+        } else {
+            visitor.visitGround(row, column);
+        }
+    }
+
     @Override
     public boolean feedItem(Object item) {
         return false;
     }
 
+    /**
+     * advances the farm's clock, growing every plant which follows it
+     * @return true iff some plant on the farm has to be grown individually
+     */
+    @Override
+    public boolean advanceDay() {
+        clock.advance();
+        return hasUnclockedPlants;
+    }
+
+    /**
+     * retrieves the clock which plants on the farm grow by
+     * @return the farm's clock
+     */
+    public GrowthClock getClock() {
+        return clock;
+    }
+
     @Override
     public void processEndOfDay(Object item) {
         if (item instanceof Plant plant) {
@@ -0,0 +1,72 @@
+package farm.core.farmgrid;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits the rows of a grid into bands and processes them in parallel on a fork-join pool.
+ * <p>
+ * Bands are halved until they hold roughly {@link #MIN_TILES} tiles, so that each task does
+ * enough work to be worth scheduling. The action must only touch tiles in the rows it is given.
+ */
+class RowBandTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The smallest number of tiles worth handing to a task of its own.
+     */
+    static final int MIN_TILES = 4096;
+
+    /**
+     * An operation on a contiguous band of rows.
+     */
+    @FunctionalInterface
+    interface RowAction {
+        /**
+         * Processes the rows from {@code fromRow} (inclusive) to {@code toRow} (exclusive).
+         * @param fromRow the first row to process
+         * @param toRow the row after the last row to process
+         */
+        void process(int fromRow, int toRow);
+    }
+
+    // tasks only ever run in the pool they were forked into, and are never serialised
+    private final transient RowAction action;
+    private final int fromRow;
+    private final int toRow;
+    private final int minRows;
+
+    private RowBandTask(RowAction action, int fromRow, int toRow, int minRows) {
+        this.action = action;
+        this.fromRow = fromRow;
+        this.toRow = toRow;
+        this.minRows = minRows;
+    }
+
+    /**
+     * Processes every row of a grid, in parallel if a pool is given.
+     * @param pool the pool to run on, or null to process all rows on the calling thread
+     * @param rows the number of rows in the grid
+     * @param columns the number of columns in the grid
+     * @param action the operation to perform on each band of rows
+     */
+    static void run(ForkJoinPool pool, int rows, int columns, RowAction action) {
+        int minRows = Math.max(1, MIN_TILES / Math.max(1, columns));
+        if (pool == null || rows <= minRows) {
+            action.process(0, rows);
+        } else {
+            pool.invoke(new RowBandTask(action, 0, rows, minRows));
+        }
+    }
+
+    @Override
+    protected void compute() {
+        if (toRow - fromRow <= minRows) {
+            action.process(fromRow, toRow);
+            return;
+        }
+        int middle = (fromRow + toRow) >>> 1;
+        invokeAll(new RowBandTask(action, fromRow, middle, minRows),
+                new RowBandTask(action, middle, toRow, minRows));
+    }
+}
@@ -0,0 +1,408 @@
+package farm.core.farmgrid;
+
+import farm.core.UnableToInteractException;
+import farm.inventory.product.Product;
+import farm.inventory.product.ProductFactory;
+import farm.inventory.product.data.Quality;
+import farm.inventory.product.data.RandomQuality;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+/**
+ * A grid-based farm which only stores the tiles that have something on them.
+ * <p>
+ * Occupied tiles are kept in a {@link TileMap} keyed by tile index, each holding a species code
+ * and state as described in {@link TileStates}. Bare ground takes no memory at all, and ending
+ * the day only visits occupied tiles, so both scale with the number of plants or animals rather
+ * than with the area of the farm. Stats still list every tile, with ground entries for empty
+ * tiles, but are looked up on demand rather than built up front.
+ * <p>
+ * Behaves exactly like a {@link FarmGrid} of the same type, including the order in which
+ * random qualities are drawn, so the two can be used interchangeably.
+ */
+public class SparseFarmGrid implements Grid {
+    private static final String GROUND_SYMBOL = TileStates.display(TileStates.GROUND, 0);
+
+    private final int rows;
+    private final int columns;
+    private final TileMap tiles = new TileMap();
+    private final RandomQuality randomQuality;
+    private final String farmType;
+    private final boolean plantFarm;
+
+    /**
+     * Constructor for the SparseFarmGrid, creating a farm of specified type.
+     * @param rows the number of rows on the grid
+     * @param columns the number of columns on the grid
+     * @param farmType the type of farm (either "plant" or "animal")
+     * @throws IllegalArgumentException if the farm type is invalid or the grid is too large to
+     * index
+     */
+    public SparseFarmGrid(int rows, int columns, String farmType) {
+        String type = farmType.toLowerCase();
+        if (!type.equals("plant") && !type.equals("animal")) {
+            throw new IllegalArgumentException("Invalid farm type: " + farmType);
+        }
+        if ((long) rows * columns > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Grid is too large: " + rows + "x" + columns);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.farmType = farmType;
+        this.plantFarm = type.equals("plant");
+        this.randomQuality = new RandomQuality();
+    }
+
+    @Override
+    public boolean canPlace(char symbol) {
+        return TileStates.code(symbol, plantFarm) != TileStates.GROUND;
+    }
+
+    @Override
+    public boolean place(int row, int column, char symbol) {
+        int code = TileStates.code(symbol, plantFarm);
+        if (!isValidPosition(row, column) || code == TileStates.GROUND) {
+            return false;
+        }
+        int tile = row * columns + column;
+        if (tiles.get(tile) != TileMap.EMPTY) {
+            throw new IllegalStateException("Something is already there!");
+        }
+
+        tiles.put(tile, pack(code, 0));
+        return true;
+    }
+
+    @Override
+    public boolean restoreTile(int row, int column, char symbol, int stage, boolean fed,
+            boolean collected) {
+        if (!place(row, column, symbol)) {
+            return false;
+        }
+        int code = TileStates.code(symbol, plantFarm);
+        tiles.put(row * columns + column, pack(code,
+                TileStates.restoredState(code, stage, fed, collected)));
+        return true;
+    }
+
+    @Override
+    public Product harvest(int row, int column) throws UnableToInteractException {
+        if (!isValidPosition(row, column)) {
+            throw new UnableToInteractException("You can't harvest this location");
+        }
+        Quality quality = randomQuality.getRandomQuality();
+        int tile = row * columns + column;
+        int value = tiles.get(tile);
+        if (value == TileMap.EMPTY) {
+            throw new UnableToInteractException("Nothing to harvest here!");
+        }
+        int code = codeOf(value);
+        tiles.put(tile, pack(code, TileStates.harvest(code, stateOf(value))));
+        return ProductFactory.create(TileStates.product(code), quality);
+    }
+
+    @Override
+    public int placeRegion(int fromRow, int fromColumn, int toRow, int toColumn, char symbol) {
+        int code = TileStates.code(symbol, plantFarm);
+        if (code == TileStates.GROUND) {
+            return 0;
+        }
+        int count = 0;
+        for (int i = Math.max(0, fromRow); i < Math.min(rows, toRow); i++) {
+            for (int j = Math.max(0, fromColumn); j < Math.min(columns, toColumn); j++) {
+                int tile = i * columns + j;
+                if (tiles.get(tile) == TileMap.EMPTY) {
+                    tiles.put(tile, pack(code, 0));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Harvests every tile in a rectangular region of the grid which is ready to harvest.
+     * <p>
+     * Only occupied tiles are visited. A random quality is drawn for each product harvested, in
+     * row-major order.
+     * @param fromRow the first row of the region
+     * @param fromColumn the first column of the region
+     * @param toRow the row after the last row of the region
+     * @param toColumn the column after the last column of the region
+     * @param batch the batch to add the products gathered from the region to
+     */
+    @Override
+    public void harvestRegion(int fromRow, int fromColumn, int toRow, int toColumn,
+            HarvestBatch batch) {
+        int[] occupied = occupiedIn(fromRow, fromColumn, toRow, toColumn);
+        for (int tile : occupied) {
+            int value = tiles.get(tile);
+            int code = codeOf(value);
+            if (TileStates.isHarvestable(code, stateOf(value))) {
+                tiles.put(tile, pack(code, TileStates.afterHarvest(code, stateOf(value))));
+                batch.add(TileStates.product(code), randomQuality.getRandomQuality());
+            } else {
+                batch.skip();
+            }
+        }
+        int height = Math.max(0, Math.min(rows, toRow) - Math.max(0, fromRow));
+        int width = Math.max(0, Math.min(columns, toColumn) - Math.max(0, fromColumn));
+        batch.skip(height * width - occupied.length);
+    }
+
+    /**
+     * Harvests every tile on the grid which is ready to harvest.
+     * <p>
+     * Only occupied tiles are visited. A random quality is drawn for each product harvested, in
+     * row-major order.
+     * @return the products gathered from the grid.
+     */
+    @Override
+    public HarvestBatch harvestAllReady() {
+        HarvestBatch batch = new HarvestBatch();
+        for (int tile : tiles.sortedKeys()) {
+            int value = tiles.get(tile);
+            int code = codeOf(value);
+            if (TileStates.isHarvestable(code, stateOf(value))) {
+                tiles.put(tile, pack(code, TileStates.afterHarvest(code, stateOf(value))));
+                batch.add(TileStates.product(code), randomQuality.getRandomQuality());
+            }
+        }
+        return batch;
+    }
+
+    @Override
+    public int feedRegion(int fromRow, int fromColumn, int toRow, int toColumn) {
+        if (plantFarm) {
+            return 0;
+        }
+        int[] occupied = occupiedIn(fromRow, fromColumn, toRow, toColumn);
+        for (int tile : occupied) {
+            tiles.put(tile, tiles.get(tile) | TileStates.FED);
+        }
+        return occupied.length;
+    }
+
+    @Override
+    public int removeRegion(int fromRow, int fromColumn, int toRow, int toColumn) {
+        int[] occupied = occupiedIn(fromRow, fromColumn, toRow, toColumn);
+        for (int tile : occupied) {
+            tiles.remove(tile);
+        }
+        return occupied.length;
+    }
+
+    /**
+     * Generates information about each position on the grid.
+     * <p>
+     * The returned list is an unmodifiable snapshot backed by a copy of the occupied tiles, so
+     * it takes memory in proportion to the number of plants or animals, and ground entries are
+     * all the same shared list.
+     * @return List containing the type and symbol of item in each position.
+     */
+    @Override
+    public List<List<String>> getStats() {
+        return new StatsList(tiles.copy(), rows * columns);
+    }
+
+    /**
+     * Passes the state of each tile on the grid to a visitor, in row-major order.
+     * <p>
+     * Ground is visited for every empty tile, so this takes time in proportion to the area of
+     * the grid even though only the occupied tiles are looked up.
+     * @param visitor the visitor to pass each tile to
+     */
+    @Override
+    public void visitTiles(TileVisitor visitor) {
+        int[] occupied = tiles.sortedKeys();
+        int next = 0;
+        for (int tile = 0; tile < rows * columns; tile++) {
+            int row = tile / columns;
+            int column = tile % columns;
+            if (next < occupied.length && occupied[next] == tile) {
+                int value = tiles.get(tile);
+                TileStates.visit(codeOf(value), stateOf(value), row, column, visitor);
+                next++;
+            } else {
+                visitor.visitGround(row, column);
+            }
+        }
+    }
+
+    @Override
+    public boolean interact(String command, int row, int column) throws UnableToInteractException {
+        if (!isValidPosition(row, column)) {
+            throw new UnableToInteractException("Invalid position.");
+        }
+        int tile = row * columns + column;
+        return switch (command) {
+            case "feed" -> feed(tile);
+            case "end-day" -> endDay();
+            case "remove" -> remove(tile);
+            default -> throw new UnableToInteractException("Unknown command: " + command);
+        };
+    }
+
+    /**
+     * Retrieves the number of tiles with a plant or animal on them.
+     * @return the number of occupied tiles
+     */
+    public int getOccupiedCount() {
+        return tiles.size();
+    }
+
+    /**
+     * feeds the animal on a tile
+     * @param tile the index of the tile to feed
+     * @return true iff there is an animal on the tile
+     */
+    private boolean feed(int tile) {
+        int value = tiles.get(tile);
+        if (plantFarm || value == TileMap.EMPTY) {
+            return false;
+        }
+        tiles.put(tile, value | TileStates.FED);
+        return true;
+    }
+
+    /**
+     * process the end of day of each occupied tile
+     * @return always true
+     */
+    private boolean endDay() {
+        for (int slot = 0; slot < tiles.capacity(); slot++) {
+            if (tiles.keyAt(slot) != TileMap.EMPTY) {
+                int value = tiles.valueAt(slot);
+                int code = codeOf(value);
+                tiles.setValueAt(slot, pack(code, TileStates.endOfDay(code, stateOf(value))));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * resets a tile to ground
+     * @param tile the index of the tile to reset
+     * @return always true
+     */
+    private boolean remove(int tile) {
+        tiles.remove(tile);
+        return true;
+    }
+
+    @Override
+    public String farmDisplay() {
+        String border = "-".repeat((columns * 2) + 3);
+        StringBuilder display = new StringBuilder((rows + 2) * (columns * 2 + 4));
+        display.append(border).append('\n');
+        int[] occupied = tiles.sortedKeys();
+        int next = 0;
+        for (int i = 0; i < rows; i++) {
+            display.append("| ");
+            int rowStart = i * columns;
+            int column = 0;
+            while (next < occupied.length && occupied[next] < rowStart + columns) {
+                int tile = occupied[next++];
+                display.repeat(GROUND_SYMBOL, tile - rowStart - column);
+                int value = tiles.get(tile);
+                display.append(TileStates.display(codeOf(value), stateOf(value)));
+                column = tile - rowStart + 1;
+            }
+            display.repeat(GROUND_SYMBOL, columns - column);
+            display.append("|\n");
+        }
+        return display.append(border).append('\n').toString();
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getColumns() {
+        return columns;
+    }
+
+    private boolean isValidPosition(int row, int column) {
+        return row >= 0 && row < this.rows && column >= 0 && column < this.columns;
+    }
+
+    @Override
+    public String toString() {
+        return farmType;
+    }
+
+    /**
+     * Finds the occupied tiles in a region, visiting whichever is smaller of the region and the
+     * set of occupied tiles.
+     * @return the indices of the occupied tiles in the region, in row-major order
+     */
+    private int[] occupiedIn(int fromRow, int fromColumn, int toRow, int toColumn) {
+        int firstRow = Math.max(0, fromRow);
+        int lastRow = Math.min(rows, toRow);
+        int firstColumn = Math.max(0, fromColumn);
+        int lastColumn = Math.min(columns, toColumn);
+        if (firstRow >= lastRow || firstColumn >= lastColumn) {
+            return new int[0];
+        }
+        long area = (long) (lastRow - firstRow) * (lastColumn - firstColumn);
+        IntStream candidates = area > tiles.size()
+                ? Arrays.stream(tiles.sortedKeys())
+                : IntStream.range(firstRow, lastRow).flatMap(i ->
+                        IntStream.range(i * columns + firstColumn, i * columns + lastColumn));
+        return candidates.filter(tile -> {
+            int row = tile / columns;
+            int column = tile % columns;
+            return row >= firstRow && row < lastRow && column >= firstColumn
+                    && column < lastColumn && tiles.get(tile) != TileMap.EMPTY;
+        }).toArray();
+    }
+
+    private static int pack(int code, int state) {
+        return code << 8 | (state & 0xFF);
+    }
+
+    private static int codeOf(int value) {
+        return value >>> 8;
+    }
+
+    private static int stateOf(int value) {
+        return value & 0xFF;
+    }
+
+    /**
+     * A read-only list of tile stats, looked up from a copy of the occupied tiles on demand.
+     */
+    private static class StatsList extends AbstractList<List<String>> implements RandomAccess {
+        private final TileMap tiles;
+        private final int size;
+
+        private StatsList(TileMap tiles, int size) {
+            this.tiles = tiles;
+            this.size = size;
+        }
+
+        @Override
+        public List<String> get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length "
+                        + size);
+            }
+            int value = tiles.get(index);
+            if (value == TileMap.EMPTY) {
+                return TileStates.stats(TileStates.GROUND, 0);
+            }
+            return TileStates.stats(codeOf(value), stateOf(value));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package farm.core.farmgrid;
+
+/**
+ * A source of plant and animal species which can be placed on a farm.
+ * <p>
+ * Implementations are found with {@link java.util.ServiceLoader}, by listing them in a
+ * {@code META-INF/services/farm.core.farmgrid.SpeciesProvider} file, and are asked to register
+ * their species when the default {@link SpeciesRegistry} is first used. This lets new crops and
+ * animals be added to a farm without changing the farm itself.
+ */
+public interface SpeciesProvider {
+
+    /**
+     * Registers every species this provider supplies.
+     * @param registry the registry to add the species to
+     */
+    void registerSpecies(SpeciesRegistry registry);
+}
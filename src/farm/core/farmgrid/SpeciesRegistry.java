@@ -0,0 +1,156 @@
+package farm.core.farmgrid;
+
+import farm.core.animals.Animal;
+import farm.core.plants.Plant;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.function.Supplier;
+
+/**
+ * The plants and animals which can be placed on a farm, looked up by their symbol or name.
+ * <p>
+ * Each species is created by a {@link Supplier}, usually a constructor reference, held in a
+ * table indexed directly by symbol. Creating an item is a table lookup and a constructor call,
+ * with no reflection and no allocation beyond the item itself. The table is split into pages
+ * of 256 symbols, allocated only for the blocks of characters in use.
+ * <p>
+ * Species should be registered before the registry is used by any grid; lookups are not
+ * synchronised with registration.
+ */
+public final class SpeciesRegistry {
+    private static final int PAGE_BITS = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGES = (Character.MAX_VALUE + 1) / PAGE_SIZE;
+
+    private static final class DefaultHolder {
+        private static final SpeciesRegistry DEFAULT = load(SpeciesRegistry.class.getClassLoader());
+    }
+
+    private final Supplier<?>[][] plants = new Supplier<?>[PAGES][];
+    private final Supplier<?>[][] animals = new Supplier<?>[PAGES][];
+    private final Map<String, Character> nameToSymbol = new HashMap<>();
+
+    /**
+     * Creates an empty registry.
+     */
+    public SpeciesRegistry() {
+    }
+
+    /**
+     * Retrieves the registry shared by every farm, holding the built-in species and those from
+     * every {@link SpeciesProvider} found by {@link ServiceLoader}.
+     * @return the default registry
+     */
+    public static SpeciesRegistry getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    /**
+     * Creates a registry holding the built-in species and those from every
+     * {@link SpeciesProvider} visible to the given class loader.
+     * @param loader the class loader to find providers with
+     * @return a new registry
+     */
+    public static SpeciesRegistry load(ClassLoader loader) {
+        SpeciesRegistry registry = new SpeciesRegistry();
+        new BuiltInSpecies().registerSpecies(registry);
+        for (SpeciesProvider provider : ServiceLoader.load(SpeciesProvider.class, loader)) {
+            provider.registerSpecies(registry);
+        }
+        return registry;
+    }
+
+    /**
+     * Adds a plant species to the registry.
+     * @param name the name the plant is placed by, such as "berry"
+     * @param symbol the symbol of the plant's first growth stage
+     * @param factory creates a new plant of the species
+     * @throws IllegalArgumentException if the name or symbol is already registered
+     */
+    public synchronized void registerPlant(String name, char symbol,
+            Supplier<? extends Plant> factory) {
+        register(plants, name, symbol, factory);
+    }
+
+    /**
+     * Adds an animal species to the registry.
+     * @param name the name the animal is placed by, such as "chicken"
+     * @param symbol the symbol of the animal
+     * @param factory creates a new animal of the species
+     * @throws IllegalArgumentException if the name or symbol is already registered
+     */
+    public synchronized void registerAnimal(String name, char symbol,
+            Supplier<? extends Animal> factory) {
+        register(animals, name, symbol, factory);
+    }
+
+    /**
+     * Creates a new plant from its symbol.
+     * @param symbol the symbol of the plant
+     * @return the new plant, or null if no plant has that symbol
+     */
+    public Plant createPlant(char symbol) {
+        Supplier<?> factory = lookup(plants, symbol);
+        return factory == null ? null : (Plant) factory.get();
+    }
+
+    /**
+     * Creates a new animal from its symbol.
+     * @param symbol the symbol of the animal
+     * @return the new animal, or null if no animal has that symbol
+     */
+    public Animal createAnimal(char symbol) {
+        Supplier<?> factory = lookup(animals, symbol);
+        return factory == null ? null : (Animal) factory.get();
+    }
+
+    /**
+     * Determines whether a symbol belongs to a registered plant.
+     * @param symbol the symbol to check
+     * @return true iff a plant has that symbol
+     */
+    public boolean isPlant(char symbol) {
+        return lookup(plants, symbol) != null;
+    }
+
+    /**
+     * Determines whether a symbol belongs to a registered animal.
+     * @param symbol the symbol to check
+     * @return true iff an animal has that symbol
+     */
+    public boolean isAnimal(char symbol) {
+        return lookup(animals, symbol) != null;
+    }
+
+    /**
+     * Finds the symbol of a species from its name.
+     * @param name the name of the species, such as "wheat"
+     * @return the symbol of the species, or null if no species has that name
+     */
+    public synchronized Character findSymbol(String name) {
+        return nameToSymbol.get(name);
+    }
+
+    private void register(Supplier<?>[][] table, String name, char symbol, Supplier<?> factory) {
+        if (nameToSymbol.containsKey(name)) {
+            throw new IllegalArgumentException("Species already registered: " + name);
+        }
+        if (isPlant(symbol) || isAnimal(symbol)) {
+            throw new IllegalArgumentException("Symbol already registered: " + symbol);
+        }
+        Supplier<?>[] page = table[symbol >>> PAGE_BITS];
+        if (page == null) {
+            page = new Supplier<?>[PAGE_SIZE];
+            table[symbol >>> PAGE_BITS] = page;
+        }
+        page[symbol & (PAGE_SIZE - 1)] = factory;
+        nameToSymbol.put(name, symbol);
+    }
+
+    private static Supplier<?> lookup(Supplier<?>[][] table, char symbol) {
+        Supplier<?>[] page = table[symbol >>> PAGE_BITS];
+        return page == null ? null : page[symbol & (PAGE_SIZE - 1)];
+    }
+}
@@ -0,0 +1,200 @@
+package farm.core.farmgrid;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash map from tile index to an {@code int} tile value, holding only the
+ * tiles which are occupied.
+ * <p>
+ * Keys and values are kept in parallel primitive arrays and collisions are resolved by linear
+ * probing, so lookups allocate nothing. Removal shifts later entries in the probe sequence back
+ * rather than leaving tombstones. The table grows when it is more than half full and shrinks
+ * when it falls below an eighth full, so its size always tracks the number of occupied tiles.
+ * <p>
+ * Callers may walk the table by slot, from 0 to {@link #capacity()}, skipping slots whose key
+ * is {@link #EMPTY}.
+ */
+class TileMap {
+    /**
+     * The key stored in slots which hold no tile.
+     */
+    static final int EMPTY = -1;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] keys;
+    private int[] values;
+    private int size = 0;
+
+    /**
+     * Creates an empty tile map.
+     */
+    TileMap() {
+        this(MIN_CAPACITY);
+    }
+
+    private TileMap(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Retrieves the value stored for a tile.
+     * @param key the index of the tile, which must not be negative
+     * @return the tile's value, or {@link #EMPTY} if the tile is not in the map
+     */
+    int get(int key) {
+        int slot = find(key);
+        return keys[slot] == EMPTY ? EMPTY : values[slot];
+    }
+
+    /**
+     * Stores the value for a tile, replacing any existing value.
+     * @param key the index of the tile, which must not be negative
+     * @param value the value to store, which must not be {@link #EMPTY}
+     */
+    void put(int key, int value) {
+        int slot = find(key);
+        if (keys[slot] == EMPTY) {
+            if (size + 1 > keys.length / 2) {
+                resize(keys.length * 2);
+                slot = find(key);
+            }
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Removes a tile from the map.
+     * @param key the index of the tile
+     * @return true iff the tile was in the map
+     */
+    boolean remove(int key) {
+        int slot = find(key);
+        if (keys[slot] == EMPTY) {
+            return false;
+        }
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = hash(keys[next]) & mask;
+            // move the entry back if the hole lies between its home slot and where it sits now
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        size--;
+        if (keys.length > MIN_CAPACITY && size < keys.length / 8) {
+            resize(keys.length / 2);
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves the number of tiles in the map.
+     * @return the number of occupied tiles
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the number of slots in the table.
+     * @return the table capacity
+     */
+    int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Retrieves the key held in a slot.
+     * @param slot the slot to read
+     * @return the tile index in the slot, or {@link #EMPTY}
+     */
+    int keyAt(int slot) {
+        return keys[slot];
+    }
+
+    /**
+     * Retrieves the value held in a slot.
+     * @param slot the slot to read
+     * @return the tile value in the slot
+     */
+    int valueAt(int slot) {
+        return values[slot];
+    }
+
+    /**
+     * Replaces the value held in an occupied slot.
+     * @param slot the slot to write
+     * @param value the new tile value
+     */
+    void setValueAt(int slot, int value) {
+        values[slot] = value;
+    }
+
+    /**
+     * Creates an independent copy of the map.
+     * @return a map holding the same tiles
+     */
+    TileMap copy() {
+        TileMap copy = new TileMap(0);
+        copy.keys = keys.clone();
+        copy.values = values.clone();
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Retrieves every tile index in the map, in ascending order.
+     * @return the sorted keys
+     */
+    int[] sortedKeys() {
+        int[] sorted = new int[size];
+        int count = 0;
+        for (int key : keys) {
+            if (key != EMPTY) {
+                sorted[count++] = key;
+            }
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private int find(int key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,335 @@
+package farm.core.farmgrid;
+
+import farm.core.UnableToInteractException;
+import farm.core.animals.Animal;
+import farm.core.plants.Plant;
+import farm.inventory.product.Product;
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Shared rules for grids which store each tile as a primitive species code and state, rather
+ * than as {@code Plant} and {@code Animal} objects.
+ * <p>
+ * Species code 0 is ground. Every other code stands for a species in the default
+ * {@link SpeciesRegistry}, and is given out the first time the species' symbol is placed on any
+ * grid, so species added by a {@link SpeciesProvider} need no table of their own here. The codes
+ * only live as long as the program and are never saved. For plants, the state holds the growth
+ * stage and whether the plant has just been harvested; for animals it holds whether the animal
+ * has been fed and whether its product has been collected. The stats, display symbol and
+ * end-of-day state of every combination are worked out once per species, from a sample plant
+ * or animal, and shared by every grid.
+ * <p>
+ * Species are expected to grow, harvest and reset like an {@code AbstractPlant} or
+ * {@code AbstractAnimal}.
+ */
+final class TileStates {
+    static final int GROUND = 0;
+    static final int STATES = 128;
+    static final int STAGE_MASK = 0x3F;
+    static final int HARVESTED = 0x40;
+    static final int FED = 0x01;
+    static final int COLLECTED = 0x02;
+
+    private static final List<String> GROUND_STATS = List.of("ground", " ");
+    private static final String GROUND_SYMBOL = "  ";
+    // codes are stored in a signed byte, so the largest is 127
+    private static final int MAX_CODE = Byte.MAX_VALUE;
+
+    private static volatile Table table = Table.withGround();
+
+    private TileStates() {
+    }
+
+    /**
+     * Retrieves the code used to store the species placed with the given symbol, if it can be
+     * placed on a farm of the given type.
+     * @param symbol the symbol used to place the species
+     * @param plant true for a plant farm, false for an animal farm
+     * @return the species code, or {@link #GROUND} if no species of the farm type has the symbol
+     * @throws IllegalStateException if the species is registered but cannot be given a code,
+     * because too many species are in use or the plant has too many growth stages
+     */
+    static int code(char symbol, boolean plant) {
+        int code = table.codes[symbol];
+        if (code == GROUND) {
+            SpeciesRegistry registry = SpeciesRegistry.getDefault();
+            if (plant ? !registry.isPlant(symbol) : !registry.isAnimal(symbol)) {
+                return GROUND;
+            }
+            code = addSpecies(symbol);
+        }
+        return table.kinds[code].isPlant() == plant ? code : GROUND;
+    }
+
+    /**
+     * Retrieves the type of product a species gives when harvested.
+     * @param code the species code, which must not be {@link #GROUND}
+     * @return the barcode of the species' product
+     */
+    static Barcode product(int code) {
+        return table.kinds[code].product;
+    }
+
+    /**
+     * Works out the state of a tile from its saved stage or status.
+     * @param code the species code of the tile, which must not be {@link #GROUND}
+     * @param stage the stage of a plant, as shown in {@link Grid#getStats()}
+     * @param fed whether an animal has been fed
+     * @param collected whether an animal's product has been collected
+     * @return the state of the tile
+     */
+    static byte restoredState(int code, int stage, boolean fed, boolean collected) {
+        Kind kind = table.kinds[code];
+        if (kind.isPlant()) {
+            if (stage == 0) {
+                return HARVESTED;
+            }
+            return (byte) Math.min(stage - 1, kind.stages.size() - 1);
+        }
+        return (byte) ((fed ? FED : 0) | (collected ? COLLECTED : 0));
+    }
+
+    /**
+     * Retrieves the stats of a tile, in the form returned by {@link Grid#getStats()}.
+     * @param code the species code of the tile
+     * @param state the state of the tile
+     * @return the shared, unmodifiable stats of the tile
+     */
+    @SuppressWarnings("unchecked")
+    static List<String> stats(int code, int state) {
+        return (List<String>) table.kinds[code].stats[state];
+    }
+
+    /**
+     * Retrieves the symbol a tile is drawn with in {@link Grid#farmDisplay()}.
+     * @param code the species code of the tile
+     * @param state the state of the tile
+     * @return the display symbol of the tile
+     */
+    static String display(int code, int state) {
+        return table.kinds[code].display[state];
+    }
+
+    /**
+     * Passes the state of a tile to a visitor.
+     * @param code the species code of the tile
+     * @param state the state of the tile
+     * @param row the row of the tile
+     * @param column the column of the tile
+     * @param visitor the visitor to pass the tile to
+     */
+    static void visit(int code, int state, int row, int column, TileVisitor visitor) {
+        if (code == GROUND) {
+            visitor.visitGround(row, column);
+            return;
+        }
+        Kind kind = table.kinds[code];
+        if (kind.isPlant()) {
+            int stage = state & STAGE_MASK;
+            visitor.visitPlant(row, column, kind.type, kind.stages.get(stage),
+                    (state & HARVESTED) != 0 ? stage : stage + 1);
+        } else {
+            visitor.visitAnimal(row, column, kind.type, kind.display[state],
+                    (state & FED) != 0, (state & COLLECTED) != 0);
+        }
+    }
+
+    /**
+     * Works out the state a tile moves into at the end of the day.
+     * @param code the species code of the tile
+     * @param state the state of the tile
+     * @return the state of the tile on the next day
+     */
+    static byte endOfDay(int code, int state) {
+        return table.kinds[code].endOfDay[state];
+    }
+
+    /**
+     * Determines whether a tile can be harvested right now.
+     * @param code the species code of the tile
+     * @param state the state of the tile
+     * @return true iff harvesting the tile would produce a product
+     */
+    static boolean isHarvestable(int code, int state) {
+        if (code == GROUND) {
+            return false;
+        }
+        Kind kind = table.kinds[code];
+        if (kind.isPlant()) {
+            return (state & STAGE_MASK) == kind.stages.size() - 1;
+        }
+        return (state & FED) != 0 && (state & COLLECTED) == 0;
+    }
+
+    /**
+     * Works out the state a tile moves into when it is harvested.
+     * @param code the species code of the tile
+     * @param state the state of the tile
+     * @return the state of the tile after harvesting
+     * @throws UnableToInteractException if there is nothing on the tile ready to harvest
+     */
+    static byte harvest(int code, int state) throws UnableToInteractException {
+        if (code == GROUND) {
+            throw new UnableToInteractException("Nothing to harvest here!");
+        }
+        Kind kind = table.kinds[code];
+        if (kind.isPlant()) {
+            if ((state & STAGE_MASK) != kind.stages.size() - 1) {
+                throw new UnableToInteractException("The crop is not fully grown!");
+            }
+        } else {
+            if ((state & FED) == 0) {
+                throw new UnableToInteractException("Animal is not fed.");
+            }
+            if ((state & COLLECTED) != 0) {
+                throw new UnableToInteractException(
+                        "The product has already been collected today.");
+            }
+        }
+        return afterHarvest(code, state);
+    }
+
+    /**
+     * Works out the state a harvestable tile moves into when it is harvested, without checking
+     * that it is ready.
+     * @param code the species code of the tile, which must not be {@link #GROUND}
+     * @param state the state of the tile
+     * @return the state of the tile after harvesting
+     * @requires {@code isHarvestable(code, state)}
+     */
+    static byte afterHarvest(int code, int state) {
+        return table.kinds[code].isPlant() ? HARVESTED : (byte) (state | COLLECTED);
+    }
+
+    /**
+     * gives the registered species placed with a symbol the next code, unless it has one
+     * @return the species code
+     */
+    private static synchronized int addSpecies(char symbol) {
+        Table current = table;
+        if (current.codes[symbol] != GROUND) {
+            return current.codes[symbol];
+        }
+        SpeciesRegistry registry = SpeciesRegistry.getDefault();
+        Kind kind = registry.isPlant(symbol) ? Kind.of(registry.createPlant(symbol))
+                : Kind.of(registry.createAnimal(symbol));
+        int code = current.kinds.length;
+        if (code > MAX_CODE) {
+            throw new IllegalStateException("Too many species to store in a packed grid: "
+                    + symbol);
+        }
+        table = current.with(symbol, kind);
+        return code;
+    }
+
+    /**
+     * The codes given out so far, replaced as a whole whenever a species is added so that
+     * readers never see a code without its kind.
+     */
+    private record Table(byte[] codes, Kind[] kinds) {
+        static Table withGround() {
+            Kind ground = new Kind("ground", null, null);
+            ground.stats[GROUND] = GROUND_STATS;
+            ground.display[GROUND] = GROUND_SYMBOL;
+            return new Table(new byte[Character.MAX_VALUE + 1], new Kind[] {ground});
+        }
+
+        Table with(char symbol, Kind kind) {
+            Kind[] added = Arrays.copyOf(kinds, kinds.length + 1);
+            added[kinds.length] = kind;
+            byte[] addedCodes = codes.clone();
+            addedCodes[symbol] = (byte) kinds.length;
+            return new Table(addedCodes, added);
+        }
+    }
+
+    /**
+     * The type, product and tile tables of one species.
+     */
+    private static final class Kind {
+        private final String type;
+        private final Barcode product;
+        private final List<String> stages;
+        private final List<?>[] stats = new List<?>[STATES];
+        private final String[] display = new String[STATES];
+        private final byte[] endOfDay = new byte[STATES];
+
+        private Kind(String type, Barcode product, List<String> stages) {
+            this.type = type;
+            this.product = product;
+            this.stages = stages;
+        }
+
+        /**
+         * works out the growth stages and product of a plant by growing and harvesting it
+         */
+        static Kind of(Plant sample) {
+            List<String> stages = new ArrayList<>();
+            stages.add(sample.getSymbol());
+            while (!sample.isHarvestable()) {
+                if (stages.size() > STAGE_MASK) {
+                    throw new IllegalStateException("Too many growth stages to store in a "
+                            + "packed grid: " + sample.getType());
+                }
+                sample.grow();
+                stages.add(sample.getSymbol());
+            }
+            Kind kind = new Kind(sample.getType(), harvestSample(sample::harvest),
+                    List.copyOf(stages));
+            for (int stage = 0; stage < stages.size(); stage++) {
+                for (int harvested : new int[] {0, HARVESTED}) {
+                    int state = stage | harvested;
+                    int shownStage = harvested != 0 ? stage : stage + 1;
+                    kind.stats[state] = List.of(kind.type, stages.get(stage),
+                            "Stage: " + shownStage);
+                    kind.display[state] = stages.get(stage) + " ";
+                    kind.endOfDay[state] = (byte) (stage < stages.size() - 1
+                            ? stage + 1 : state);
+                }
+            }
+            return kind;
+        }
+
+        /**
+         * works out the product of an animal by feeding and harvesting it
+         */
+        static Kind of(Animal sample) {
+            String symbol = sample.getSymbol();
+            sample.feed();
+            Kind kind = new Kind(sample.getType(), harvestSample(sample::harvest), null);
+            for (int state = 0; state <= (FED | COLLECTED); state++) {
+                kind.stats[state] = List.of(kind.type, symbol,
+                        "Fed: " + ((state & FED) != 0),
+                        "Collected: " + ((state & COLLECTED) != 0));
+                kind.display[state] = symbol;
+                kind.endOfDay[state] = 0;
+            }
+            return kind;
+        }
+
+        boolean isPlant() {
+            return stages != null;
+        }
+
+        private static Barcode harvestSample(Harvester harvester) {
+            try {
+                return harvester.harvest(Quality.REGULAR).getBarcode();
+            } catch (UnableToInteractException e) {
+                throw new IllegalStateException("Species cannot be harvested once grown: "
+                        + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Harvests a sample plant or animal.
+     */
+    private interface Harvester {
+        Product harvest(Quality quality) throws UnableToInteractException;
+    }
+}
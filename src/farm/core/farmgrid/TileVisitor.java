@@ -0,0 +1,44 @@
+package farm.core.farmgrid;
+
+/**
+ * Receives the state of each tile of a grid in turn, as passed to
+ * {@link Grid#visitTiles(TileVisitor)}.
+ * <p>
+ * Tiles are visited in row-major order. The strings passed are shared by every tile in the same
+ * state, so visiting a grid does not create anything per tile. Each method does nothing by
+ * default, so a visitor need only handle the tiles it is interested in.
+ */
+public interface TileVisitor {
+
+    /**
+     * Visits a tile with nothing on it.
+     * @param row the row of the tile
+     * @param column the column of the tile
+     */
+    default void visitGround(int row, int column) {
+    }
+
+    /**
+     * Visits a tile with a plant on it.
+     * @param row the row of the tile
+     * @param column the column of the tile
+     * @param type the type of plant, such as "berry"
+     * @param symbol the symbol of the plant's current growth stage
+     * @param stage the stage of the plant, as shown in {@link Grid#getStats()}
+     */
+    default void visitPlant(int row, int column, String type, String symbol, int stage) {
+    }
+
+    /**
+     * Visits a tile with an animal on it.
+     * @param row the row of the tile
+     * @param column the column of the tile
+     * @param type the type of animal, such as "cow"
+     * @param symbol the symbol of the animal
+     * @param fed whether the animal has been fed today
+     * @param collected whether the animal's product has been collected today
+     */
+    default void visitAnimal(int row, int column, String type, String symbol, boolean fed,
+            boolean collected) {
+    }
+}
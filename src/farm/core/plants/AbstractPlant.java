@@ -8,6 +8,9 @@ import java.util.List;
 
 /**
  * Class representing an abstract plant in farm grid
+ * <p>
+ * A plant which follows a {@link GrowthClock} does not store its stage; it records the day its
+ * current growth began and works out its stage from the clock whenever it is read.
  */
 public abstract class AbstractPlant implements Plant {
     private List<String> growthStages;
@@ -15,6 +18,8 @@ public abstract class AbstractPlant implements Plant {
     private boolean fed = false;
     private boolean collected = false;
     private boolean harvested = false;
+    private GrowthClock clock = null;
+    private long growthStartDay;
 
     /**
      * constructor for an abstract plant
@@ -26,16 +31,16 @@ public abstract class AbstractPlant implements Plant {
 
     @Override
     public int getStage() {
-        if (harvested) {
-            return currentStage;
+        if (wasHarvested()) {
+            return currentStage();
         } else {
-            return currentStage + 1;
+            return currentStage() + 1;
         }
     }
 
     @Override
     public void grow() {
-        if (currentStage < growthStages.size() - 1) {
+        if (clock == null && currentStage < growthStages.size() - 1) {
             currentStage++;
             harvested = false;
         }
@@ -43,7 +48,12 @@ public abstract class AbstractPlant implements Plant {
 
     @Override
     public boolean isHarvestable() {
-        return currentStage == growthStages.size() - 1;
+        return currentStage() == growthStages.size() - 1;
+    }
+
+    @Override
+    public int getDaysUntilHarvestable() {
+        return growthStages.size() - 1 - currentStage();
     }
 
     @Override
@@ -51,19 +61,23 @@ public abstract class AbstractPlant implements Plant {
         if (!isHarvestable()) {
             throw new UnableToInteractException("The crop is not fully grown!");
         }
-        harvested = true;
         reset();
+        harvested = true;
         return createProduct(quality);
     }
 
     @Override
     public void reset() {
+        if (clock != null) {
+            harvested = wasHarvested();
+            growthStartDay = clock.getDay();
+        }
         this.currentStage = 0;
     }
 
     @Override
     public String getSymbol() {
-        return growthStages.get(currentStage);
+        return growthStages.get(currentStage());
     }
 
     @Override
@@ -75,5 +89,39 @@ public abstract class AbstractPlant implements Plant {
         );
     }
 
+    @Override
+    public void restoreStage(int stage) {
+        currentStage = Math.min(Math.max(stage - 1, 0), growthStages.size() - 1);
+        harvested = stage == 0;
+        if (clock != null) {
+            growthStartDay = clock.getDay() - currentStage;
+        }
+    }
+
+    @Override
+    public boolean followClock(GrowthClock clock) {
+        this.growthStartDay = clock.getDay() - currentStage();
+        this.harvested = wasHarvested();
+        this.clock = clock;
+        return true;
+    }
+
+    /**
+     * works out the current stage of growth, from the clock if the plant follows one
+     */
+    private int currentStage() {
+        if (clock == null) {
+            return currentStage;
+        }
+        return (int) Math.min(clock.getDay() - growthStartDay, growthStages.size() - 1);
+    }
+
+    /**
+     * checks whether the plant was harvested and has not grown since
+     */
+    private boolean wasHarvested() {
+        return harvested && (clock == null || clock.getDay() == growthStartDay);
+    }
+
     protected abstract Product createProduct(Quality quality);
 }
\ No newline at end of file
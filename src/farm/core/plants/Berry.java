@@ -1,7 +1,8 @@
 package farm.core.plants;
 
-import farm.inventory.product.Jam;
 import farm.inventory.product.Product;
+import farm.inventory.product.ProductFactory;
+import farm.inventory.product.data.Barcode;
 import farm.inventory.product.data.Quality;
 
 import java.util.List;
@@ -10,17 +11,18 @@ import java.util.List;
  * Class representing a berry plant in farm grid
  */
 public class Berry extends AbstractPlant {
+    private static final List<String> GROWTH_STAGES = List.of(".", "o", "@");
 
     /**
      * constructor for the berry plant
      */
     public Berry() {
-        super(List.of(".", "o", "@"));
+        super(GROWTH_STAGES);
     }
 
     @Override
     protected Product createProduct(Quality quality) {
-        return new Jam(quality);
+        return ProductFactory.create(Barcode.JAM, quality);
     }
 
     @Override
@@ -1,7 +1,8 @@
 package farm.core.plants;
 
-import farm.inventory.product.Coffee;
 import farm.inventory.product.Product;
+import farm.inventory.product.ProductFactory;
+import farm.inventory.product.data.Barcode;
 import farm.inventory.product.data.Quality;
 
 import java.util.List;
@@ -10,17 +11,18 @@ import java.util.List;
  * Class representing a coffee plant in farm grid
  */
 public class CoffeePlant extends AbstractPlant {
+    private static final List<String> GROWTH_STAGES = List.of(":", ";", "*", "%");
 
     /**
      * constructor for the coffee plant
      */
     public CoffeePlant() {
-        super(List.of(":", ";", "*", "%"));
+        super(GROWTH_STAGES);
     }
 
     @Override
     protected Product createProduct(Quality quality) {
-        return new Coffee(quality);
+        return ProductFactory.create(Barcode.COFFEE, quality);
     }
 
     @Override
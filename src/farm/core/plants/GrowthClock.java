@@ -0,0 +1,24 @@
+package farm.core.plants;
+
+/**
+ * Counts the days which have passed on a farm, so that plants can work out how far they have
+ * grown from the day they were planted rather than being grown one day at a time.
+ */
+public class GrowthClock {
+    private long day = 0;
+
+    /**
+     * Retrieves the current day.
+     * @return the number of days which have ended since the clock was created
+     */
+    public long getDay() {
+        return day;
+    }
+
+    /**
+     * Moves the clock on to the next day.
+     */
+    public void advance() {
+        day++;
+    }
+}
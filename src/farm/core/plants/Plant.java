@@ -21,6 +21,14 @@ public interface Plant {
      */
     boolean isHarvestable();
 
+    /**
+     * Returns the number of days the plant needs to grow before it can be harvested, or -1 if
+     * this is not known.
+     */
+    default int getDaysUntilHarvestable() {
+        return isHarvestable() ? 0 : -1;
+    }
+
     /**
      * Harvests the plant and returns a Product.
      */
@@ -50,4 +58,24 @@ public interface Plant {
      * returns stats of a plant
      */
     List<String> getsStats();
-}
\ No newline at end of file
+
+    /**
+     * Brings the plant to the given stage, as returned by getStage(), when loading a saved farm.
+     * By default the plant is grown until it reaches the stage.
+     */
+    default void restoreStage(int stage) {
+        for (int i = 1; i < stage; i++) {
+            grow();
+        }
+    }
+
+    /**
+     * Makes the plant grow with the days counted by a clock, rather than when grow() is called.
+     * Once following a clock, calling grow() has no effect.
+     * @param clock the clock to follow, starting from the plant's current stage
+     * @return true iff the plant now follows the clock
+     */
+    default boolean followClock(GrowthClock clock) {
+        return false;
+    }
+}
@@ -1,7 +1,8 @@
 package farm.core.plants;
 
-import farm.inventory.product.Bread;
 import farm.inventory.product.Product;
+import farm.inventory.product.ProductFactory;
+import farm.inventory.product.data.Barcode;
 import farm.inventory.product.data.Quality;
 
 import java.util.List;
@@ -10,17 +11,18 @@ import java.util.List;
  * Class representing a wheat plant in farm grid
  */
 public class Wheat extends AbstractPlant {
+    private static final List<String> GROWTH_STAGES = List.of("ἴ", "#");
 
     /**
      * constructor for the wheat plant
      */
     public Wheat() {
-        super(List.of("ἴ", "#"));
+        super(GROWTH_STAGES);
     }
 
     @Override
     protected Product createProduct(Quality quality) {
-        return new Bread(quality);
+        return ProductFactory.create(Barcode.BREAD, quality);
     }
 
     @Override
@@ -0,0 +1,217 @@
+package farm.files;
+
+import farm.core.UnableToInteractException;
+import farm.core.farmgrid.ChangeTracking;
+import farm.core.farmgrid.FarmGrid;
+import farm.core.farmgrid.Grid;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * A class that loads a grid saved by {@link BinaryFileSaver}.
+ * <p>
+ * The file is memory-mapped, a window at a time, and each tile record is read straight into
+ * the grid, checksumming the file in the same pass. Nothing is copied into memory besides the
+ * grid itself. Any delta segments appended by {@link IncrementalFileSaver} are then applied
+ * in order, so the loaded grid is the one most recently saved.
+ */
+public class BinaryFileLoader {
+    private static final long WINDOW_SIZE = 1L << 28;
+
+    /**
+     * Checks whether a file starts like a binary grid save file.
+     * @param filename the String filename to check.
+     * @return true iff the file exists and starts with the binary format's magic number
+     * @throws IOException if the file exists but cannot be read
+     */
+    public static boolean isBinaryFile(String filename) throws IOException {
+        Path path = Path.of(filename);
+        if (!path.toFile().isFile()) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+                // keep reading until the magic number is read or the file ends
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == BinaryGridFormat.MAGIC;
+        }
+    }
+
+    /**
+     * Loads contents of the specified file into a Grid.
+     * @param filename the String filename to read contents from.
+     * @return a grid instance.
+     * @throws IOException if the file doesn't exist, is not a binary grid save file, is of an
+     * unsupported version, or is corrupt
+     */
+    public Grid load(String filename) throws IOException {
+        return load(filename, Long.MAX_VALUE);
+    }
+
+    /**
+     * Loads the grid held by the start of the specified file, ignoring anything after it.
+     * @param filename the String filename to read contents from.
+     * @param limit the number of bytes to read, at most
+     * @return a grid instance.
+     * @throws IOException if the file doesn't exist, is not a binary grid save file, is of an
+     * unsupported version, or is corrupt
+     */
+    Grid load(String filename, long limit) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+            return read(channel, 0, Math.min(limit, channel.size()), filename);
+        }
+    }
+
+    /**
+     * Loads the grid saved between two positions of a channel, as written by
+     * {@link BinaryFileSaver#write(FileChannel, Grid)} and followed by any delta segments.
+     * @param channel the channel to read from
+     * @param start the position the grid starts at
+     * @param end the position the grid and its delta segments end at
+     * @param filename the name of the file being read, for error messages
+     * @return a grid instance.
+     * @throws IOException if the bytes are not a binary grid save, are of an unsupported
+     * version, or are corrupt
+     */
+    Grid read(FileChannel channel, long start, long end, String filename) throws IOException {
+        long size = end - start;
+        if (size < BinaryGridFormat.HEADER_SIZE) {
+            throw new IOException("Not a binary farm file: " + filename);
+        }
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                BinaryGridFormat.HEADER_SIZE);
+        if (header.getInt() != BinaryGridFormat.MAGIC) {
+            throw new IOException("Not a binary farm file: " + filename);
+        }
+        short version = header.getShort();
+        if (version < BinaryGridFormat.FIRST_VERSION || version > BinaryGridFormat.VERSION) {
+            throw new IOException("Unsupported farm file version: " + version);
+        }
+        String farmType = switch (header.get()) {
+            case BinaryGridFormat.PLANT_FARM -> "plant";
+            case BinaryGridFormat.ANIMAL_FARM -> "animal";
+            default -> throw new IOException("Invalid farm type in " + filename);
+        };
+        header.get();
+        int rows = header.getInt();
+        int columns = header.getInt();
+        int expectedChecksum = header.getInt();
+        long tiles = (long) rows * columns;
+        long baseSize = BinaryGridFormat.HEADER_SIZE + tiles * BinaryGridFormat.TILE_SIZE;
+        if (rows < 0 || columns < 0 || size < baseSize
+                || (version == BinaryGridFormat.FIRST_VERSION && size != baseSize)) {
+            throw new IOException("Farm file is truncated or corrupt: " + filename);
+        }
+
+        CRC32 checksum = new CRC32();
+        checksum.update(header.position(0).limit(BinaryGridFormat.CHECKSUMMED_HEADER_SIZE));
+        Grid grid = new FarmGrid(rows, columns, farmType);
+        long tile = 0;
+        long position = start + BinaryGridFormat.HEADER_SIZE;
+        while (tile < tiles) {
+            long length = Math.min(WINDOW_SIZE, (tiles - tile) * BinaryGridFormat.TILE_SIZE);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                    length);
+            checksum.update(window.duplicate());
+            while (window.hasRemaining()) {
+                char symbol = window.getChar();
+                int stage = window.get();
+                int flags = window.get();
+                if (symbol != 0) {
+                    restore(grid, (int) (tile / columns), (int) (tile % columns), symbol,
+                            stage, flags);
+                }
+                tile++;
+            }
+            position += length;
+        }
+        if ((int) checksum.getValue() != expectedChecksum) {
+            throw new IOException("Farm file checksum does not match: " + filename);
+        }
+        applyDeltas(channel, grid, start + baseSize, end, filename);
+        if (grid instanceof ChangeTracking tracking) {
+            tracking.clearChanges();
+        }
+        return grid;
+    }
+
+    /**
+     * applies each delta segment between the end of the base snapshot and the given size,
+     * stopping at a torn trailing segment
+     */
+    private static void applyDeltas(FileChannel channel, Grid grid, long position, long size,
+            String filename) throws IOException {
+        long tiles = (long) grid.getRows() * grid.getColumns();
+        while (size - position >= BinaryGridFormat.DELTA_HEADER_SIZE
+                + BinaryGridFormat.CHECKSUM_SIZE) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                    BinaryGridFormat.DELTA_HEADER_SIZE);
+            int magic = header.getInt();
+            int days = header.getInt();
+            int count = header.getInt();
+            long length = BinaryGridFormat.DELTA_HEADER_SIZE
+                    + (long) count * BinaryGridFormat.DELTA_TILE_SIZE
+                    + BinaryGridFormat.CHECKSUM_SIZE;
+            if (magic != BinaryGridFormat.DELTA_MAGIC || days < 0 || count < 0 || count > tiles
+                    || position + length > size) {
+                return;
+            }
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("Farm file change segment is too large: " + filename);
+            }
+
+            MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                    length);
+            int checksumAt = (int) length - BinaryGridFormat.CHECKSUM_SIZE;
+            CRC32 checksum = new CRC32();
+            checksum.update(segment.duplicate().limit(checksumAt));
+            if ((int) checksum.getValue() != segment.getInt(checksumAt)) {
+                if (position + length == size) {
+                    return;
+                }
+                throw new IOException("Farm file checksum does not match: " + filename);
+            }
+
+            try {
+                for (int day = 0; day < days; day++) {
+                    grid.interact("end-day", 0, 0);
+                }
+            } catch (UnableToInteractException e) {
+                throw new IOException("Unable to end the day in " + filename, e);
+            }
+            segment.position(BinaryGridFormat.DELTA_HEADER_SIZE);
+            for (int i = 0; i < count; i++) {
+                int tile = segment.getInt();
+                char symbol = segment.getChar();
+                int stage = segment.get();
+                int flags = segment.get();
+                if (tile < 0 || tile >= tiles) {
+                    throw new IOException("Invalid tile index in " + filename + ": " + tile);
+                }
+                int row = tile / grid.getColumns();
+                int column = tile % grid.getColumns();
+                grid.removeRegion(row, column, row + 1, column + 1);
+                if (symbol != 0) {
+                    restore(grid, row, column, symbol, stage, flags);
+                }
+            }
+            position += length;
+        }
+    }
+
+    private static void restore(Grid grid, int row, int column, char symbol, int stage,
+            int flags) throws IOException {
+        boolean restored = grid.restoreTile(row, column, symbol, stage,
+                (flags & BinaryGridFormat.FED) != 0, (flags & BinaryGridFormat.COLLECTED) != 0);
+        if (!restored) {
+            throw new IOException("Invalid tile at " + row + ", " + column + ": " + symbol);
+        }
+    }
+}
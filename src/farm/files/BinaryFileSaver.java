@@ -0,0 +1,133 @@
+package farm.files;
+
+import farm.core.farmgrid.Grid;
+import farm.core.farmgrid.TileVisitor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * A class that saves a grid into a compact binary file, in the format described by
+ * {@link BinaryGridFormat}.
+ * <p>
+ * Tiles are streamed from {@link Grid#visitTiles(TileVisitor)} through a small buffer, so
+ * saving takes no memory in proportion to the size of the grid. Use {@link FileSaver} to
+ * export a grid as text instead.
+ */
+public class BinaryFileSaver {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Saves the contents of a grid into a specified file, replacing any existing file.
+     * @param filename the String filename to write contents to.
+     * @param grid the grid to be saved.
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if the grid is not a plant or animal farm, or holds a
+     * species that is not registered
+     */
+    public void save(String filename, Grid grid) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(filename),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            write(channel, grid);
+        }
+    }
+
+    /**
+     * Writes a grid into a channel at its current position, leaving the channel positioned
+     * after the last tile.
+     * @param channel the channel to write to
+     * @param grid the grid to be saved.
+     * @throws IOException if the channel cannot be written
+     * @throws IllegalArgumentException if the grid is not a plant or animal farm, or holds a
+     * species that is not registered
+     */
+    void write(FileChannel channel, Grid grid) throws IOException {
+        byte farmType = switch (grid.toString().toLowerCase()) {
+            case "plant" -> BinaryGridFormat.PLANT_FARM;
+            case "animal" -> BinaryGridFormat.ANIMAL_FARM;
+            default -> throw new IllegalArgumentException("Invalid farm type: " + grid);
+        };
+        ByteBuffer header = ByteBuffer.allocate(BinaryGridFormat.HEADER_SIZE);
+        BinaryGridFormat.writeHeader(header, farmType, grid.getRows(), grid.getColumns(), 0);
+        CRC32 checksum = new CRC32();
+        checksum.update(header.array(), 0, BinaryGridFormat.CHECKSUMMED_HEADER_SIZE);
+
+        long start = channel.position();
+        TileWriter tiles = new TileWriter(channel, checksum);
+        channel.position(start + BinaryGridFormat.HEADER_SIZE);
+        try {
+            grid.visitTiles(tiles);
+            tiles.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        header.putInt(BinaryGridFormat.HEADER_SIZE - Integer.BYTES, (int) checksum.getValue());
+        header.rewind();
+        long position = start;
+        while (header.hasRemaining()) {
+            position += channel.write(header, position);
+        }
+    }
+
+    /**
+     * Writes each tile as a fixed-width record, updating the checksum as each buffer is
+     * written.
+     */
+    private static class TileWriter implements TileVisitor {
+        private final FileChannel channel;
+        private final CRC32 checksum;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private final SpeciesSymbols symbols = new SpeciesSymbols();
+
+        private TileWriter(FileChannel channel, CRC32 checksum) {
+            this.channel = channel;
+            this.checksum = checksum;
+        }
+
+        @Override
+        public void visitGround(int row, int column) {
+            write((char) 0, 0, 0);
+        }
+
+        @Override
+        public void visitPlant(int row, int column, String type, String symbol, int stage) {
+            write(symbols.of(type), stage, 0);
+        }
+
+        @Override
+        public void visitAnimal(int row, int column, String type, String symbol, boolean fed,
+                boolean collected) {
+            write(symbols.of(type), 0, BinaryGridFormat.flags(fed, collected));
+        }
+
+        private void write(char symbol, int stage, int flags) {
+            if (stage < 0 || stage > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("Stage out of range: " + stage);
+            }
+            if (buffer.remaining() < BinaryGridFormat.TILE_SIZE) {
+                flush();
+            }
+            buffer.putChar(symbol).put((byte) stage).put((byte) flags);
+        }
+
+        private void flush() {
+            buffer.flip();
+            checksum.update(buffer.array(), 0, buffer.limit());
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.clear();
+        }
+    }
+}
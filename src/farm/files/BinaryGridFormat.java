@@ -0,0 +1,77 @@
+package farm.files;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The layout of a binary grid save file, shared by {@link BinaryFileSaver} and
+ * {@link BinaryFileLoader}.
+ * <p>
+ * A file is a fixed-size header followed by one fixed-width record per tile, in row-major
+ * order, all big-endian:
+ * <pre>
+ * header: magic "FGRD" (4) | version (2) | farm type (1) | reserved (1)
+ *         | rows (4) | columns (4) | CRC-32 (4)
+ * tile:   symbol (2) | stage (1) | flags (1)
+ * </pre>
+ * The symbol is the one the item is placed with, or 0 for ground. The stage is that shown in
+ * the grid's stats, and the flags record whether an animal is fed and collected. The checksum
+ * covers the header up to the checksum and every tile record.
+ * <p>
+ * Since version 2 the tile records, which form the base snapshot, may be followed by any
+ * number of delta segments appended by {@link IncrementalFileSaver}:
+ * <pre>
+ * delta:  magic "FDLT" (4) | ended days (4) | tile count (4) | tile change * count
+ *         | CRC-32 (4)
+ * change: tile index (4) | symbol (2) | stage (1) | flags (1)
+ * </pre>
+ * A segment is applied by ending the day the given number of times and then replacing each
+ * listed tile, in row-major index order, with the recorded tile. Its checksum covers the whole
+ * segment before the checksum. A trailing segment that is incomplete or fails its checksum was
+ * torn by an interrupted save and is ignored.
+ */
+final class BinaryGridFormat {
+    static final int MAGIC = 0x46475244; // "FGRD"
+    static final short VERSION = 2;
+    static final short FIRST_VERSION = 1;
+    static final int HEADER_SIZE = 20;
+    static final int CHECKSUMMED_HEADER_SIZE = 16;
+    static final int TILE_SIZE = 4;
+
+    static final int DELTA_MAGIC = 0x46444C54; // "FDLT"
+    static final int DELTA_HEADER_SIZE = 12;
+    static final int DELTA_TILE_SIZE = 8;
+    static final int CHECKSUM_SIZE = 4;
+
+    static final byte PLANT_FARM = 0;
+    static final byte ANIMAL_FARM = 1;
+
+    static final byte FED = 0x01;
+    static final byte COLLECTED = 0x02;
+
+    private BinaryGridFormat() {
+    }
+
+    /**
+     * Packs the status of an animal into a tile's flags.
+     * @param fed whether the animal has been fed
+     * @param collected whether the animal's product has been collected
+     * @return the flags of the tile
+     */
+    static byte flags(boolean fed, boolean collected) {
+        return (byte) ((fed ? FED : 0) | (collected ? COLLECTED : 0));
+    }
+
+    /**
+     * Writes the header of a file, leaving its position after the header.
+     * @param header the buffer to write to
+     * @param farmType the farm type code
+     * @param rows the number of rows
+     * @param columns the number of columns
+     * @param checksum the checksum of the file
+     */
+    static void writeHeader(ByteBuffer header, byte farmType, int rows, int columns,
+            int checksum) {
+        header.putInt(MAGIC).putShort(VERSION).put(farmType).put((byte) 0)
+                .putInt(rows).putInt(columns).putInt(checksum);
+    }
+}
@@ -0,0 +1,331 @@
+package farm.files;
+
+import farm.core.CustomerNotFoundException;
+import farm.core.DuplicateCustomerException;
+import farm.core.Farm;
+import farm.core.farmgrid.Grid;
+import farm.customer.AddressBook;
+import farm.customer.Customer;
+import farm.inventory.Inventory;
+import farm.inventory.PerishableInventory;
+import farm.inventory.product.ProductFactory;
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+import farm.sales.TransactionHistory;
+import farm.sales.transaction.CategorisedTransaction;
+import farm.sales.transaction.SpecialSaleTransaction;
+import farm.sales.transaction.Transaction;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * A farm checkpoint saved by {@link FarmCheckpointSaver}, opened for restoring.
+ * <p>
+ * Opening a checkpoint reads only its header and directory. Each section is read and checked
+ * against its checksum when it is first asked for, so the grid can be restored without reading
+ * the farm's history, and the history without reading the grid.
+ */
+public final class FarmCheckpoint {
+    private final String filename;
+    private final Map<Integer, Section> sections;
+
+    private FarmCheckpoint(String filename, Map<Integer, Section> sections) {
+        this.filename = filename;
+        this.sections = sections;
+    }
+
+    /**
+     * Opens a checkpoint, reading its directory of sections.
+     * @param filename the String filename to read contents from.
+     * @return the opened checkpoint
+     * @throws IOException if the file doesn't exist, is not a farm checkpoint, is of an
+     * unsupported version, or has a corrupt directory
+     */
+    public static FarmCheckpoint open(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+            ByteBuffer header = read(channel, 0, FarmCheckpointFormat.HEADER_SIZE, filename);
+            if (header.getInt() != FarmCheckpointFormat.MAGIC) {
+                throw new IOException("Not a farm checkpoint: " + filename);
+            }
+            short version = header.getShort();
+            if (version != FarmCheckpointFormat.VERSION) {
+                throw new IOException("Unsupported checkpoint version: " + version);
+            }
+            int count = header.getShort();
+            int expectedChecksum = header.getInt();
+            if (count < 0) {
+                throw new IOException("Checkpoint is truncated or corrupt: " + filename);
+            }
+            ByteBuffer directory = read(channel, FarmCheckpointFormat.HEADER_SIZE,
+                    count * FarmCheckpointFormat.ENTRY_SIZE, filename);
+            CRC32 checksum = new CRC32();
+            checksum.update(directory.array());
+            if ((int) checksum.getValue() != expectedChecksum) {
+                throw new IOException("Checkpoint checksum does not match: " + filename);
+            }
+
+            Map<Integer, Section> sections = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                int id = directory.getInt();
+                Section section = new Section(directory.getLong(), directory.getLong(),
+                        directory.getInt());
+                if (section.offset < 0 || section.length < 0
+                        || section.offset + section.length > channel.size()) {
+                    throw new IOException("Checkpoint is truncated or corrupt: " + filename);
+                }
+                sections.put(id, section);
+            }
+            return new FarmCheckpoint(filename, sections);
+        }
+    }
+
+    /**
+     * Determines whether the checkpoint holds a grid.
+     * @return true iff a grid was saved with the farm
+     */
+    public boolean hasGrid() {
+        return sections.containsKey(FarmCheckpointFormat.GRID);
+    }
+
+    /**
+     * Restores the grid saved with the farm.
+     * @return the restored grid, or null if no grid was saved
+     * @throws IOException if the grid section cannot be read or is corrupt
+     */
+    public Grid loadGrid() throws IOException {
+        Section section = sections.get(FarmCheckpointFormat.GRID);
+        if (section == null) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+            return new BinaryFileLoader().read(channel, section.offset,
+                    section.offset + section.length, filename);
+        }
+    }
+
+    /**
+     * Restores the saved stock into an inventory, along with how long ago each batch of stock
+     * was stocked.
+     * @param inventory the inventory to put the stock into, which should be empty
+     * @throws IOException if the stock section is missing, cannot be read or is corrupt
+     * @throws IllegalArgumentException if the stock was saved from a perishable inventory and
+     * the given inventory is not one, since it would lose the age of every batch
+     * @see Inventory#restoreStock(Barcode, Quality, int, int)
+     */
+    public void loadStock(Inventory inventory) throws IOException {
+        DataInputStream in = readSection(FarmCheckpointFormat.STOCK);
+        if (readInventory(in) instanceof PerishableInventory
+                && !(inventory instanceof PerishableInventory)) {
+            throw new IllegalArgumentException("Checkpoint holds perishable stock, which "
+                    + inventory.getClass().getSimpleName() + " cannot keep fresh.");
+        }
+        readStock(in, inventory);
+    }
+
+    /**
+     * Restores the saved address book.
+     * @return a new address book holding every saved customer, with empty carts
+     * @throws IOException if the customer section is missing, cannot be read or is corrupt
+     */
+    public AddressBook loadAddressBook() throws IOException {
+        DataInputStream in = readSection(FarmCheckpointFormat.CUSTOMERS);
+        AddressBook addressBook = new AddressBook();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            try {
+                addressBook.addCustomer(readCustomer(in));
+            } catch (DuplicateCustomerException e) {
+                throw new IOException("Duplicate customer in checkpoint: " + e.getMessage());
+            }
+        }
+        finish(in);
+        return addressBook;
+    }
+
+    /**
+     * Restores the saved record of past transactions.
+     * <p>
+     * Each transaction is associated with the matching customer in the given address book, or
+     * with a new customer if the address book has none.
+     * @param addressBook the address book to find the transactions' customers in
+     * @return a new record holding every saved transaction, finalised
+     * @throws IOException if the history section is missing, cannot be read or is corrupt
+     * @requires the carts of the customers in the address book are empty
+     */
+    public TransactionHistory loadHistory(AddressBook addressBook) throws IOException {
+        DataInputStream in = readSection(FarmCheckpointFormat.HISTORY);
+        TransactionHistory history = new TransactionHistory();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            byte kind = in.readByte();
+            Customer saved = readCustomer(in);
+            Customer customer;
+            try {
+                customer = addressBook.getCustomer(saved.getName(), saved.getPhoneNumber());
+            } catch (CustomerNotFoundException notInAddressBook) {
+                customer = saved;
+            }
+            int purchases = in.readInt();
+            if (purchases < 0) {
+                throw new IOException("Invalid transaction in checkpoint: " + filename);
+            }
+            for (int j = 0; j < purchases; j++) {
+                Barcode barcode = FarmCheckpointFormat.barcode(in.readByte());
+                customer.getCart().addProduct(ProductFactory.create(barcode,
+                        FarmCheckpointFormat.quality(in.readByte())));
+            }
+            Transaction transaction = switch (kind) {
+                case FarmCheckpointFormat.TRANSACTION -> new Transaction(customer);
+                case FarmCheckpointFormat.CATEGORISED_TRANSACTION ->
+                        new CategorisedTransaction(customer);
+                case FarmCheckpointFormat.SPECIAL_SALE_TRANSACTION ->
+                        new SpecialSaleTransaction(customer, readDiscounts(in));
+                default -> throw new IOException("Invalid transaction in checkpoint: "
+                        + filename);
+            };
+            transaction.finalise();
+            history.recordTransaction(transaction);
+        }
+        finish(in);
+        return history;
+    }
+
+    /**
+     * Restores the whole farm: its stock, address book and record of past transactions.
+     * <p>
+     * The stock is put into a new inventory of the same kind the farm was saved with, so a
+     * perishable farm keeps the shelf life of its products and the age of its stock. Farms whose
+     * inventory is kept in a file of its own are restored into a fancy inventory.
+     * @return a farm carrying on from the checkpoint
+     * @throws IOException if a section is missing, cannot be read or is corrupt
+     */
+    public Farm loadFarm() throws IOException {
+        AddressBook addressBook = loadAddressBook();
+        TransactionHistory history = loadHistory(addressBook);
+        DataInputStream in = readSection(FarmCheckpointFormat.STOCK);
+        Inventory inventory = readInventory(in);
+        readStock(in, inventory);
+        return new Farm(inventory, addressBook, history);
+    }
+
+    /**
+     * Restores the whole farm: its stock, address book and record of past transactions.
+     * @param inventory the inventory to put the stock into, which should be empty
+     * @return a farm carrying on from the checkpoint
+     * @throws IOException if a section is missing, cannot be read or is corrupt
+     * @throws IllegalArgumentException if the stock was saved from a perishable inventory and
+     * the given inventory is not one
+     * @see #loadStock(Inventory)
+     */
+    public Farm loadFarm(Inventory inventory) throws IOException {
+        AddressBook addressBook = loadAddressBook();
+        TransactionHistory history = loadHistory(addressBook);
+        loadStock(inventory);
+        return new Farm(inventory, addressBook, history);
+    }
+
+    /**
+     * reads the kind of inventory the stock was saved from, and creates an empty one
+     */
+    private Inventory readInventory(DataInputStream in) throws IOException {
+        byte kind = in.readByte();
+        Map<Barcode, Integer> shelfLife = new EnumMap<>(Barcode.class);
+        if (kind == FarmCheckpointFormat.PERISHABLE_INVENTORY) {
+            int count = in.readUnsignedByte();
+            for (int i = 0; i < count; i++) {
+                shelfLife.put(FarmCheckpointFormat.barcode(in.readByte()),
+                        in.readUnsignedShort());
+            }
+        }
+        return FarmCheckpointFormat.newInventory(kind, shelfLife);
+    }
+
+    /**
+     * reads the saved batches of stock into the inventory, up to the end of the section
+     */
+    private void readStock(DataInputStream in, Inventory inventory) throws IOException {
+        int code;
+        while ((code = in.readByte()) != FarmCheckpointFormat.END_OF_STOCK) {
+            Barcode barcode = FarmCheckpointFormat.barcode(code);
+            Quality quality = FarmCheckpointFormat.quality(in.readByte());
+            int quantity = in.readInt();
+            int age = in.readUnsignedShort();
+            if (quantity <= 0) {
+                throw new IOException("Invalid stock in checkpoint: " + filename);
+            }
+            inventory.restoreStock(barcode, quality, quantity, age);
+        }
+        finish(in);
+    }
+
+    private static Customer readCustomer(DataInputStream in) throws IOException {
+        String name = FarmCheckpointFormat.readString(in);
+        int phone = in.readInt();
+        return new Customer(name, phone, FarmCheckpointFormat.readString(in));
+    }
+
+    private static Map<Barcode, Integer> readDiscounts(DataInputStream in) throws IOException {
+        Map<Barcode, Integer> discounts = new EnumMap<>(Barcode.class);
+        int count = in.readUnsignedByte();
+        for (int i = 0; i < count; i++) {
+            discounts.put(FarmCheckpointFormat.barcode(in.readByte()), (int) in.readByte());
+        }
+        return discounts;
+    }
+
+    /**
+     * reads a whole section into memory and checks it against its checksum
+     */
+    private DataInputStream readSection(int id) throws IOException {
+        Section section = sections.get(id);
+        if (section == null || section.length > Integer.MAX_VALUE) {
+            throw new IOException("Checkpoint is missing a section: " + filename);
+        }
+        ByteBuffer bytes;
+        try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+            bytes = read(channel, section.offset, (int) section.length, filename);
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes.array());
+        if ((int) checksum.getValue() != section.checksum) {
+            throw new IOException("Checkpoint checksum does not match: " + filename);
+        }
+        return new DataInputStream(new ByteArrayInputStream(bytes.array()));
+    }
+
+    /**
+     * checks that a section was read to its end
+     */
+    private void finish(DataInputStream in) throws IOException {
+        if (in.available() != 0) {
+            throw new IOException("Checkpoint is truncated or corrupt: " + filename);
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length,
+            String filename) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Checkpoint is truncated or corrupt: " + filename);
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Where a section is in the file, and its checksum.
+     */
+    private record Section(long offset, long length, int checksum) {
+    }
+}
@@ -0,0 +1,182 @@
+package farm.files;
+
+import farm.inventory.BasicInventory;
+import farm.inventory.BucketedInventory;
+import farm.inventory.ConcurrentInventory;
+import farm.inventory.FancyInventory;
+import farm.inventory.IndexedInventory;
+import farm.inventory.Inventory;
+import farm.inventory.PerishableInventory;
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * The layout of a farm checkpoint file, shared by {@link FarmCheckpointSaver} and
+ * {@link FarmCheckpoint}.
+ * <p>
+ * A checkpoint is a header, a directory of sections and then the sections themselves, all
+ * big-endian:
+ * <pre>
+ * header:    magic "FCKP" (4) | version (2) | section count (2) | CRC-32 of directory (4)
+ * directory: section id (4) | offset (8) | length (8) | CRC-32 (4), per section
+ * </pre>
+ * The directory lets each section be found and checked on its own, so a section is only read
+ * when it is asked for. The sections are:
+ * <pre>
+ * GRID: a binary grid save, as written by {@link BinaryFileSaver}, checked by its own checksum
+ * STCK: inventory kind (1) | [shelf life count (1) | (barcode (1) | days (2))*]
+ *       | (barcode (1) | quality (1) | quantity (4) | age (2))* | end (1, always -1)
+ * CUST: customer count (4) | customer*
+ * HIST: transaction count (4) | (kind (1) | customer | purchase count (4)
+ *       | (barcode (1) | quality (1))* | [discount count (1) | (barcode (1) | percent (1))*])*
+ * customer: name | phone number (4) | address
+ * </pre>
+ * Strings are written as a presence flag followed by modified UTF-8, so null strings survive.
+ * Barcodes and qualities are their ordinals, with a quality of -1 for none. Ages and shelf lives
+ * are unsigned. The discounts are only present for special sale transactions. The shelf lives
+ * are only present for perishable inventories, and list only the product types which expire.
+ * Inventories kept in a file of their own are saved as fancy inventories, since their stock
+ * never has an age. The grid section is left out if there is no grid. Its directory entry always
+ * stores a checksum of 0, since the grid save carries its own CRC.
+ */
+final class FarmCheckpointFormat {
+    static final int MAGIC = 0x46434B50; // "FCKP"
+    static final short VERSION = 2;
+    static final int HEADER_SIZE = 12;
+    static final int ENTRY_SIZE = 24;
+
+    static final int GRID = 0x47524944; // "GRID"
+    static final int STOCK = 0x5354434B; // "STCK"
+    static final int CUSTOMERS = 0x43555354; // "CUST"
+    static final int HISTORY = 0x48495354; // "HIST"
+
+    static final byte END_OF_STOCK = -1;
+
+    static final byte FANCY_INVENTORY = 0;
+    static final byte BASIC_INVENTORY = 1;
+    static final byte BUCKETED_INVENTORY = 2;
+    static final byte CONCURRENT_INVENTORY = 3;
+    static final byte INDEXED_INVENTORY = 4;
+    static final byte PERISHABLE_INVENTORY = 5;
+
+    static final byte TRANSACTION = 0;
+    static final byte CATEGORISED_TRANSACTION = 1;
+    static final byte SPECIAL_SALE_TRANSACTION = 2;
+
+    private static final Barcode[] BARCODES = Barcode.values();
+    private static final Quality[] QUALITIES = Quality.values();
+
+    private FarmCheckpointFormat() {
+    }
+
+    /**
+     * Writes a string which may be null.
+     * @param out the output to write to
+     * @param value the string to write
+     * @throws IOException if the output cannot be written
+     */
+    static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutput, String)}.
+     * @param in the input to read from
+     * @return the string, which may be null
+     * @throws IOException if the input cannot be read
+     */
+    static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Encodes the kind of an inventory.
+     * @param inventory the inventory to encode
+     * @return the kind of the inventory, or {@link #FANCY_INVENTORY} for any other inventory
+     */
+    static byte inventoryKind(Inventory inventory) {
+        if (inventory instanceof PerishableInventory) {
+            return PERISHABLE_INVENTORY;
+        } else if (inventory instanceof BasicInventory) {
+            return BASIC_INVENTORY;
+        } else if (inventory instanceof BucketedInventory) {
+            return BUCKETED_INVENTORY;
+        } else if (inventory instanceof ConcurrentInventory) {
+            return CONCURRENT_INVENTORY;
+        } else if (inventory instanceof IndexedInventory) {
+            return INDEXED_INVENTORY;
+        }
+        return FANCY_INVENTORY;
+    }
+
+    /**
+     * Creates an empty inventory of a kind encoded by {@link #inventoryKind(Inventory)}.
+     * @param kind the encoded kind of inventory
+     * @param shelfLife the shelf life of each perishable product type, for perishable inventories
+     * @return the new inventory
+     * @throws IOException if the kind is not an inventory kind, or a shelf life is invalid
+     */
+    static Inventory newInventory(int kind, Map<Barcode, Integer> shelfLife) throws IOException {
+        return switch (kind) {
+            case FANCY_INVENTORY -> new FancyInventory();
+            case BASIC_INVENTORY -> new BasicInventory();
+            case BUCKETED_INVENTORY -> new BucketedInventory();
+            case CONCURRENT_INVENTORY -> new ConcurrentInventory();
+            case INDEXED_INVENTORY -> new IndexedInventory();
+            case PERISHABLE_INVENTORY -> {
+                try {
+                    yield new PerishableInventory(shelfLife);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Invalid shelf life in checkpoint: " + e.getMessage());
+                }
+            }
+            default -> throw new IOException("Invalid inventory kind in checkpoint: " + kind);
+        };
+    }
+
+    /**
+     * Decodes a barcode from its ordinal.
+     * @param code the ordinal of the barcode
+     * @return the barcode
+     * @throws IOException if the code is not a barcode
+     */
+    static Barcode barcode(int code) throws IOException {
+        if (code < 0 || code >= BARCODES.length) {
+            throw new IOException("Invalid product type in checkpoint: " + code);
+        }
+        return BARCODES[code];
+    }
+
+    /**
+     * Encodes a quality which may be null.
+     * @param quality the quality to encode
+     * @return the ordinal of the quality, or -1 for none
+     */
+    static byte qualityCode(Quality quality) {
+        return (byte) (quality == null ? -1 : quality.ordinal());
+    }
+
+    /**
+     * Decodes a quality encoded by {@link #qualityCode(Quality)}.
+     * @param code the encoded quality
+     * @return the quality, or null for none
+     * @throws IOException if the code is not a quality
+     */
+    static Quality quality(int code) throws IOException {
+        if (code == -1) {
+            return null;
+        }
+        if (code < 0 || code >= QUALITIES.length) {
+            throw new IOException("Invalid quality in checkpoint: " + code);
+        }
+        return QUALITIES[code];
+    }
+}
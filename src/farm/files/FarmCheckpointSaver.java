@@ -0,0 +1,207 @@
+package farm.files;
+
+import farm.core.Farm;
+import farm.core.farmgrid.Grid;
+import farm.customer.Customer;
+import farm.inventory.Inventory;
+import farm.inventory.PerishableInventory;
+import farm.inventory.product.Product;
+import farm.inventory.product.data.Barcode;
+import farm.sales.transaction.CategorisedTransaction;
+import farm.sales.transaction.SpecialSaleTransaction;
+import farm.sales.transaction.Transaction;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A class that saves a whole farm, along with its grid, into a checkpoint file in the format
+ * described by {@link FarmCheckpointFormat}.
+ * <p>
+ * The checkpoint holds the kind of inventory the farm uses and the stock in it, including how
+ * long ago perishable stock was stocked and how long it stays fresh, the customers in its
+ * address book and its record of past transactions, so restoring it with {@link FarmCheckpoint}
+ * needs no days replayed and no stock or customers entered again. Each section is streamed into
+ * the file and checksummed as it is written. The file is replaced by moving a complete new file
+ * over it, so an interrupted save leaves the previous checkpoint in place.
+ * <p>
+ * Any transaction still in progress, and the contents of customers' carts, are not saved.
+ */
+public class FarmCheckpointSaver {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // ages and shelf lives are written as unsigned shorts
+    private static final int MAX_DAYS = 0xFFFF;
+
+    private final BinaryFileSaver gridSaver = new BinaryFileSaver();
+
+    /**
+     * Saves a farm and its grid into a specified file, replacing any existing file.
+     * @param filename the String filename to write contents to.
+     * @param farm the farm to be saved.
+     * @param grid the farm's grid, or null if it has none
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if the grid is not a plant or animal farm, or holds a
+     * species that is not registered, or if a product's shelf life is longer than 65535 days
+     */
+    public void save(String filename, Farm farm, Grid grid) throws IOException {
+        Path path = Path.of(filename).toAbsolutePath();
+        Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(),
+                ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                int sections = grid == null ? 3 : 4;
+                ByteBuffer directory = ByteBuffer.allocate(
+                        sections * FarmCheckpointFormat.ENTRY_SIZE);
+                channel.position(FarmCheckpointFormat.HEADER_SIZE + directory.capacity());
+                if (grid != null) {
+                    long start = channel.position();
+                    gridSaver.write(channel, grid);
+                    directory.putInt(FarmCheckpointFormat.GRID).putLong(start)
+                            .putLong(channel.position() - start).putInt(0);
+                }
+                writeSection(channel, directory, FarmCheckpointFormat.STOCK,
+                        out -> writeStock(out, farm));
+                writeSection(channel, directory, FarmCheckpointFormat.CUSTOMERS,
+                        out -> writeCustomers(out, farm.getAllCustomers()));
+                writeSection(channel, directory, FarmCheckpointFormat.HISTORY,
+                        out -> writeHistory(out, farm.getTransactionHistory().getTransactions()));
+
+                CRC32 checksum = new CRC32();
+                checksum.update(directory.array());
+                ByteBuffer header = ByteBuffer.allocate(FarmCheckpointFormat.HEADER_SIZE)
+                        .putInt(FarmCheckpointFormat.MAGIC).putShort(FarmCheckpointFormat.VERSION)
+                        .putShort((short) sections).putInt((int) checksum.getValue());
+                ByteBuffer[] buffers = {header.flip(), directory.flip()};
+                channel.position(0);
+                while (directory.hasRemaining()) {
+                    channel.write(buffers);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * streams a section into the channel at its current position and adds it to the directory
+     */
+    private static void writeSection(FileChannel channel, ByteBuffer directory, int id,
+            SectionWriter writer) throws IOException {
+        long start = channel.position();
+        CRC32 checksum = new CRC32();
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new CheckedOutputStream(Channels.newOutputStream(channel), checksum),
+                BUFFER_SIZE));
+        writer.write(out);
+        // flushed rather than closed, which would close the channel
+        out.flush();
+        directory.putInt(id).putLong(start).putLong(channel.position() - start)
+                .putInt((int) checksum.getValue());
+    }
+
+    private static void writeStock(DataOutputStream out, Farm farm) throws IOException {
+        Inventory inventory = farm.getInventory();
+        byte kind = FarmCheckpointFormat.inventoryKind(inventory);
+        out.writeByte(kind);
+        if (kind == FarmCheckpointFormat.PERISHABLE_INVENTORY) {
+            PerishableInventory perishable = (PerishableInventory) inventory;
+            List<Barcode> perishables = Arrays.stream(Barcode.values())
+                    .filter(barcode -> perishable.getShelfLife(barcode) > 0).toList();
+            out.writeByte(perishables.size());
+            for (Barcode barcode : perishables) {
+                int shelfLife = perishable.getShelfLife(barcode);
+                if (shelfLife > MAX_DAYS) {
+                    throw new IllegalArgumentException("Shelf life of "
+                            + barcode.getDisplayName() + " is too long to checkpoint.");
+                }
+                out.writeByte(barcode.ordinal());
+                out.writeShort(shelfLife);
+            }
+        }
+        try {
+            farm.visitStock((barcode, quality, quantity, age) -> {
+                try {
+                    out.writeByte(barcode.ordinal());
+                    out.writeByte(FarmCheckpointFormat.qualityCode(quality));
+                    out.writeInt(quantity);
+                    out.writeShort(age);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.writeByte(FarmCheckpointFormat.END_OF_STOCK);
+    }
+
+    private static void writeCustomers(DataOutputStream out, List<Customer> customers)
+            throws IOException {
+        out.writeInt(customers.size());
+        for (Customer customer : customers) {
+            writeCustomer(out, customer);
+        }
+    }
+
+    private static void writeCustomer(DataOutputStream out, Customer customer)
+            throws IOException {
+        FarmCheckpointFormat.writeString(out, customer.getName());
+        out.writeInt(customer.getPhoneNumber());
+        FarmCheckpointFormat.writeString(out, customer.getAddress());
+    }
+
+    private static void writeHistory(DataOutputStream out, List<Transaction> transactions)
+            throws IOException {
+        out.writeInt(transactions.size());
+        for (Transaction transaction : transactions) {
+            if (transaction instanceof SpecialSaleTransaction) {
+                out.writeByte(FarmCheckpointFormat.SPECIAL_SALE_TRANSACTION);
+            } else if (transaction instanceof CategorisedTransaction) {
+                out.writeByte(FarmCheckpointFormat.CATEGORISED_TRANSACTION);
+            } else {
+                out.writeByte(FarmCheckpointFormat.TRANSACTION);
+            }
+            writeCustomer(out, transaction.getAssociatedCustomer());
+            List<Product> purchases = transaction.getPurchases();
+            out.writeInt(purchases.size());
+            for (Product product : purchases) {
+                out.writeByte(product.getBarcode().ordinal());
+                out.writeByte(FarmCheckpointFormat.qualityCode(product.getQuality()));
+            }
+            if (transaction instanceof SpecialSaleTransaction special) {
+                Map<Barcode, Integer> discounts = special.getDiscounts();
+                out.writeByte(discounts.size());
+                for (Barcode barcode : Barcode.values()) {
+                    if (discounts.containsKey(barcode)) {
+                        out.writeByte(barcode.ordinal());
+                        out.writeByte(discounts.get(barcode));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the contents of one section.
+     */
+    private interface SectionWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
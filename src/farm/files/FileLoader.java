@@ -2,17 +2,18 @@ package farm.files;
 
 import farm.core.farmgrid.FarmGrid;
 import farm.core.farmgrid.Grid;
+import farm.core.farmgrid.SpeciesRegistry;
 
 import java.io.BufferedReader;
-import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 
 /**
  * The class that loads a saved text file of the grid into a gird in the game
+ * <p>
+ * The stats are parsed one tile at a time and each tile is restored straight into the grid,
+ * including the stage of plants and the fed and collected status of animals, so loading takes
+ * no memory in proportion to the size of the file besides the grid itself.
  */
 public class FileLoader {
     /**
@@ -25,62 +26,110 @@ public class FileLoader {
      * Loads contents of the specified file into a Grid.
      * @param filename the String filename to read contents from.
      * @return a grid instance.
-     * @throws IOException if the file doesn't exist
+     * @throws IOException if the file doesn't exist or is malformed
      */
     public Grid load(String filename) throws IOException {
-        String farmType;
         try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
-            String line;
-            farmType = reader.readLine();
-            int rows = 0;
-            int columns = 0;
-            List<List<String>> info = new ArrayList<>();
-
-
-            if ((line = reader.readLine()) != null) {
-                rows = Integer.parseInt(line.split(": ")[1]);
+            String farmType = reader.readLine();
+            int rows = readDimension(reader.readLine());
+            int columns = readDimension(reader.readLine());
+            if (farmType == null) {
+                throw new IOException("Farm file is empty: " + filename);
             }
 
-            if ((line = reader.readLine()) != null) {
-                columns = Integer.parseInt(line.split(": ")[1]);
+            Grid grid = new FarmGrid(rows, columns, farmType);
+            TileRestorer restorer = new TileRestorer(grid);
+            int tiles = new StatsParser(reader).parse(restorer);
+            if (tiles != rows * columns) {
+                throw new IOException("Expected " + rows * columns + " tiles but found " + tiles);
             }
+            return grid;
+        }
+    }
 
-            if ((line = reader.readLine()) != null) {
-                int index = line.indexOf(": ");
-                String data = "";
-                if (index != -1) {
-                    data = line.substring(index + 2).trim();
-                }
+    private static int readDimension(String line) throws IOException {
+        if (line == null) {
+            throw new IOException("Farm file is missing its dimensions");
+        }
+        try {
+            return Integer.parseInt(line.substring(line.indexOf(": ") + 2));
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            throw new IOException("Invalid dimension: " + line, e);
+        }
+    }
 
-                if (!data.isEmpty()) {
-                    data = data.substring(2, data.length() - 2);
-                    String[] entries = data.split("], \\[");
+    /**
+     * Restores each parsed tile entry into a grid.
+     */
+    private static class TileRestorer implements StatsParser.EntryHandler {
+        private final Grid grid;
+        private final SpeciesRegistry registry = SpeciesRegistry.getDefault();
+        private String lastType = null;
+        private char lastSymbol;
 
-                    for (String entry : entries) {
-                        String[] attributes = entry.split(", ");
-                        List<String> itemInfo = new ArrayList<>();
-                        for (String attr : attributes) {
-                            itemInfo.add(attr.trim());
-                        }
-                        info.add(itemInfo);
-                    }
-                }
+        private TileRestorer(Grid grid) {
+            this.grid = grid;
+        }
+
+        @Override
+        public void entry(int index, StringBuilder[] fields, int count) throws IOException {
+            int columns = grid.getColumns();
+            if (columns == 0 || index >= grid.getRows() * columns) {
+                throw new IOException("Too many tiles for a " + grid.getRows() + "x" + columns
+                        + " farm");
+            }
+            int row = index / columns;
+            int column = index % columns;
+            if (count < 2 || "ground".contentEquals(fields[0])) {
+                return;
+            }
+            char symbol = symbolOf(fields[0]);
+            boolean restored = count == 3
+                    ? grid.restoreTile(row, column, symbol, stage(fields[2]), false, false)
+                    : grid.restoreTile(row, column, symbol, 0, isTrue(fields[2]),
+                    count > 3 && isTrue(fields[3]));
+            if (!restored) {
+                throw new IOException("Invalid tile at " + row + ", " + column + ": "
+                        + fields[0]);
             }
+        }
 
-            Grid grid = new FarmGrid(rows, columns, farmType);
-            int i = 0;
-            int j = 0;
-            for (List<String> tile : info) {
-                if (j == rows) {
-                    j = 0;
-                    i++;
+        /**
+         * finds the symbol the species is placed with, remembering the last one found
+         */
+        private char symbolOf(StringBuilder type) throws IOException {
+            if (lastType == null || !lastType.contentEquals(type)) {
+                String name = type.toString();
+                Character symbol = registry.findSymbol(name);
+                if (symbol == null) {
+                    throw new IOException("Unknown species: " + name);
                 }
-                if (!tile.getFirst().equals("ground")) {
-                    grid.place(i, j, tile.get(1).charAt(0));
+                lastType = name;
+                lastSymbol = symbol;
+            }
+            return lastSymbol;
+        }
+
+        private static int stage(StringBuilder field) throws IOException {
+            int stage = 0;
+            int digits = 0;
+            for (int i = field.indexOf(":") + 1; i < field.length(); i++) {
+                char c = field.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    stage = stage * 10 + (c - '0');
+                    digits++;
+                } else if (c != ' ' || digits > 0) {
+                    throw new IOException("Invalid stage: " + field);
                 }
-                j++;
             }
-            return grid;
+            if (digits == 0 || digits > 3) {
+                throw new IOException("Invalid stage: " + field);
+            }
+            return stage;
+        }
+
+        private static boolean isTrue(StringBuilder field) {
+            return field.length() >= 4 && field.lastIndexOf("true") == field.length() - 4;
         }
     }
 }
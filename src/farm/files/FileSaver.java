@@ -1,8 +1,12 @@
 package farm.files;
 
+import farm.core.farmgrid.FrozenGrid;
 import farm.core.farmgrid.Grid;
+import farm.core.farmgrid.TileVisitor;
 
 import java.io.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * A class that saves information from the gird into a text file to be stored
@@ -23,9 +27,92 @@ public class FileSaver {
             writer.newLine();
             writer.write("Columns: " + String.valueOf(grid.getColumns()));
             writer.newLine();
-            writer.write("Stats: " + grid.getStats().toString());
+            writer.write("Stats: [");
+            try {
+                grid.visitTiles(new StatsWriter(writer));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.write("]");
             writer.newLine();
             writer.flush();
         }
     }
+
+    /**
+     * Saves the contents of a grid into a specified file on the given executor, writing the
+     * grid as it stands when this is called while the grid itself keeps changing.
+     * @param filename the String filename to write contents to.
+     * @param grid the grid to be saved.
+     * @param executor the executor to write the file on
+     * @return a future completed once the file is written, or completed exceptionally with an
+     * {@link UncheckedIOException} if it cannot be written
+     */
+    public CompletableFuture<Void> saveInBackground(String filename, Grid grid,
+            Executor executor) {
+        Grid frozen = FrozenGrid.of(grid);
+        return CompletableFuture.runAsync(() -> {
+            try {
+                save(filename, frozen);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Writes each tile in the same form as the lists of {@link Grid#getStats()}, without
+     * building the lists.
+     */
+    private static class StatsWriter implements TileVisitor {
+        private final Writer writer;
+        private boolean first = true;
+
+        private StatsWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void visitGround(int row, int column) {
+            write("ground", " ");
+            end();
+        }
+
+        @Override
+        public void visitPlant(int row, int column, String type, String symbol, int stage) {
+            write(type, symbol);
+            append(", Stage: ");
+            append(Integer.toString(stage));
+            end();
+        }
+
+        @Override
+        public void visitAnimal(int row, int column, String type, String symbol, boolean fed,
+                boolean collected) {
+            write(type, symbol);
+            append(fed ? ", Fed: true" : ", Fed: false");
+            append(collected ? ", Collected: true" : ", Collected: false");
+            end();
+        }
+
+        private void write(String type, String symbol) {
+            append(first ? "[" : ", [");
+            first = false;
+            append(type);
+            append(", ");
+            append(symbol);
+        }
+
+        private void end() {
+            append("]");
+        }
+
+        private void append(String text) {
+            try {
+                writer.write(text);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
 }
@@ -0,0 +1,362 @@
+package farm.files;
+
+import farm.core.farmgrid.ChangeTracking;
+import farm.core.farmgrid.FrozenGrid;
+import farm.core.farmgrid.Grid;
+import farm.core.farmgrid.TileVisitor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+
+/**
+ * A class that saves a grid into one binary file again and again, writing only what changed
+ * since the last save.
+ * <p>
+ * The first save of a grid writes a base snapshot, exactly as {@link BinaryFileSaver} does.
+ * Later saves of a grid that implements {@link ChangeTracking} append a delta segment holding
+ * just the days ended and the tiles changed since the previous save, in the format described
+ * by {@link BinaryGridFormat}, so their cost grows with the number of changes rather than the
+ * size of the grid. {@link BinaryFileLoader} applies the segments on top of the base.
+ * <p>
+ * Saves can run in the background. The state to be written is captured when the save is
+ * requested, as the encoded delta segment or a {@link FrozenGrid}, so the grid can keep
+ * changing while the file is written. Saves are written in the order they were requested.
+ * <p>
+ * Once the segments grow too large, or hold too many days to replay, they are folded back into
+ * the base in the background: the file as it stood is loaded and saved to a new base, any
+ * segments appended in the meantime are copied after it, and the new file replaces the old
+ * one. Every file is replaced by moving a complete new file over it, so the file always holds
+ * a complete save.
+ */
+public class IncrementalFileSaver {
+    private static final int MAX_REPLAYED_DAYS = 32;
+
+    private final Path path;
+    private final Executor compactor;
+    private final BinaryFileSaver baseSaver = new BinaryFileSaver();
+
+    // guards the capture of saves, in the order they are requested
+    private final Object lock = new Object();
+    private volatile Grid savedGrid = null;
+    private int generation = 0;
+    private CompletableFuture<Void> pending = CompletableFuture.completedFuture(null);
+
+    // guards the file, as the captured saves are written
+    private final Object fileLock = new Object();
+    private volatile long length = 0;
+    private long baseSize = 0;
+    private int replayedDays = 0;
+    private int fileGeneration = 0;
+    private boolean compacting = false;
+
+    /**
+     * Creates a saver for the specified file, compacting it on the common fork-join pool.
+     * @param filename the String filename to write contents to.
+     */
+    public IncrementalFileSaver(String filename) {
+        this(filename, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a saver for the specified file.
+     * @param filename the String filename to write contents to.
+     * @param compactor the executor to fold delta segments back into the base with
+     */
+    public IncrementalFileSaver(String filename, Executor compactor) {
+        this.path = Path.of(filename).toAbsolutePath();
+        this.compactor = compactor;
+    }
+
+    /**
+     * Retrieves the file this saver writes to.
+     * @return the absolute path of the file
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Saves the contents of a grid into the file, waiting for any background saves requested
+     * earlier to be written first.
+     * @param grid the grid to be saved.
+     * @throws IOException if the file cannot be written, or an earlier save to it failed
+     * @throws IllegalArgumentException if the grid is not a plant or animal farm, or holds a
+     * species that is not registered
+     * @see #saveInBackground(Grid, Executor)
+     */
+    public void save(Grid grid) throws IOException {
+        try {
+            saveInBackground(grid, Runnable::run).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException unchecked) {
+                throw unchecked.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Captures the contents of a grid and writes them into the file on the given executor.
+     * <p>
+     * A base snapshot is written if this is the first save, the grid is not the one saved
+     * last, the grid does not track its changes, it has changed more than a base would take to
+     * write, or the file has been changed by something else. Otherwise only the changes since
+     * the last save are appended, and nothing is written if there are none.
+     * <p>
+     * Capturing the changes clears them from the grid, so the grid can be changed and saved
+     * again straight away. If a save fails, the next save of the grid writes a base.
+     * @param grid the grid to be saved.
+     * @param executor the executor to write the file on
+     * @return a future completed once the save is written, or completed exceptionally with an
+     * {@link UncheckedIOException} if it cannot be written
+     */
+    public CompletableFuture<Void> saveInBackground(Grid grid, Executor executor) {
+        synchronized (lock) {
+            Write write = capture(grid);
+            CompletableFuture<Void> save = pending.handle((result, failure) -> (Void) null)
+                    .thenRunAsync(() -> {
+                        try {
+                            write.run();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, executor);
+            pending = save;
+            return save;
+        }
+    }
+
+    /**
+     * captures what a save of the grid needs to write, clearing the grid's changes
+     */
+    private Write capture(Grid grid) {
+        if (grid == savedGrid && grid instanceof ChangeTracking tracking
+                && !(pending.isDone() && path.toFile().length() != length)) {
+            long baseBytes = (long) grid.getRows() * grid.getColumns()
+                    * BinaryGridFormat.TILE_SIZE;
+            if ((long) tracking.getChangedCount() * BinaryGridFormat.DELTA_TILE_SIZE
+                    <= baseBytes) {
+                int days = tracking.getEndedDays();
+                ByteBuffer segment = encodeDelta(tracking, grid.getColumns());
+                tracking.clearChanges();
+                int expected = generation;
+                return () -> appendDelta(segment, days, expected);
+            }
+        }
+        int base = ++generation;
+        savedGrid = grid;
+        FrozenGrid frozen = FrozenGrid.of(grid);
+        if (grid instanceof ChangeTracking tracking) {
+            tracking.clearChanges();
+        }
+        return () -> writeBase(frozen, base);
+    }
+
+    /**
+     * encodes the changes since the last save as a delta segment, or null if nothing changed
+     */
+    private static ByteBuffer encodeDelta(ChangeTracking tracking, int columns) {
+        int days = tracking.getEndedDays();
+        int count = tracking.getChangedCount();
+        if (days == 0 && count == 0) {
+            return null;
+        }
+        DeltaWriter writer = new DeltaWriter(columns, days, count);
+        tracking.visitChangedTiles(writer);
+        return writer.finish();
+    }
+
+    /**
+     * replaces the file with a base snapshot of the frozen grid
+     */
+    private void writeBase(FrozenGrid grid, int base) throws IOException {
+        synchronized (fileLock) {
+            Path temp = createTempFile();
+            try {
+                baseSaver.save(temp.toString(), grid);
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | RuntimeException e) {
+                failed();
+                throw e;
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            baseSize = path.toFile().length();
+            length = baseSize;
+            replayedDays = 0;
+            fileGeneration = base;
+        }
+    }
+
+    /**
+     * appends an encoded delta segment, cutting the file back if it cannot be written whole
+     */
+    private void appendDelta(ByteBuffer segment, int days, int expected) throws IOException {
+        synchronized (fileLock) {
+            if (fileGeneration != expected) {
+                throw new IOException("An earlier save to " + path + " failed");
+            }
+            if (segment == null) {
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                try {
+                    channel.position(length);
+                    while (segment.hasRemaining()) {
+                        channel.write(segment);
+                    }
+                    channel.force(false);
+                } catch (IOException e) {
+                    failed();
+                    channel.truncate(length);
+                    throw e;
+                }
+                length = channel.position();
+            }
+            replayedDays += days;
+            if (!compacting && (length - baseSize > baseSize / 2
+                    || replayedDays > MAX_REPLAYED_DAYS)) {
+                compacting = true;
+                long end = length;
+                int replayed = replayedDays;
+                compactor.execute(() -> compact(expected, end, replayed));
+            }
+        }
+    }
+
+    /**
+     * makes the next save of the grid write a base, and stops any saves captured since from
+     * appending to a file they no longer follow on from
+     */
+    private void failed() {
+        fileGeneration = -1;
+        savedGrid = null;
+    }
+
+    /**
+     * folds the first {@code end} bytes of the file into a new base, then swaps it in unless a
+     * base has been written since
+     */
+    private void compact(int expected, long end, int days) {
+        Path temp = null;
+        try {
+            Grid grid = new BinaryFileLoader().load(path.toString(), end);
+            temp = createTempFile();
+            baseSaver.save(temp.toString(), grid);
+            long newBaseSize = temp.toFile().length();
+            synchronized (fileLock) {
+                if (fileGeneration != expected) {
+                    return;
+                }
+                try (FileChannel source = FileChannel.open(path, StandardOpenOption.READ);
+                        FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    target.position(newBaseSize);
+                    long position = end;
+                    while (position < length) {
+                        position += source.transferTo(position, length - position, target);
+                    }
+                    target.force(false);
+                }
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                length = newBaseSize + length - end;
+                baseSize = newBaseSize;
+                replayedDays -= days;
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // the file is still a complete save, so compaction is simply tried again later
+        } finally {
+            synchronized (fileLock) {
+                compacting = false;
+            }
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // a stray temporary file does not affect the save
+                }
+            }
+        }
+    }
+
+    private Path createTempFile() throws IOException {
+        return Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+    }
+
+    /**
+     * A captured part of a save, written to the file later.
+     */
+    private interface Write {
+        void run() throws IOException;
+    }
+
+    /**
+     * Encodes a delta segment into memory, checksumming it once every changed tile is written.
+     */
+    private static class DeltaWriter implements TileVisitor {
+        private final int columns;
+        private final int count;
+        private final ByteBuffer buffer;
+        private final SpeciesSymbols symbols = new SpeciesSymbols();
+        private int written = 0;
+
+        private DeltaWriter(int columns, int days, int count) {
+            this.columns = columns;
+            this.count = count;
+            this.buffer = ByteBuffer.allocate(BinaryGridFormat.DELTA_HEADER_SIZE
+                    + count * BinaryGridFormat.DELTA_TILE_SIZE + BinaryGridFormat.CHECKSUM_SIZE);
+            buffer.putInt(BinaryGridFormat.DELTA_MAGIC).putInt(days).putInt(count);
+        }
+
+        private ByteBuffer finish() {
+            if (written != count) {
+                throw new IllegalStateException("Expected " + count + " changed tiles but "
+                        + written + " were visited");
+            }
+            CRC32 checksum = new CRC32();
+            checksum.update(buffer.array(), 0, buffer.position());
+            buffer.putInt((int) checksum.getValue());
+            return buffer.flip();
+        }
+
+        @Override
+        public void visitGround(int row, int column) {
+            write(row, column, (char) 0, 0, 0);
+        }
+
+        @Override
+        public void visitPlant(int row, int column, String type, String symbol, int stage) {
+            write(row, column, symbols.of(type), stage, 0);
+        }
+
+        @Override
+        public void visitAnimal(int row, int column, String type, String symbol, boolean fed,
+                boolean collected) {
+            write(row, column, symbols.of(type), 0, BinaryGridFormat.flags(fed, collected));
+        }
+
+        private void write(int row, int column, char symbol, int stage, int flags) {
+            if (stage < 0 || stage > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("Stage out of range: " + stage);
+            }
+            buffer.putInt(row * columns + column).putChar(symbol).put((byte) stage)
+                    .put((byte) flags);
+            written++;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package farm.files;
+
+import farm.core.farmgrid.SpeciesRegistry;
+
+/**
+ * Finds the symbol each species is placed with, for the binary savers.
+ * <p>
+ * Neighbouring tiles usually hold the same species, so the last symbol found is remembered
+ * rather than looking every tile up in the {@link SpeciesRegistry}.
+ */
+final class SpeciesSymbols {
+    private final SpeciesRegistry registry = SpeciesRegistry.getDefault();
+    private String lastType = null;
+    private char lastSymbol;
+
+    /**
+     * Finds the symbol a species is placed with.
+     * @param type the type of the species, as shown in the grid's stats
+     * @return the symbol the species is registered with
+     * @throws IllegalArgumentException if the species is not registered
+     */
+    char of(String type) {
+        if (!type.equals(lastType)) {
+            Character symbol = registry.findSymbol(type);
+            if (symbol == null) {
+                throw new IllegalArgumentException("Unknown species: " + type);
+            }
+            lastType = type;
+            lastSymbol = symbol;
+        }
+        return lastSymbol;
+    }
+}
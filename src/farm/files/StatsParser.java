@@ -0,0 +1,153 @@
+package farm.files;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads the tile entries of a text save file's stats, in the form written by
+ * {@link FileSaver}, one entry at a time.
+ * <p>
+ * The stats are read through a fixed-size buffer and each entry's fields are gathered into
+ * reused builders, so parsing takes the same memory however large the farm is.
+ */
+final class StatsParser {
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_FIELDS = 4;
+    private static final int MAX_FIELD_LENGTH = 64;
+
+    /**
+     * Receives each tile entry as it is parsed.
+     */
+    interface EntryHandler {
+
+        /**
+         * Handles a single tile entry.
+         * @param index the index of the entry, counting from 0
+         * @param fields the entry's fields, trimmed of surrounding whitespace; only valid until
+         * this method returns
+         * @param count the number of fields in the entry
+         * @throws IOException if the entry is invalid
+         */
+        void entry(int index, StringBuilder[] fields, int count) throws IOException;
+    }
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder[] fields = new StringBuilder[MAX_FIELDS];
+    private int position = 0;
+    private int limit = 0;
+
+    /**
+     * Creates a parser reading from the given reader, which should be positioned at the start
+     * of the stats line.
+     * @param reader the reader to parse
+     */
+    StatsParser(Reader reader) {
+        this.reader = reader;
+        for (int i = 0; i < MAX_FIELDS; i++) {
+            fields[i] = new StringBuilder(MAX_FIELD_LENGTH);
+        }
+    }
+
+    /**
+     * Parses a stats line of the form {@code Stats: [[a, b], [c, d, e]]}, passing each entry
+     * to a handler.
+     * @param handler the handler to pass each entry to
+     * @return the number of entries parsed
+     * @throws IOException if the stats cannot be read or are malformed
+     */
+    int parse(EntryHandler handler) throws IOException {
+        expect("Stats: [");
+        int next = read();
+        if (next == ']') {
+            return 0;
+        }
+        int entries = 0;
+        while (true) {
+            if (next != '[') {
+                throw malformed("'['", next);
+            }
+            handler.entry(entries++, fields, readFields());
+            next = read();
+            if (next == ']') {
+                return entries;
+            }
+            if (next != ',' || read() != ' ') {
+                throw malformed("', ' or ']'", next);
+            }
+            next = read();
+        }
+    }
+
+    /**
+     * reads the fields of an entry up to and including its closing bracket
+     * @return the number of fields read
+     */
+    private int readFields() throws IOException {
+        int count = 0;
+        while (true) {
+            if (count == MAX_FIELDS) {
+                throw new IOException("Malformed stats: too many fields in an entry");
+            }
+            StringBuilder field = fields[count++];
+            field.setLength(0);
+            int next = read();
+            while (next != ',' && next != ']') {
+                if (next < 0) {
+                    throw malformed("']'", next);
+                }
+                if (field.length() == MAX_FIELD_LENGTH) {
+                    throw new IOException("Malformed stats: field is too long");
+                }
+                field.append((char) next);
+                next = read();
+            }
+            trim(field);
+            if (next == ']') {
+                return count;
+            }
+            if (read() != ' ') {
+                throw malformed("' '", next);
+            }
+        }
+    }
+
+    private void expect(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            int next = read();
+            if (next != text.charAt(i)) {
+                throw malformed("'" + text + "'", next);
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, BUFFER_SIZE);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    private static void trim(StringBuilder field) {
+        int end = field.length();
+        while (end > 0 && Character.isWhitespace(field.charAt(end - 1))) {
+            end--;
+        }
+        int start = 0;
+        while (start < end && Character.isWhitespace(field.charAt(start))) {
+            start++;
+        }
+        field.setLength(end);
+        field.delete(0, start);
+    }
+
+    private static IOException malformed(String expected, int found) {
+        return new IOException("Malformed stats: expected " + expected + " but found "
+                + (found < 0 ? "end of file" : "'" + (char) found + "'"));
+    }
+}
@@ -2,13 +2,16 @@ package farm.inventory;
 
 import farm.core.FailedTransactionException;
 import farm.core.InvalidStockRequestException;
-import farm.inventory.product.*;
+import farm.inventory.product.Product;
+import farm.inventory.product.ProductFactory;
 import farm.inventory.product.data.Barcode;
 import farm.inventory.product.data.Quality;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * A very basic inventory that both stores and handles products individually.
@@ -22,7 +25,7 @@ public class BasicInventory implements Inventory {
 
     @Override
     public void addProduct(Barcode barcode, Quality quality) {
-        stockedProducts.add(createProduct(barcode, quality));
+        stockedProducts.add(ProductFactory.create(barcode, quality));
     }
 
 
@@ -84,14 +87,13 @@ public class BasicInventory implements Inventory {
         return new ArrayList<>(stockedProducts);
     }
 
-    private Product createProduct(Barcode barcode, Quality quality) {
-        return switch (barcode) {
-            case Barcode.EGG -> new Egg(quality);
-            case Barcode.MILK -> new Milk(quality);
-            case Barcode.JAM -> new Jam(quality);
-            case Barcode.WOOL -> new Wool(quality);
-            case Barcode.BREAD -> new Bread(quality);
-            case Barcode.COFFEE -> new Coffee(quality);
-        };
+    @Override
+    public Stream<Product> stream() {
+        return stockedProducts.stream();
+    }
+
+    @Override
+    public void forEach(Consumer<? super Product> action) {
+        stockedProducts.forEach(action);
     }
 }
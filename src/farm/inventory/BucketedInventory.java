@@ -0,0 +1,247 @@
+package farm.inventory;
+
+import farm.core.FailedTransactionException;
+import farm.core.InvalidStockRequestException;
+import farm.inventory.product.Product;
+import farm.inventory.product.ProductFactory;
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A fancy inventory which stores only how many products of each type and quality are stocked,
+ * rather than the products themselves.
+ * <p>
+ * Stock is kept as a table of counters indexed by {@link Barcode} and {@link Quality}, so memory
+ * use does not grow with the number of units in stock. Products are only created when they are
+ * handed out by {@link #removeProduct(Barcode)}, {@link #removeProduct(Barcode, int)} or
+ * {@link #getAllProducts()}.
+ * <p>
+ * Supports the same operations as a {@link FancyInventory}, removing the highest quality
+ * products first. Stock can also be reserved, which only moves counts around and is undone in
+ * constant time by releasing the reservation.
+ */
+public class BucketedInventory implements ReservableInventory {
+    private static final Quality[] QUALITIES = Quality.values();
+
+    private final int[][] stockedCounts = new int[Barcode.values().length][QUALITIES.length];
+    private final int[] totals = new int[Barcode.values().length];
+
+    @Override
+    public void addProduct(Barcode barcode, Quality quality) {
+        stock(barcode, quality, 1);
+    }
+
+    /**
+     * Adds multiple of the product with corresponding barcode to the inventory.
+     * @param barcode the barcode of the product to add.
+     * @param quality the quality of added product.
+     * @param quantity the amount of the product to add.
+     * @throws InvalidStockRequestException if the quantity is negative.
+     */
+    @Override
+    public void addProduct(Barcode barcode, Quality quality, int quantity)
+            throws InvalidStockRequestException {
+        if (quantity < 0) {
+            throw new InvalidStockRequestException("Cannot stock a negative quantity.");
+        }
+        stock(barcode, quality, quantity);
+    }
+
+    @Override
+    public boolean existsProduct(Barcode barcode) {
+        return barcode != null && totals[barcode.ordinal()] > 0;
+    }
+
+    /**
+     * Removes the highest quality product with corresponding barcode from the inventory.
+     * @param barcode The barcode of the product to be removed.
+     * @return A list containing the removed product if it exists, else an empty list.
+     */
+    @Override
+    public List<Product> removeProduct(Barcode barcode) {
+        if (!existsProduct(barcode)) {
+            return Collections.emptyList();
+        }
+        int[] counts = stockedCounts[barcode.ordinal()];
+        for (int q = QUALITIES.length - 1; q >= 0; q--) {
+            if (counts[q] > 0) {
+                counts[q]--;
+                totals[barcode.ordinal()]--;
+                return List.of(ProductFactory.create(barcode, QUALITIES[q]));
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Removes a given number of products with corresponding barcode from the inventory, choosing
+     * the highest quality products possible.
+     * <p>
+     * If there are not enough of a given product in the inventory it will return as many of said
+     * product as possible. i.e {@code removeProduct(Barcode.EGG, quantity).size() <= quantity}.
+     * @param barcode The barcode of the product to be removed.
+     * @param quantity The total amount of the product to remove from the inventory.
+     * @return A list containing the removed products, ordered from highest to lowest quality.
+     */
+    @Override
+    public List<Product> removeProduct(Barcode barcode, int quantity)
+            throws FailedTransactionException {
+        if (!existsProduct(barcode) || quantity <= 0) {
+            return Collections.emptyList();
+        }
+        int[] counts = stockedCounts[barcode.ordinal()];
+        int remaining = Math.min(quantity, totals[barcode.ordinal()]);
+        List<Product> removed = new ArrayList<>(remaining);
+        for (int q = QUALITIES.length - 1; q >= 0 && remaining > 0; q--) {
+            int taken = Math.min(counts[q], remaining);
+            counts[q] -= taken;
+            totals[barcode.ordinal()] -= taken;
+            remaining -= taken;
+            for (int i = 0; i < taken; i++) {
+                removed.add(ProductFactory.create(barcode, QUALITIES[q]));
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Retrieves the full stock currently held in the inventory.
+     * <p>
+     * The returned list is grouped by product type as per the order defined in {@link Barcode},
+     * and within each type ordered from highest to lowest quality (the order in which they would
+     * be removed).
+     * @return An organised list containing all products currently stored in the inventory.
+     */
+    @Override
+    public List<Product> getAllProducts() {
+        int size = 0;
+        for (int total : totals) {
+            size += total;
+        }
+        List<Product> allProducts = new ArrayList<>(size);
+        for (Barcode type : Barcode.values()) {
+            int[] counts = stockedCounts[type.ordinal()];
+            for (int q = QUALITIES.length - 1; q >= 0; q--) {
+                for (int i = 0; i < counts[q]; i++) {
+                    allProducts.add(ProductFactory.create(type, QUALITIES[q]));
+                }
+            }
+        }
+        return allProducts;
+    }
+
+    @Override
+    public List<Reservation> reserve(Barcode barcode, int quantity) {
+        if (!existsProduct(barcode) || quantity <= 0) {
+            return Collections.emptyList();
+        }
+        int[] counts = stockedCounts[barcode.ordinal()];
+        int remaining = quantity;
+        List<Reservation> reservations = new ArrayList<>();
+        for (int q = QUALITIES.length - 1; q >= 0 && remaining > 0; q--) {
+            int taken = Math.min(counts[q], remaining);
+            if (taken > 0) {
+                stock(barcode, QUALITIES[q], -taken);
+                remaining -= taken;
+                reservations.add(new Reservation(this, barcode, QUALITIES[q], taken));
+            }
+        }
+        return reservations;
+    }
+
+    @Override
+    public List<Product> commit(Reservation reservation) {
+        reservation.settle(this, Reservation.State.COMMITTED);
+        return new ArrayList<>(Collections.nCopies(reservation.getQuantity(),
+                ProductFactory.create(reservation.getBarcode(), reservation.getQuality())));
+    }
+
+    @Override
+    public void release(Reservation reservation) {
+        reservation.settle(this, Reservation.State.RELEASED);
+        stock(reservation.getBarcode(), reservation.getQuality(), reservation.getQuantity());
+    }
+
+    @Override
+    public Stream<Product> stream() {
+        return Arrays.stream(Barcode.values()).flatMap(type ->
+                IntStream.range(0, QUALITIES.length).map(q -> QUALITIES.length - 1 - q).boxed()
+                        .flatMap(q -> Collections.nCopies(stockedCounts[type.ordinal()][q],
+                                ProductFactory.create(type, QUALITIES[q])).stream()));
+    }
+
+    @Override
+    public void forEach(Consumer<? super Product> action) {
+        for (Barcode type : Barcode.values()) {
+            int[] counts = stockedCounts[type.ordinal()];
+            for (int q = QUALITIES.length - 1; q >= 0; q--) {
+                Product product = ProductFactory.create(type, QUALITIES[q]);
+                for (int i = 0; i < counts[q]; i++) {
+                    action.accept(product);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Map<Barcode, Integer> countByBarcode() {
+        Map<Barcode, Integer> counts = new EnumMap<>(Barcode.class);
+        for (Barcode type : Barcode.values()) {
+            if (totals[type.ordinal()] > 0) {
+                counts.put(type, totals[type.ordinal()]);
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<Quality, Integer> countByQuality(Barcode barcode) {
+        Map<Quality, Integer> counts = new EnumMap<>(Quality.class);
+        for (Quality quality : QUALITIES) {
+            if (stockedCounts[barcode.ordinal()][quality.ordinal()] > 0) {
+                counts.put(quality, stockedCounts[barcode.ordinal()][quality.ordinal()]);
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public long getStockValue() {
+        long total = 0;
+        for (Barcode type : Barcode.values()) {
+            total += (long) type.getBasePrice() * totals[type.ordinal()];
+        }
+        return total;
+    }
+
+    /**
+     * Get the quantity of a specific product in the inventory.
+     * @param barcode The barcode of the product.
+     * @return The amount of the corresponding product currently in the inventory.
+     */
+    public int getStockedQuantity(Barcode barcode) {
+        return totals[barcode.ordinal()];
+    }
+
+    /**
+     * Get the quantity of a specific product of a given quality in the inventory.
+     * @param barcode The barcode of the product.
+     * @param quality The quality of the product.
+     * @return The amount of the corresponding product and quality currently in the inventory.
+     */
+    public int getStockedQuantity(Barcode barcode, Quality quality) {
+        return stockedCounts[barcode.ordinal()][quality.ordinal()];
+    }
+
+    /** Private Helper Methods **/
+
+    private void stock(Barcode barcode, Quality quality, int quantity) {
+        stockedCounts[barcode.ordinal()][quality.ordinal()] += quantity;
+        totals[barcode.ordinal()] += quantity;
+    }
+}
@@ -0,0 +1,253 @@
+package farm.inventory;
+
+import farm.core.FailedTransactionException;
+import farm.core.InvalidStockRequestException;
+import farm.inventory.product.Product;
+import farm.inventory.product.ProductFactory;
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A thread-safe fancy inventory, allowing several checkout lanes to share a single farm.
+ * <p>
+ * Stock is kept as one atomic counter per {@link Barcode} and {@link Quality} pair, and every
+ * operation updates those counters with compare-and-set rather than taking a lock. The counters
+ * of each barcode are padded onto a cache line of their own, so threads stocking or buying
+ * different products never write to the same line, and two threads removing the same product
+ * can never both be handed the same unit.
+ * <p>
+ * Like a {@link FancyInventory}, the highest quality products are removed first. Since other
+ * threads may be adding and removing stock at the same time, {@link #getAllProducts()} is only a
+ * best-effort view of the stock at the time of the call.
+ */
+public class ConcurrentInventory implements ReservableInventory {
+    private static final Quality[] QUALITIES = Quality.values();
+    // ints between the first counters of neighbouring barcodes, a 64 byte cache line apart
+    private static final int STRIDE = 16;
+
+    // a stride of padding either side keeps the first and last barcodes off the lines shared
+    // with the array header and whatever is allocated after it
+    private final AtomicIntegerArray stockedCounts =
+            new AtomicIntegerArray((Barcode.values().length + 2) * STRIDE);
+
+    @Override
+    public void addProduct(Barcode barcode, Quality quality) {
+        stockedCounts.getAndIncrement(slot(barcode, quality));
+    }
+
+    /**
+     * Adds multiple of the product with corresponding barcode to the inventory.
+     * @param barcode the barcode of the product to add.
+     * @param quality the quality of added product.
+     * @param quantity the amount of the product to add.
+     * @throws InvalidStockRequestException if the quantity is negative.
+     */
+    @Override
+    public void addProduct(Barcode barcode, Quality quality, int quantity)
+            throws InvalidStockRequestException {
+        if (quantity < 0) {
+            throw new InvalidStockRequestException("Cannot stock a negative quantity.");
+        }
+        stockedCounts.getAndAdd(slot(barcode, quality), quantity);
+    }
+
+    @Override
+    public boolean existsProduct(Barcode barcode) {
+        return barcode != null && getStockedQuantity(barcode) > 0;
+    }
+
+    /**
+     * Removes the highest quality product with corresponding barcode from the inventory.
+     * @param barcode The barcode of the product to be removed.
+     * @return A list containing the removed product if it exists, else an empty list.
+     */
+    @Override
+    public List<Product> removeProduct(Barcode barcode) {
+        if (barcode == null) {
+            return Collections.emptyList();
+        }
+        for (int q = QUALITIES.length - 1; q >= 0; q--) {
+            if (take(slot(barcode, QUALITIES[q]), 1) == 1) {
+                return List.of(ProductFactory.create(barcode, QUALITIES[q]));
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Removes a given number of products with corresponding barcode from the inventory, choosing
+     * the highest quality products possible.
+     * <p>
+     * If there are not enough of a given product in the inventory it will return as many of said
+     * product as possible. i.e {@code removeProduct(Barcode.EGG, quantity).size() <= quantity}.
+     * @param barcode The barcode of the product to be removed.
+     * @param quantity The total amount of the product to remove from the inventory.
+     * @return A list containing the removed products, ordered from highest to lowest quality.
+     */
+    @Override
+    public List<Product> removeProduct(Barcode barcode, int quantity)
+            throws FailedTransactionException {
+        if (barcode == null || quantity <= 0) {
+            return Collections.emptyList();
+        }
+        List<Product> removed = new ArrayList<>();
+        int remaining = quantity;
+        for (int q = QUALITIES.length - 1; q >= 0 && remaining > 0; q--) {
+            int taken = take(slot(barcode, QUALITIES[q]), remaining);
+            remaining -= taken;
+            for (int i = 0; i < taken; i++) {
+                removed.add(ProductFactory.create(barcode, QUALITIES[q]));
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Retrieves the stock currently held in the inventory.
+     * <p>
+     * The returned list is grouped by product type as per the order defined in {@link Barcode},
+     * and within each type ordered from highest to lowest quality.
+     * @return An organised list containing all products currently stored in the inventory.
+     */
+    @Override
+    public List<Product> getAllProducts() {
+        List<Product> allProducts = new ArrayList<>();
+        for (Barcode type : Barcode.values()) {
+            for (int q = QUALITIES.length - 1; q >= 0; q--) {
+                int count = stockedCounts.get(slot(type, QUALITIES[q]));
+                for (int i = 0; i < count; i++) {
+                    allProducts.add(ProductFactory.create(type, QUALITIES[q]));
+                }
+            }
+        }
+        return allProducts;
+    }
+
+    @Override
+    public List<Reservation> reserve(Barcode barcode, int quantity) {
+        if (barcode == null || quantity <= 0) {
+            return Collections.emptyList();
+        }
+        List<Reservation> reservations = new ArrayList<>();
+        int remaining = quantity;
+        for (int q = QUALITIES.length - 1; q >= 0 && remaining > 0; q--) {
+            int taken = take(slot(barcode, QUALITIES[q]), remaining);
+            if (taken > 0) {
+                remaining -= taken;
+                reservations.add(new Reservation(this, barcode, QUALITIES[q], taken));
+            }
+        }
+        return reservations;
+    }
+
+    @Override
+    public List<Product> commit(Reservation reservation) {
+        reservation.settle(this, Reservation.State.COMMITTED);
+        return new ArrayList<>(Collections.nCopies(reservation.getQuantity(),
+                ProductFactory.create(reservation.getBarcode(), reservation.getQuality())));
+    }
+
+    @Override
+    public void release(Reservation reservation) {
+        reservation.settle(this, Reservation.State.RELEASED);
+        stockedCounts.getAndAdd(slot(reservation.getBarcode(), reservation.getQuality()),
+                reservation.getQuantity());
+    }
+
+    @Override
+    public Stream<Product> stream() {
+        return Arrays.stream(Barcode.values()).flatMap(type ->
+                IntStream.range(0, QUALITIES.length).map(q -> QUALITIES.length - 1 - q).boxed()
+                        .flatMap(q -> Collections.nCopies(
+                                stockedCounts.get(slot(type, QUALITIES[q])),
+                                ProductFactory.create(type, QUALITIES[q])).stream()));
+    }
+
+    @Override
+    public void forEach(Consumer<? super Product> action) {
+        for (Barcode type : Barcode.values()) {
+            for (int q = QUALITIES.length - 1; q >= 0; q--) {
+                Product product = ProductFactory.create(type, QUALITIES[q]);
+                int count = stockedCounts.get(slot(type, QUALITIES[q]));
+                for (int i = 0; i < count; i++) {
+                    action.accept(product);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Map<Barcode, Integer> countByBarcode() {
+        Map<Barcode, Integer> counts = new EnumMap<>(Barcode.class);
+        for (Barcode type : Barcode.values()) {
+            int count = getStockedQuantity(type);
+            if (count > 0) {
+                counts.put(type, count);
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<Quality, Integer> countByQuality(Barcode barcode) {
+        Map<Quality, Integer> counts = new EnumMap<>(Quality.class);
+        for (Quality quality : QUALITIES) {
+            int count = stockedCounts.get(slot(barcode, quality));
+            if (count > 0) {
+                counts.put(quality, count);
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public long getStockValue() {
+        long total = 0;
+        for (Barcode type : Barcode.values()) {
+            total += (long) type.getBasePrice() * getStockedQuantity(type);
+        }
+        return total;
+    }
+
+    /**
+     * Get the quantity of a specific product in the inventory.
+     * @param barcode The barcode of the product.
+     * @return The amount of the corresponding product currently in the inventory.
+     */
+    public int getStockedQuantity(Barcode barcode) {
+        int total = 0;
+        for (Quality quality : QUALITIES) {
+            total += stockedCounts.get(slot(barcode, quality));
+        }
+        return total;
+    }
+
+    /** Private Helper Methods **/
+
+    private static int slot(Barcode barcode, Quality quality) {
+        return (barcode.ordinal() + 1) * STRIDE + quality.ordinal();
+    }
+
+    /**
+     * Atomically takes up to the requested amount from a single counter.
+     * @return the amount actually taken, between 0 and requested.
+     */
+    private int take(int slot, int requested) {
+        while (true) {
+            int current = stockedCounts.get(slot);
+            if (current == 0) {
+                return 0;
+            }
+            int taken = Math.min(current, requested);
+            if (stockedCounts.compareAndSet(slot, current, current - taken)) {
+                return taken;
+            }
+        }
+    }
+}
@@ -2,11 +2,13 @@ package farm.inventory;
 
 import farm.core.FailedTransactionException;
 import farm.core.InvalidStockRequestException;
-import farm.inventory.product.*;
+import farm.inventory.product.Product;
+import farm.inventory.product.ProductFactory;
 import farm.inventory.product.data.Barcode;
 import farm.inventory.product.data.Quality;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * A fancy inventory which stores products in stacks, enabling quantity information.
@@ -107,6 +109,23 @@ public class FancyInventory implements Inventory {
         return allProducts;
     }
 
+    @Override
+    public Stream<Product> stream() {
+        return Arrays.stream(Barcode.values()).flatMap(type ->
+                stockedProducts.getOrDefault(type, Collections.emptyList()).stream());
+    }
+
+    @Override
+    public Map<Barcode, Integer> countByBarcode() {
+        Map<Barcode, Integer> counts = new EnumMap<>(Barcode.class);
+        for (Barcode type : Barcode.values()) {
+            if (existsProduct(type)) {
+                counts.put(type, getStockedQuantity(type));
+            }
+        }
+        return counts;
+    }
+
     /**
      * Get the quantity of a specific product in the inventory.
      * @param barcode The barcode of the product.
@@ -119,20 +138,7 @@ public class FancyInventory implements Inventory {
     /** Private Helper Methods **/
 
     private List<Product> createProducts(Barcode barcode, Quality quality, int quantity) {
-        List<Product> products = new ArrayList<>(quantity);
-        for (int i = 0; i < quantity; i++) {
-            products.addLast(
-                    switch (barcode) {
-                        case Barcode.EGG -> new Egg(quality);
-                        case Barcode.MILK -> new Milk(quality);
-                        case Barcode.JAM -> new Jam(quality);
-                        case Barcode.WOOL -> new Wool(quality);
-                        case Barcode.BREAD -> new Bread(quality);
-                        case Barcode.COFFEE -> new Coffee(quality);
-                    }
-            );
-        }
-        return products;
+        return Collections.nCopies(quantity, ProductFactory.create(barcode, quality));
     }
 
     private Product getHighestQualityProduct(List<Product> products) {
@@ -0,0 +1,169 @@
+package farm.inventory;
+
+import farm.core.FailedTransactionException;
+import farm.core.InvalidStockRequestException;
+import farm.inventory.product.Product;
+import farm.inventory.product.ProductFactory;
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A basic inventory which indexes its products by barcode.
+ * <p>
+ * Behaves exactly like a {@link BasicInventory}: products are handled one at a time, the first
+ * product stocked with a barcode is the first one removed, and {@link #getAllProducts()} lists
+ * products in the order they were added. Products are kept in a first-in-first-out queue per
+ * barcode, so checking for and removing a product no longer scans the whole inventory.
+ */
+public class IndexedInventory implements Inventory {
+    private final List<ArrayDeque<Stocked>> stockedProducts = new ArrayList<>();
+    private long nextSequence = 0;
+    private int size = 0;
+
+    /**
+     * A product, along with its position in the order products were added to the inventory.
+     */
+    private record Stocked(long sequence, Product product) {
+    }
+
+    /**
+     * Creates a new empty indexed inventory.
+     */
+    public IndexedInventory() {
+        for (int i = 0; i < Barcode.values().length; i++) {
+            stockedProducts.add(new ArrayDeque<>());
+        }
+    }
+
+    @Override
+    public void addProduct(Barcode barcode, Quality quality) {
+        Product product = ProductFactory.create(barcode, quality);
+        stockedProducts.get(barcode.ordinal()).addLast(new Stocked(nextSequence++, product));
+        size++;
+    }
+
+    /**
+     * Throws an {@link InvalidStockRequestException} with the message:
+     * <p>
+     * <pre style="color:#00CC00">"Current inventory is not fancy enough. Please supply products one at a time."</pre>
+     * <p>
+     * @param barcode the product type to add to the inventory.
+     * @param quality the quality of the product to add to the inventory.
+     * @param quantity the number of products to add to the inventory.
+     * @throws InvalidStockRequestException always, since indexed inventories never support quantities > 1.
+     */
+    @Override
+    public void addProduct(Barcode barcode, Quality quality, int quantity)
+            throws InvalidStockRequestException {
+        throw new InvalidStockRequestException("Current inventory is not fancy enough. "
+                + "Please supply products one at a time.");
+    }
+
+    @Override
+    public boolean existsProduct(Barcode barcode) {
+        return barcode != null && !stockedProducts.get(barcode.ordinal()).isEmpty();
+    }
+
+    @Override
+    public List<Product> removeProduct(Barcode barcode) {
+        if (!existsProduct(barcode)) {
+            return Collections.emptyList();
+        }
+        size--;
+        return List.of(stockedProducts.get(barcode.ordinal()).pollFirst().product());
+    }
+
+    /**
+     * Throws an {@link FailedTransactionException} with the message:
+     * <p>
+     * <pre style="color:#00CC00">"Current inventory is not fancy enough. Please purchase products one at a time."</pre>
+     * <p>
+     * @param barcode the product type to add to the inventory.
+     * @throws FailedTransactionException always, since indexed inventories never support quantities > 1.
+     */
+    @Override
+    public List<Product> removeProduct(Barcode barcode, int quantity)
+            throws FailedTransactionException {
+        throw new FailedTransactionException("Current inventory is not fancy enough. "
+                + "Please purchase products one at a time.");
+    }
+
+    /**
+     * Retrieves the full stock currently held in the inventory, in the order it was added.
+     * @return A list containing all products currently stored in the inventory.
+     */
+    @Override
+    public List<Product> getAllProducts() {
+        List<Product> allProducts = new ArrayList<>(size);
+        new InsertionOrderIterator().forEachRemaining(allProducts::add);
+        return allProducts;
+    }
+
+    @Override
+    public Stream<Product> stream() {
+        return StreamSupport.stream(Spliterators.spliterator(new InsertionOrderIterator(), size,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public Map<Barcode, Integer> countByBarcode() {
+        Map<Barcode, Integer> counts = new EnumMap<>(Barcode.class);
+        for (Barcode type : Barcode.values()) {
+            if (existsProduct(type)) {
+                counts.put(type, stockedProducts.get(type.ordinal()).size());
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Walks the per-barcode queues together, always taking the oldest product at their heads,
+     * so that products come out in the order they were added to the inventory.
+     */
+    private class InsertionOrderIterator implements Iterator<Product> {
+        private final List<Iterator<Stocked>> queues = new ArrayList<>();
+        private final Stocked[] heads = new Stocked[stockedProducts.size()];
+
+        private InsertionOrderIterator() {
+            for (int i = 0; i < heads.length; i++) {
+                queues.add(stockedProducts.get(i).iterator());
+                advance(i);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            for (Stocked head : heads) {
+                if (head != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Product next() {
+            int oldest = -1;
+            for (int i = 0; i < heads.length; i++) {
+                if (heads[i] != null
+                        && (oldest == -1 || heads[i].sequence() < heads[oldest].sequence())) {
+                    oldest = i;
+                }
+            }
+            if (oldest == -1) {
+                throw new NoSuchElementException();
+            }
+            Product product = heads[oldest].product();
+            advance(oldest);
+            return product;
+        }
+
+        private void advance(int queue) {
+            heads[queue] = queues.get(queue).hasNext() ? queues.get(queue).next() : null;
+        }
+    }
+}
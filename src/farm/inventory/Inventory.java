@@ -6,7 +6,11 @@ import farm.inventory.product.Product;
 import farm.inventory.product.data.Barcode;
 import farm.inventory.product.data.Quality;
 
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * An interface representing the base requirements for an Inventory.
@@ -65,4 +69,112 @@ public interface Inventory {
      * @return A list containing all products currently stored in the inventory.
      */
     List<Product> getAllProducts();
+
+    /**
+     * Streams the stock currently held in the inventory, in the same order as
+     * {@link #getAllProducts()}, without first copying it into a list.
+     * <p>
+     * The stream must be consumed before the inventory is next modified.
+     * @return A stream over all products currently stored in the inventory.
+     */
+    default Stream<Product> stream() {
+        return getAllProducts().stream();
+    }
+
+    /**
+     * Performs the given action for each product currently stored in the inventory, in the same
+     * order as {@link #getAllProducts()}.
+     * @param action The action to perform on each product.
+     * @requires the action does not modify the inventory.
+     */
+    default void forEach(Consumer<? super Product> action) {
+        stream().forEach(action);
+    }
+
+    /**
+     * Counts how many products of each type are currently stored in the inventory.
+     * @return A mapping from each product type in stock to the number of products of that type.
+     * Types that are not in stock are not included.
+     */
+    default Map<Barcode, Integer> countByBarcode() {
+        Map<Barcode, Integer> counts = new EnumMap<>(Barcode.class);
+        forEach(product -> counts.merge(product.getBarcode(), 1, Integer::sum));
+        return counts;
+    }
+
+    /**
+     * Counts how many products of the given type are currently stored in the inventory at each
+     * quality level.
+     * @param barcode The product type to count.
+     * @return A mapping from each quality level in stock to the number of products of the given
+     * type at that quality. Quality levels that are not in stock are not included.
+     */
+    default Map<Quality, Integer> countByQuality(Barcode barcode) {
+        Map<Quality, Integer> counts = new EnumMap<>(Quality.class);
+        forEach(product -> {
+            if (product.getBarcode() == barcode && product.getQuality() != null) {
+                counts.merge(product.getQuality(), 1, Integer::sum);
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * Passes the stock currently held in the inventory to a visitor, in batches of identical
+     * products in the same order as {@link #getAllProducts()}.
+     * <p>
+     * Along with {@link #restoreStock(Barcode, Quality, int, int)}, this allows the stock to be
+     * saved and put back into an empty inventory in the same order.
+     * @param visitor the visitor to pass each batch to
+     * @requires the visitor does not modify the inventory.
+     */
+    default void visitStock(StockVisitor visitor) {
+        Product[] batch = new Product[1];
+        int[] quantity = new int[1];
+        forEach(product -> {
+            if (batch[0] != null && (batch[0].getBarcode() != product.getBarcode()
+                    || batch[0].getQuality() != product.getQuality())) {
+                visitor.visitStock(batch[0].getBarcode(), batch[0].getQuality(), quantity[0], 0);
+                quantity[0] = 0;
+            }
+            batch[0] = product;
+            quantity[0]++;
+        });
+        if (batch[0] != null) {
+            visitor.visitStock(batch[0].getBarcode(), batch[0].getQuality(), quantity[0], 0);
+        }
+    }
+
+    /**
+     * Puts a batch of saved stock back into the inventory, as though it had been stocked the
+     * given number of days ago.
+     * <p>
+     * Inventories which do not track how fresh their stock is ignore the age, and add the
+     * products one at a time if they cannot add several at once.
+     * @param barcode the type of the products
+     * @param quality the quality of the products
+     * @param quantity the number of products to add
+     * @param age the number of days since the products were stocked
+     */
+    default void restoreStock(Barcode barcode, Quality quality, int quantity, int age) {
+        try {
+            addProduct(barcode, quality, quantity);
+        } catch (InvalidStockRequestException notFancy) {
+            for (int i = 0; i < quantity; i++) {
+                addProduct(barcode, quality);
+            }
+        }
+    }
+
+    /**
+     * Calculates the total base price of all products currently stored in the inventory.
+     * @return the value of all stock in the inventory, in cents.
+     */
+    default long getStockValue() {
+        long total = 0;
+        for (Map.Entry<Barcode, Integer> entry : countByBarcode().entrySet()) {
+            total += (long) entry.getKey().getBasePrice() * entry.getValue();
+        }
+        return total;
+    }
 }
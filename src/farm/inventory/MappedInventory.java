@@ -0,0 +1,257 @@
+package farm.inventory;
+
+import farm.core.FailedTransactionException;
+import farm.core.InvalidStockRequestException;
+import farm.inventory.product.Product;
+import farm.inventory.product.ProductFactory;
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A fancy inventory whose stock counts live in a memory-mapped file rather than on the heap.
+ * <p>
+ * The file holds a short header followed by one counter slot per {@link Barcode} and
+ * {@link Quality}. Every product of a given type and quality is identical, so the counters are
+ * all that needs storing; products are only created when they are handed out. Updates go
+ * straight into the mapping, which the operating system writes back to the file, so reopening
+ * the same file picks up the stock where it was left without a separate load step. Call
+ * {@link #flush()} to force the counts to disk, for example before a planned shutdown.
+ * <p>
+ * Supports the same operations as a {@link FancyInventory}, removing the highest quality
+ * products first.
+ */
+public class MappedInventory implements Inventory, Closeable {
+    private static final Barcode[] BARCODES = Barcode.values();
+    private static final Quality[] QUALITIES = Quality.values();
+
+    private static final int MAGIC = 0x46494E56; // "FINV"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int FILE_SIZE = HEADER_SIZE
+            + BARCODES.length * QUALITIES.length * Integer.BYTES;
+
+    private final MappedByteBuffer ledger;
+
+    /**
+     * Opens the stock ledger held in the given file, creating an empty one if the file does not
+     * exist.
+     * @param file the file holding the stock counts.
+     * @throws IOException if the file cannot be opened or mapped, or does not hold a ledger.
+     */
+    public MappedInventory(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long existing = channel.size();
+            if (existing != 0 && existing != FILE_SIZE) {
+                throw new IOException("Not a stock ledger: " + file);
+            }
+            ledger = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+        }
+        if (ledger.getInt(0) == 0) {
+            ledger.putInt(0, MAGIC).putInt(4, VERSION)
+                    .putInt(8, BARCODES.length).putInt(12, QUALITIES.length);
+        } else if (ledger.getInt(0) != MAGIC || ledger.getInt(4) != VERSION
+                || ledger.getInt(8) != BARCODES.length || ledger.getInt(12) != QUALITIES.length) {
+            throw new IOException("Unsupported stock ledger: " + file);
+        }
+    }
+
+    @Override
+    public void addProduct(Barcode barcode, Quality quality) {
+        stock(barcode, quality, 1);
+    }
+
+    /**
+     * Adds multiple of the product with corresponding barcode to the inventory.
+     * @param barcode the barcode of the product to add.
+     * @param quality the quality of added product.
+     * @param quantity the amount of the product to add.
+     * @throws InvalidStockRequestException if the quantity is negative.
+     */
+    @Override
+    public void addProduct(Barcode barcode, Quality quality, int quantity)
+            throws InvalidStockRequestException {
+        if (quantity < 0) {
+            throw new InvalidStockRequestException("Cannot stock a negative quantity.");
+        }
+        stock(barcode, quality, quantity);
+    }
+
+    @Override
+    public boolean existsProduct(Barcode barcode) {
+        return barcode != null && getStockedQuantity(barcode) > 0;
+    }
+
+    /**
+     * Removes the highest quality product with corresponding barcode from the inventory.
+     * @param barcode The barcode of the product to be removed.
+     * @return A list containing the removed product if it exists, else an empty list.
+     */
+    @Override
+    public List<Product> removeProduct(Barcode barcode) {
+        if (barcode == null) {
+            return Collections.emptyList();
+        }
+        for (int q = QUALITIES.length - 1; q >= 0; q--) {
+            if (count(barcode, q) > 0) {
+                stock(barcode, QUALITIES[q], -1);
+                return List.of(ProductFactory.create(barcode, QUALITIES[q]));
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Removes a given number of products with corresponding barcode from the inventory, choosing
+     * the highest quality products possible.
+     * <p>
+     * If there are not enough of a given product in the inventory it will return as many of said
+     * product as possible. i.e {@code removeProduct(Barcode.EGG, quantity).size() <= quantity}.
+     * @param barcode The barcode of the product to be removed.
+     * @param quantity The total amount of the product to remove from the inventory.
+     * @return A list containing the removed products, ordered from highest to lowest quality.
+     */
+    @Override
+    public List<Product> removeProduct(Barcode barcode, int quantity)
+            throws FailedTransactionException {
+        if (!existsProduct(barcode) || quantity <= 0) {
+            return Collections.emptyList();
+        }
+        int remaining = Math.min(quantity, getStockedQuantity(barcode));
+        List<Product> removed = new ArrayList<>(remaining);
+        for (int q = QUALITIES.length - 1; q >= 0 && remaining > 0; q--) {
+            int taken = Math.min(count(barcode, q), remaining);
+            if (taken > 0) {
+                stock(barcode, QUALITIES[q], -taken);
+                remaining -= taken;
+                removed.addAll(Collections.nCopies(taken,
+                        ProductFactory.create(barcode, QUALITIES[q])));
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Retrieves the full stock currently held in the inventory.
+     * <p>
+     * The returned list is grouped by product type as per the order defined in {@link Barcode},
+     * and within each type ordered from highest to lowest quality.
+     * @return An organised list containing all products currently stored in the inventory.
+     */
+    @Override
+    public List<Product> getAllProducts() {
+        List<Product> allProducts = new ArrayList<>();
+        forEach(allProducts::add);
+        return allProducts;
+    }
+
+    @Override
+    public Stream<Product> stream() {
+        return Arrays.stream(BARCODES).flatMap(type ->
+                IntStream.range(0, QUALITIES.length).map(q -> QUALITIES.length - 1 - q).boxed()
+                        .flatMap(q -> Collections.nCopies(count(type, q),
+                                ProductFactory.create(type, QUALITIES[q])).stream()));
+    }
+
+    @Override
+    public void forEach(Consumer<? super Product> action) {
+        for (Barcode type : BARCODES) {
+            for (int q = QUALITIES.length - 1; q >= 0; q--) {
+                Product product = ProductFactory.create(type, QUALITIES[q]);
+                for (int i = count(type, q); i > 0; i--) {
+                    action.accept(product);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Map<Barcode, Integer> countByBarcode() {
+        Map<Barcode, Integer> counts = new EnumMap<>(Barcode.class);
+        for (Barcode type : BARCODES) {
+            int total = getStockedQuantity(type);
+            if (total > 0) {
+                counts.put(type, total);
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<Quality, Integer> countByQuality(Barcode barcode) {
+        Map<Quality, Integer> counts = new EnumMap<>(Quality.class);
+        for (Quality quality : QUALITIES) {
+            int count = count(barcode, quality.ordinal());
+            if (count > 0) {
+                counts.put(quality, count);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Get the quantity of a specific product in the inventory.
+     * @param barcode The barcode of the product.
+     * @return The amount of the corresponding product currently in the inventory.
+     */
+    public int getStockedQuantity(Barcode barcode) {
+        int total = 0;
+        for (int q = 0; q < QUALITIES.length; q++) {
+            total += count(barcode, q);
+        }
+        return total;
+    }
+
+    /**
+     * Get the quantity of a specific product of a given quality in the inventory.
+     * @param barcode The barcode of the product.
+     * @param quality The quality of the product.
+     * @return The amount of the corresponding product and quality currently in the inventory.
+     */
+    public int getStockedQuantity(Barcode barcode, Quality quality) {
+        return count(barcode, quality.ordinal());
+    }
+
+    /**
+     * Forces any changes to the stock counts out to the underlying file.
+     */
+    public void flush() {
+        ledger.force();
+    }
+
+    /**
+     * Forces any changes to the stock counts out to the underlying file. The mapping itself is
+     * released once the inventory is garbage collected; the inventory must not be used after it
+     * has been closed.
+     */
+    @Override
+    public void close() {
+        flush();
+    }
+
+    /** Private Helper Methods **/
+
+    private static int offset(Barcode barcode, int quality) {
+        return HEADER_SIZE + (barcode.ordinal() * QUALITIES.length + quality) * Integer.BYTES;
+    }
+
+    private int count(Barcode barcode, int quality) {
+        return ledger.getInt(offset(barcode, quality));
+    }
+
+    private void stock(Barcode barcode, Quality quality, int quantity) {
+        int offset = offset(barcode, quality.ordinal());
+        ledger.putInt(offset, ledger.getInt(offset) + quantity);
+    }
+}
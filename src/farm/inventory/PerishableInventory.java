@@ -0,0 +1,365 @@
+package farm.inventory;
+
+import farm.core.FailedTransactionException;
+import farm.core.InvalidStockRequestException;
+import farm.inventory.product.Product;
+import farm.inventory.product.ProductFactory;
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A fancy inventory which tracks how fresh its stock is, and throws out perishable products
+ * once they have been stocked for longer than their shelf life.
+ * <p>
+ * Perishable stock is counted per {@link Barcode} and {@link Quality} in buckets, one for each
+ * day on which it was stocked. The buckets form a timing wheel with one slot per day of the
+ * longest shelf life, so the bucket for a new day reuses the slot of one that has already
+ * expired. Ending the day with {@link #advanceDay()} empties only the buckets which have reached
+ * the end of their shelf life, and so costs the same however many units are in stock.
+ * <p>
+ * Removes the highest quality products first, like a {@link FancyInventory}, and the oldest
+ * stock of that quality before fresher stock. Products without a shelf life never expire.
+ */
+public class PerishableInventory implements Inventory {
+    /**
+     * The number of days each product type stays fresh in a default perishable inventory.
+     * Product types not listed never expire.
+     */
+    public static final Map<Barcode, Integer> DEFAULT_SHELF_LIFE = Collections.unmodifiableMap(
+            new EnumMap<>(Map.of(Barcode.EGG, 7, Barcode.MILK, 5, Barcode.BREAD, 3)));
+
+    private static final Barcode[] BARCODES = Barcode.values();
+    private static final Quality[] QUALITIES = Quality.values();
+
+    private final int[] shelfLife = new int[BARCODES.length];
+    private final int[][][] wheel;
+    private final int[][] durableCounts = new int[BARCODES.length][QUALITIES.length];
+    private final int[][] stockedCounts = new int[BARCODES.length][QUALITIES.length];
+    private final int[] totals = new int[BARCODES.length];
+    private int day = 0;
+
+    /**
+     * Creates an empty inventory using the {@link #DEFAULT_SHELF_LIFE} of each product type.
+     */
+    public PerishableInventory() {
+        this(DEFAULT_SHELF_LIFE);
+    }
+
+    /**
+     * Creates an empty inventory in which products expire after the given number of days.
+     * @param shelfLife the number of days each perishable product type stays fresh. Product
+     * types not included never expire.
+     * @throws IllegalArgumentException if any shelf life is less than one day.
+     */
+    public PerishableInventory(Map<Barcode, Integer> shelfLife) {
+        int longest = 1;
+        for (Map.Entry<Barcode, Integer> entry : shelfLife.entrySet()) {
+            if (entry.getValue() < 1) {
+                throw new IllegalArgumentException("Shelf life of "
+                        + entry.getKey().getDisplayName() + " must be at least one day.");
+            }
+            this.shelfLife[entry.getKey().ordinal()] = entry.getValue();
+            longest = Math.max(longest, entry.getValue());
+        }
+        this.wheel = new int[longest][BARCODES.length][QUALITIES.length];
+    }
+
+    @Override
+    public void addProduct(Barcode barcode, Quality quality) {
+        stock(barcode, quality, 1);
+    }
+
+    /**
+     * Adds multiple of the product with corresponding barcode to the inventory, stocked today.
+     * @param barcode the barcode of the product to add.
+     * @param quality the quality of added product.
+     * @param quantity the amount of the product to add.
+     * @throws InvalidStockRequestException if the quantity is negative.
+     */
+    @Override
+    public void addProduct(Barcode barcode, Quality quality, int quantity)
+            throws InvalidStockRequestException {
+        if (quantity < 0) {
+            throw new InvalidStockRequestException("Cannot stock a negative quantity.");
+        }
+        stock(barcode, quality, quantity);
+    }
+
+    @Override
+    public boolean existsProduct(Barcode barcode) {
+        return barcode != null && totals[barcode.ordinal()] > 0;
+    }
+
+    /**
+     * Removes the highest quality product with corresponding barcode from the inventory, taking
+     * the oldest stock first.
+     * @param barcode The barcode of the product to be removed.
+     * @return A list containing the removed product if it exists, else an empty list.
+     */
+    @Override
+    public List<Product> removeProduct(Barcode barcode) {
+        if (!existsProduct(barcode)) {
+            return Collections.emptyList();
+        }
+        for (int q = QUALITIES.length - 1; q >= 0; q--) {
+            if (take(barcode, q, 1) > 0) {
+                return List.of(ProductFactory.create(barcode, QUALITIES[q]));
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Removes a given number of products with corresponding barcode from the inventory, choosing
+     * the highest quality products possible and taking the oldest stock of each quality first.
+     * <p>
+     * If there are not enough of a given product in the inventory it will return as many of said
+     * product as possible. i.e {@code removeProduct(Barcode.EGG, quantity).size() <= quantity}.
+     * @param barcode The barcode of the product to be removed.
+     * @param quantity The total amount of the product to remove from the inventory.
+     * @return A list containing the removed products, ordered from highest to lowest quality.
+     */
+    @Override
+    public List<Product> removeProduct(Barcode barcode, int quantity)
+            throws FailedTransactionException {
+        if (!existsProduct(barcode) || quantity <= 0) {
+            return Collections.emptyList();
+        }
+        int remaining = Math.min(quantity, totals[barcode.ordinal()]);
+        List<Product> removed = new ArrayList<>(remaining);
+        for (int q = QUALITIES.length - 1; q >= 0 && remaining > 0; q--) {
+            int taken = take(barcode, q, remaining);
+            remaining -= taken;
+            removed.addAll(Collections.nCopies(taken, ProductFactory.create(barcode, QUALITIES[q])));
+        }
+        return removed;
+    }
+
+    /**
+     * Retrieves the full stock currently held in the inventory.
+     * <p>
+     * The returned list is grouped by product type as per the order defined in {@link Barcode},
+     * and within each type ordered from highest to lowest quality.
+     * @return An organised list containing all products currently stored in the inventory.
+     */
+    @Override
+    public List<Product> getAllProducts() {
+        List<Product> allProducts = new ArrayList<>();
+        forEach(allProducts::add);
+        return allProducts;
+    }
+
+    @Override
+    public Stream<Product> stream() {
+        return Arrays.stream(BARCODES).flatMap(type ->
+                IntStream.range(0, QUALITIES.length).map(q -> QUALITIES.length - 1 - q).boxed()
+                        .flatMap(q -> Collections.nCopies(stockedCounts[type.ordinal()][q],
+                                ProductFactory.create(type, QUALITIES[q])).stream()));
+    }
+
+    @Override
+    public void forEach(Consumer<? super Product> action) {
+        for (Barcode type : BARCODES) {
+            int[] counts = stockedCounts[type.ordinal()];
+            for (int q = QUALITIES.length - 1; q >= 0; q--) {
+                Product product = ProductFactory.create(type, QUALITIES[q]);
+                for (int i = 0; i < counts[q]; i++) {
+                    action.accept(product);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Map<Barcode, Integer> countByBarcode() {
+        Map<Barcode, Integer> counts = new EnumMap<>(Barcode.class);
+        for (Barcode type : BARCODES) {
+            if (totals[type.ordinal()] > 0) {
+                counts.put(type, totals[type.ordinal()]);
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<Quality, Integer> countByQuality(Barcode barcode) {
+        Map<Quality, Integer> counts = new EnumMap<>(Quality.class);
+        for (Quality quality : QUALITIES) {
+            if (stockedCounts[barcode.ordinal()][quality.ordinal()] > 0) {
+                counts.put(quality, stockedCounts[barcode.ordinal()][quality.ordinal()]);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Passes the stock to a visitor in batches, each holding the products of one type and
+     * quality stocked on the same day.
+     * <p>
+     * Batches are grouped by product type in {@link Barcode} order, then from highest to lowest
+     * quality, then from oldest to freshest. Products which never expire are reported with an
+     * age of 0.
+     * @param visitor the visitor to pass each batch to
+     */
+    @Override
+    public void visitStock(StockVisitor visitor) {
+        for (Barcode type : BARCODES) {
+            int b = type.ordinal();
+            int life = shelfLife[b];
+            for (int q = QUALITIES.length - 1; q >= 0; q--) {
+                if (stockedCounts[b][q] == 0) {
+                    continue;
+                }
+                if (life == 0) {
+                    visitor.visitStock(type, QUALITIES[q], durableCounts[b][q], 0);
+                    continue;
+                }
+                for (int age = life - 1; age >= 0; age--) {
+                    int quantity = wheel[slot(day - age)][b][q];
+                    if (quantity > 0) {
+                        visitor.visitStock(type, QUALITIES[q], quantity, age);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Puts a batch of saved stock back into the inventory, as though it had been stocked the
+     * given number of days ago. Stock which would already have reached the end of its shelf
+     * life is thrown out rather than added.
+     * @param barcode the type of the products
+     * @param quality the quality of the products
+     * @param quantity the number of products to add
+     * @param age the number of days since the products were stocked
+     * @throws IllegalArgumentException if the quantity or age is negative
+     */
+    @Override
+    public void restoreStock(Barcode barcode, Quality quality, int quantity, int age) {
+        if (quantity < 0 || age < 0) {
+            throw new IllegalArgumentException("Cannot restore a negative quantity or age.");
+        }
+        int life = shelfLife[barcode.ordinal()];
+        if (life == 0) {
+            stock(barcode, quality, quantity);
+        } else if (age < life) {
+            wheel[slot(day - age)][barcode.ordinal()][quality.ordinal()] += quantity;
+            stockedCounts[barcode.ordinal()][quality.ordinal()] += quantity;
+            totals[barcode.ordinal()] += quantity;
+        }
+    }
+
+    /**
+     * Ends the current day, throwing out all stock which has reached the end of its shelf life.
+     * <p>
+     * Products stocked on a given day with a shelf life of {@code n} days are available for
+     * {@code n} days, and expire when the {@code n}th day ends.
+     * @return the number of units which expired.
+     */
+    public int advanceDay() {
+        day++;
+        int expired = 0;
+        for (Barcode type : BARCODES) {
+            int life = shelfLife[type.ordinal()];
+            if (life == 0) {
+                continue;
+            }
+            int[] bucket = wheel[slot(day - life)][type.ordinal()];
+            for (int q = 0; q < QUALITIES.length; q++) {
+                expired += bucket[q];
+                stockedCounts[type.ordinal()][q] -= bucket[q];
+                totals[type.ordinal()] -= bucket[q];
+                bucket[q] = 0;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Retrieves the number of days which have ended since the inventory was created.
+     * @return the current day.
+     */
+    public int getDay() {
+        return day;
+    }
+
+    /**
+     * Retrieves how long products of the given type stay fresh.
+     * @param barcode The barcode of the product.
+     * @return the shelf life in days, or 0 if the product never expires.
+     */
+    public int getShelfLife(Barcode barcode) {
+        return shelfLife[barcode.ordinal()];
+    }
+
+    /**
+     * Get the quantity of a specific product in the inventory.
+     * @param barcode The barcode of the product.
+     * @return The amount of the corresponding product currently in the inventory.
+     */
+    public int getStockedQuantity(Barcode barcode) {
+        return totals[barcode.ordinal()];
+    }
+
+    /**
+     * Get the quantity of a specific product which will expire when the current day ends.
+     * @param barcode The barcode of the product.
+     * @return The amount of the corresponding product on its last day of shelf life.
+     */
+    public int getExpiringQuantity(Barcode barcode) {
+        int life = shelfLife[barcode.ordinal()];
+        if (life == 0) {
+            return 0;
+        }
+        int expiring = 0;
+        for (int count : wheel[slot(day + 1 - life)][barcode.ordinal()]) {
+            expiring += count;
+        }
+        return expiring;
+    }
+
+    /** Private Helper Methods **/
+
+    private void stock(Barcode barcode, Quality quality, int quantity) {
+        int[][] bucket = shelfLife[barcode.ordinal()] == 0 ? durableCounts : wheel[slot(day)];
+        bucket[barcode.ordinal()][quality.ordinal()] += quantity;
+        stockedCounts[barcode.ordinal()][quality.ordinal()] += quantity;
+        totals[barcode.ordinal()] += quantity;
+    }
+
+    /**
+     * Takes up to the given number of units of one quality, oldest first.
+     * @return the number of units taken.
+     */
+    private int take(Barcode barcode, int quality, int quantity) {
+        int b = barcode.ordinal();
+        int taken = Math.min(quantity, stockedCounts[b][quality]);
+        if (taken == 0) {
+            return 0;
+        }
+        int life = shelfLife[b];
+        if (life == 0) {
+            durableCounts[b][quality] -= taken;
+        } else {
+            int remaining = taken;
+            for (int d = day - life + 1; d <= day && remaining > 0; d++) {
+                int[] bucket = wheel[slot(d)][b];
+                int fromBucket = Math.min(bucket[quality], remaining);
+                bucket[quality] -= fromBucket;
+                remaining -= fromBucket;
+            }
+        }
+        stockedCounts[b][quality] -= taken;
+        totals[b] -= taken;
+        return taken;
+    }
+
+    private int slot(int stockedDay) {
+        return Math.floorMod(stockedDay, wheel.length);
+    }
+}
@@ -0,0 +1,45 @@
+package farm.inventory;
+
+import farm.inventory.product.Product;
+import farm.inventory.product.data.Barcode;
+
+import java.util.List;
+
+/**
+ * An inventory which can set stock aside for a customer without handing it out.
+ * <p>
+ * Reserving stock removes it from what is available to everyone else, in the same order that
+ * {@link #removeProduct(Barcode, int)} would. The reservation can later be committed, turning
+ * it into products, or released, returning the stock to the inventory.
+ */
+public interface ReservableInventory extends Inventory {
+
+    /**
+     * Reserves up to the given number of products with corresponding barcode, choosing the
+     * highest quality products possible.
+     * <p>
+     * If there are not enough of a given product in the inventory it will reserve as many as
+     * possible. The returned reservations each cover a single quality level.
+     * @param barcode The barcode of the products to reserve.
+     * @param quantity The total amount of the product to reserve.
+     * @return The reservations made, which is empty if nothing could be reserved.
+     */
+    List<Reservation> reserve(Barcode barcode, int quantity);
+
+    /**
+     * Hands out the products held by a pending reservation.
+     * @param reservation A reservation made by this inventory.
+     * @return A list containing the reserved products.
+     * @throws IllegalArgumentException if the reservation was not made by this inventory.
+     * @throws IllegalStateException if the reservation has already been committed or released.
+     */
+    List<Product> commit(Reservation reservation);
+
+    /**
+     * Returns the stock held by a pending reservation to the inventory.
+     * @param reservation A reservation made by this inventory.
+     * @throws IllegalArgumentException if the reservation was not made by this inventory.
+     * @throws IllegalStateException if the reservation has already been committed or released.
+     */
+    void release(Reservation reservation);
+}
@@ -0,0 +1,118 @@
+package farm.inventory;
+
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A hold placed on some quantity of stock of a single type and quality.
+ * <p>
+ * Reserved stock is no longer available to other customers, but has not yet been handed out as
+ * products. A reservation starts out pending, and is then either committed (the stock is sold)
+ * or released (the stock is returned to the inventory) exactly once.
+ * @see ReservableInventory
+ */
+public final class Reservation {
+    /**
+     * The stages a reservation passes through.
+     */
+    public enum State {
+        PENDING,
+        COMMITTED,
+        RELEASED
+    }
+
+    private final ReservableInventory source;
+    private final Barcode barcode;
+    private final Quality quality;
+    private final int quantity;
+    private final long reservedAt;
+    private final AtomicReference<State> state = new AtomicReference<>(State.PENDING);
+
+    /**
+     * Creates a pending reservation for stock held by the given inventory.
+     * @param source the inventory holding the reserved stock.
+     * @param barcode the type of the reserved stock.
+     * @param quality the quality of the reserved stock.
+     * @param quantity the number of products reserved.
+     */
+    Reservation(ReservableInventory source, Barcode barcode, Quality quality, int quantity) {
+        this.source = source;
+        this.barcode = barcode;
+        this.quality = quality;
+        this.quantity = quantity;
+        this.reservedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Retrieves the type of the reserved stock.
+     * @return the barcode of the reserved products.
+     */
+    public Barcode getBarcode() {
+        return barcode;
+    }
+
+    /**
+     * Retrieves the quality of the reserved stock.
+     * @return the quality of the reserved products.
+     */
+    public Quality getQuality() {
+        return quality;
+    }
+
+    /**
+     * Retrieves the number of products held by this reservation.
+     * @return the reserved quantity.
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Retrieves the time at which the stock was reserved.
+     * @return the reservation time, in milliseconds since the epoch.
+     */
+    public long getReservedAt() {
+        return reservedAt;
+    }
+
+    /**
+     * Retrieves the current stage of the reservation.
+     * @return the reservation's state.
+     */
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * Determines whether the reservation is still holding stock.
+     * @return true iff the reservation has been neither committed nor released.
+     */
+    public boolean isPending() {
+        return state.get() == State.PENDING;
+    }
+
+    /**
+     * Moves a pending reservation into its final state.
+     * @param inventory the inventory settling the reservation.
+     * @param outcome the state to move to.
+     * @throws IllegalArgumentException if the reservation was not made by the given inventory.
+     * @throws IllegalStateException if the reservation has already been committed or released.
+     */
+    void settle(ReservableInventory inventory, State outcome) {
+        if (inventory != source) {
+            throw new IllegalArgumentException("Reservation was not made by this inventory.");
+        }
+        if (!state.compareAndSet(State.PENDING, outcome)) {
+            throw new IllegalStateException("Reservation has already been "
+                    + state.get().toString().toLowerCase() + ".");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s x%d *%s* (%s)", barcode.getDisplayName(), quantity, quality,
+                state.get());
+    }
+}
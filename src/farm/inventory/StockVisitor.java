@@ -0,0 +1,22 @@
+package farm.inventory;
+
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+
+/**
+ * Receives the stock of an inventory in batches of identical products.
+ * @see Inventory#visitStock(StockVisitor)
+ */
+@FunctionalInterface
+public interface StockVisitor {
+
+    /**
+     * Visits a batch of identical products.
+     * @param barcode the type of the products
+     * @param quality the quality of the products
+     * @param quantity the number of products in the batch, which is at least one
+     * @param age the number of days since the products were stocked, or 0 if the inventory
+     * does not track how fresh its stock is
+     */
+    void visitStock(Barcode barcode, Quality quality, int quantity, int age);
+}
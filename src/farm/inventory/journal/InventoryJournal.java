@@ -0,0 +1,266 @@
+package farm.inventory.journal;
+
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * The on-disk files behind a {@link JournaledInventory}: an append-only journal of stock
+ * changes and a compact snapshot of stock counts.
+ * <p>
+ * The journal starts with a header holding its generation number, followed by fixed-width
+ * records of {@code op, barcode, quality, padding, quantity, crc32}. Records are buffered and
+ * written to disk in groups, with one {@code fsync} per group. A snapshot holds the count of
+ * every barcode and quality, along with the generation of the journal that follows it. Taking a
+ * snapshot starts a new, empty journal generation, so recovery only ever replays the records
+ * written since the last snapshot.
+ */
+class InventoryJournal implements Closeable {
+    static final String JOURNAL_FILE = "inventory.journal";
+    static final String SNAPSHOT_FILE = "inventory.snapshot";
+
+    static final byte ADD = 1;
+    static final byte REMOVE = 2;
+
+    private static final int JOURNAL_MAGIC = 0x464A524E; // "FJRN"
+    private static final int SNAPSHOT_MAGIC = 0x46534E50; // "FSNP"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 12;
+
+    private static final Barcode[] BARCODES = Barcode.values();
+    private static final Quality[] QUALITIES = Quality.values();
+
+    private final Path journalPath;
+    private final Path snapshotPath;
+    private final int groupSize;
+    private final ByteBuffer pending;
+    private final CRC32 crc = new CRC32();
+    private FileChannel journal;
+    private long generation;
+    private int pendingRecords = 0;
+
+    /**
+     * Opens the journal in the given directory, recovering the stock counts it holds.
+     * @param directory the directory holding the journal and snapshot files.
+     * @param groupSize the number of records to buffer before writing them to disk.
+     * @param counts table to fill with the recovered count of each barcode and quality.
+     * @throws IOException if the files cannot be read or created.
+     */
+    InventoryJournal(Path directory, int groupSize, long[][] counts) throws IOException {
+        Files.createDirectories(directory);
+        this.journalPath = directory.resolve(JOURNAL_FILE);
+        this.snapshotPath = directory.resolve(SNAPSHOT_FILE);
+        this.groupSize = groupSize;
+        this.pending = ByteBuffer.allocate(groupSize * RECORD_SIZE);
+
+        generation = readSnapshot(counts);
+        journal = FileChannel.open(journalPath, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long end = replay(counts);
+        if (end < 0) {
+            startGeneration(generation);
+        } else {
+            // drop any record torn by a crash part way through a write
+            journal.truncate(end);
+            journal.position(end);
+        }
+    }
+
+    /**
+     * Appends a record to the journal, writing the current group to disk if it is full.
+     * @param op either {@link #ADD} or {@link #REMOVE}.
+     * @param barcode the type of product changed.
+     * @param quality the quality of product changed.
+     * @param quantity the number of products added or removed.
+     * @throws IOException if the group could not be written.
+     */
+    void append(byte op, Barcode barcode, Quality quality, int quantity) throws IOException {
+        int start = pending.position();
+        pending.put(op).put((byte) barcode.ordinal()).put((byte) quality.ordinal()).put((byte) 0)
+                .putInt(quantity);
+        crc.reset();
+        crc.update(pending.array(), start, RECORD_SIZE - 4);
+        pending.putInt((int) crc.getValue());
+        if (++pendingRecords == groupSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes all buffered records to disk and waits for them to become durable.
+     * @throws IOException if the records could not be written.
+     */
+    void flush() throws IOException {
+        if (pendingRecords == 0) {
+            return;
+        }
+        pending.flip();
+        while (pending.hasRemaining()) {
+            journal.write(pending);
+        }
+        pending.clear();
+        pendingRecords = 0;
+        journal.force(false);
+    }
+
+    /**
+     * Replaces the snapshot with the given counts and starts a new, empty journal generation.
+     * @param counts the count of every barcode and quality.
+     * @throws IOException if the snapshot could not be written.
+     */
+    void snapshot(long[][] counts) throws IOException {
+        flush();
+        long next = generation + 1;
+        ByteBuffer buffer = ByteBuffer.allocate(
+                16 + BARCODES.length * QUALITIES.length * Long.BYTES + 4);
+        buffer.putInt(SNAPSHOT_MAGIC).putInt(VERSION).putLong(next);
+        for (long[] row : counts) {
+            for (long count : row) {
+                buffer.putLong(count);
+            }
+        }
+        crc.reset();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path temp = snapshotPath.resolveSibling(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+        Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        startGeneration(next);
+    }
+
+    /**
+     * Retrieves the number of bytes currently held in the journal file.
+     * @return the size of the journal on disk.
+     * @throws IOException if the size could not be read.
+     */
+    long size() throws IOException {
+        return journal.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            journal.close();
+        }
+    }
+
+    /**
+     * Truncates the journal and writes a header for the given generation.
+     */
+    private void startGeneration(long next) throws IOException {
+        journal.truncate(0);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(JOURNAL_MAGIC).putInt(VERSION).putLong(next).flip();
+        journal.position(0);
+        while (header.hasRemaining()) {
+            journal.write(header);
+        }
+        journal.force(false);
+        generation = next;
+    }
+
+    /**
+     * Loads the snapshot into the counts table, if there is one.
+     * @return the generation of the journal that follows the snapshot.
+     */
+    private long readSnapshot(long[][] counts) throws IOException {
+        if (!Files.exists(snapshotPath)) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(snapshotPath));
+        int bodySize = 16 + BARCODES.length * QUALITIES.length * Long.BYTES;
+        if (buffer.remaining() != bodySize + 4 || buffer.getInt() != SNAPSHOT_MAGIC
+                || buffer.getInt() != VERSION) {
+            throw new IOException("Unrecognised inventory snapshot: " + snapshotPath);
+        }
+        crc.reset();
+        crc.update(buffer.array(), 0, bodySize);
+        if (buffer.getInt(bodySize) != (int) crc.getValue()) {
+            throw new IOException("Corrupt inventory snapshot: " + snapshotPath);
+        }
+        long snapshotGeneration = buffer.getLong();
+        for (long[] row : counts) {
+            for (int q = 0; q < row.length; q++) {
+                row[q] = buffer.getLong();
+            }
+        }
+        return snapshotGeneration;
+    }
+
+    /**
+     * Applies the records in the journal to the counts table, provided the journal belongs to
+     * the generation following the snapshot.
+     * <p>
+     * Replay stops at the first record which is torn or corrupt, since nothing written after it
+     * can be trusted.
+     * @return the position just after the last intact record, or -1 if the journal is empty or
+     * its records are already part of the snapshot.
+     */
+    private long replay(long[][] counts) throws IOException {
+        if (journal.size() < HEADER_SIZE) {
+            return -1;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        journal.read(header, 0);
+        header.flip();
+        if (header.getInt() != JOURNAL_MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Unrecognised inventory journal: " + journalPath);
+        }
+        if (header.getLong() != generation) {
+            // the process stopped between writing a snapshot and starting a new journal
+            return -1;
+        }
+
+        ByteBuffer records = ByteBuffer.allocate(RECORD_SIZE * 4096);
+        // the file offset just after the last byte read into the buffer
+        long position = HEADER_SIZE;
+        long end = HEADER_SIZE;
+        int read;
+        while ((read = journal.read(records, position)) > 0) {
+            position += read;
+            records.flip();
+            while (records.remaining() >= RECORD_SIZE) {
+                int start = records.position();
+                byte op = records.get();
+                int barcode = records.get();
+                int quality = records.get();
+                records.get();
+                int quantity = records.getInt();
+                crc.reset();
+                crc.update(records.array(), start, RECORD_SIZE - 4);
+                if (records.getInt() != (int) crc.getValue()
+                        || (op != ADD && op != REMOVE)
+                        || barcode < 0 || barcode >= BARCODES.length
+                        || quality < 0 || quality >= QUALITIES.length) {
+                    return end;
+                }
+                counts[barcode][quality] += op == REMOVE ? -quantity : quantity;
+                end += RECORD_SIZE;
+            }
+            // keep any partial record for the next read to complete
+            records.compact();
+        }
+        return end;
+    }
+}
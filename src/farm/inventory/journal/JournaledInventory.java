@@ -0,0 +1,293 @@
+package farm.inventory.journal;
+
+import farm.core.FailedTransactionException;
+import farm.core.InvalidStockRequestException;
+import farm.inventory.Inventory;
+import farm.inventory.PerishableInventory;
+import farm.inventory.product.Product;
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * An inventory which records every change to its stock on disk, so that the stock survives a
+ * restart.
+ * <p>
+ * Each call to {@code addProduct} or {@code removeProduct} is passed on to a wrapped inventory
+ * and recorded in an append-only journal. Removals record the quality of the products that were
+ * actually handed out. Records are written in groups to keep the number of disk syncs down, so a
+ * crash can lose the changes made since the last full group; call {@link #flush()} to make them
+ * durable sooner.
+ * <p>
+ * Once the journal holds enough records, the stock counts are written out as a snapshot and the
+ * journal is started afresh. Reopening the inventory loads the latest snapshot and replays only
+ * the journal written since, so restart time depends on the snapshot interval rather than on the
+ * full history of the inventory.
+ * <p>
+ * The journal records how much of each product is held, but not when it was stocked, so a
+ * {@link PerishableInventory} cannot be journaled: its stock would stop expiring, and replaying
+ * the journal would bring back stock which had already expired.
+ */
+public class JournaledInventory implements Inventory, Closeable {
+    /**
+     * The number of records buffered before they are written to disk, by default.
+     */
+    public static final int DEFAULT_GROUP_SIZE = 256;
+
+    /**
+     * The number of records written between snapshots, by default.
+     */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 100_000;
+
+    private static final Barcode[] BARCODES = Barcode.values();
+    private static final Quality[] QUALITIES = Quality.values();
+
+    private final Inventory inventory;
+    private final InventoryJournal journal;
+    private final int snapshotInterval;
+    private final long[][] counts = new long[BARCODES.length][QUALITIES.length];
+    private int sinceSnapshot = 0;
+
+    /**
+     * Opens a journaled inventory in the given directory using the default group size and
+     * snapshot interval.
+     * @param inventory the empty inventory to hold the stock.
+     * @param directory the directory holding the journal and snapshot files.
+     * @throws IOException if the files cannot be read or created.
+     * @see #JournaledInventory(Inventory, Path, int, int)
+     */
+    public JournaledInventory(Inventory inventory, Path directory) throws IOException {
+        this(inventory, directory, DEFAULT_GROUP_SIZE, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Opens a journaled inventory in the given directory, restoring any stock previously
+     * recorded there into the given inventory.
+     * <p>
+     * Restored stock is added to the inventory in bulk if it supports adding multiple products
+     * at once, and one product at a time otherwise.
+     * @param inventory the empty inventory to hold the stock.
+     * @param directory the directory holding the journal and snapshot files.
+     * @param groupSize the number of records to buffer before writing them to disk.
+     * @param snapshotInterval the number of records to write before taking a new snapshot.
+     * @throws IllegalArgumentException if the group size or snapshot interval is not positive,
+     * or if the inventory is a {@link PerishableInventory}.
+     * @throws IOException if the files cannot be read or created.
+     */
+    public JournaledInventory(Inventory inventory, Path directory, int groupSize,
+                              int snapshotInterval) throws IOException {
+        if (groupSize <= 0 || snapshotInterval <= 0) {
+            throw new IllegalArgumentException(
+                    "Group size and snapshot interval must be positive.");
+        }
+        if (inventory instanceof PerishableInventory) {
+            throw new IllegalArgumentException(
+                    "Perishable stock cannot be journaled, since its age is not recorded.");
+        }
+        this.inventory = inventory;
+        this.snapshotInterval = snapshotInterval;
+        this.journal = new InventoryJournal(directory, groupSize, counts);
+        restore();
+    }
+
+    /**
+     * Adds a new product with corresponding barcode to the inventory, and records it.
+     * @param barcode The barcode of the product to add.
+     * @param quality The quality of added product.
+     * @throws UncheckedIOException if the journal could not be written.
+     */
+    @Override
+    public synchronized void addProduct(Barcode barcode, Quality quality) {
+        Objects.requireNonNull(quality);
+        inventory.addProduct(barcode, quality);
+        record(InventoryJournal.ADD, barcode, quality, 1);
+    }
+
+    /**
+     * Adds multiple of the product with corresponding barcode to the inventory, and records them.
+     * @param barcode the barcode of the product to add.
+     * @param quality the quality of added product.
+     * @param quantity the amount of the product to add.
+     * @throws InvalidStockRequestException if the wrapped inventory rejects the request.
+     * @throws UncheckedIOException if the journal could not be written.
+     */
+    @Override
+    public synchronized void addProduct(Barcode barcode, Quality quality, int quantity)
+            throws InvalidStockRequestException {
+        Objects.requireNonNull(quality);
+        inventory.addProduct(barcode, quality, quantity);
+        if (quantity > 0) {
+            record(InventoryJournal.ADD, barcode, quality, quantity);
+        }
+    }
+
+    @Override
+    public boolean existsProduct(Barcode barcode) {
+        return inventory.existsProduct(barcode);
+    }
+
+    /**
+     * Removes the first product with corresponding barcode from the inventory, and records it.
+     * @param barcode The barcode of the product to be removed.
+     * @return A list containing the removed product if it exists, else an empty list.
+     * @throws UncheckedIOException if the journal could not be written.
+     */
+    @Override
+    public synchronized List<Product> removeProduct(Barcode barcode) {
+        return recordRemoved(barcode, inventory.removeProduct(barcode));
+    }
+
+    /**
+     * Removes the given number of products with corresponding barcode from the inventory, and
+     * records them.
+     * @param barcode The barcode of the product to be removed.
+     * @param quantity The total amount of the product to remove from the inventory.
+     * @return A list containing the removed product if it exists, else an empty list.
+     * @throws FailedTransactionException if the wrapped inventory rejects the request.
+     * @throws UncheckedIOException if the journal could not be written.
+     */
+    @Override
+    public synchronized List<Product> removeProduct(Barcode barcode, int quantity)
+            throws FailedTransactionException {
+        return recordRemoved(barcode, inventory.removeProduct(barcode, quantity));
+    }
+
+    @Override
+    public List<Product> getAllProducts() {
+        return inventory.getAllProducts();
+    }
+
+    @Override
+    public Stream<Product> stream() {
+        return inventory.stream();
+    }
+
+    @Override
+    public void forEach(Consumer<? super Product> action) {
+        inventory.forEach(action);
+    }
+
+    @Override
+    public Map<Barcode, Integer> countByBarcode() {
+        return inventory.countByBarcode();
+    }
+
+    @Override
+    public Map<Quality, Integer> countByQuality(Barcode barcode) {
+        return inventory.countByQuality(barcode);
+    }
+
+    @Override
+    public long getStockValue() {
+        return inventory.getStockValue();
+    }
+
+    /**
+     * Writes any buffered journal records to disk and waits for them to become durable.
+     * @throws IOException if the records could not be written.
+     */
+    public synchronized void flush() throws IOException {
+        journal.flush();
+    }
+
+    /**
+     * Writes the current stock counts out as a snapshot and starts a new, empty journal.
+     * <p>
+     * Snapshots are taken automatically every snapshot interval, but may be taken early, for
+     * example before a planned shutdown.
+     * @throws IOException if the snapshot could not be written.
+     */
+    public synchronized void snapshot() throws IOException {
+        journal.snapshot(counts);
+        sinceSnapshot = 0;
+    }
+
+    /**
+     * Retrieves the number of bytes the journal currently takes up on disk, not counting
+     * records which are still buffered.
+     * @return the size of the journal file.
+     * @throws IOException if the size could not be read.
+     */
+    public synchronized long getJournalSize() throws IOException {
+        return journal.size();
+    }
+
+    /**
+     * Writes any buffered journal records to disk and closes the journal. The inventory must
+     * not be modified afterwards.
+     * @throws IOException if the records could not be written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        journal.close();
+    }
+
+    /**
+     * Records the products handed out by a removal, grouped by quality.
+     */
+    private List<Product> recordRemoved(Barcode barcode, List<Product> removed) {
+        if (removed.isEmpty()) {
+            return removed;
+        }
+        int[] removedCounts = new int[QUALITIES.length];
+        for (Product product : removed) {
+            removedCounts[product.getQuality().ordinal()]++;
+        }
+        for (int q = 0; q < QUALITIES.length; q++) {
+            if (removedCounts[q] > 0) {
+                record(InventoryJournal.REMOVE, barcode, QUALITIES[q], removedCounts[q]);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Appends a record to the journal, taking a snapshot once enough have been written.
+     */
+    private void record(byte op, Barcode barcode, Quality quality, int quantity) {
+        counts[barcode.ordinal()][quality.ordinal()] +=
+                op == InventoryJournal.REMOVE ? -quantity : quantity;
+        try {
+            journal.append(op, barcode, quality, quantity);
+            if (++sinceSnapshot >= snapshotInterval) {
+                snapshot();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stocks the wrapped inventory with the counts recovered from disk.
+     */
+    private void restore() throws IOException {
+        for (Barcode barcode : BARCODES) {
+            for (Quality quality : QUALITIES) {
+                long count = counts[barcode.ordinal()][quality.ordinal()];
+                if (count < 0 || count > Integer.MAX_VALUE) {
+                    throw new IOException("Journal holds an invalid count for "
+                            + barcode + " " + quality + ": " + count);
+                }
+                if (count == 0) {
+                    continue;
+                }
+                try {
+                    inventory.addProduct(barcode, quality, (int) count);
+                } catch (InvalidStockRequestException e) {
+                    for (long i = 0; i < count; i++) {
+                        inventory.addProduct(barcode, quality);
+                    }
+                }
+            }
+        }
+    }
+}
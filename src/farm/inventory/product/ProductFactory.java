@@ -0,0 +1,54 @@
+package farm.inventory.product;
+
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+
+/**
+ * Hands out the canonical instance of each product.
+ * <p>
+ * Products are immutable and defined entirely by their barcode and quality, so there is only
+ * ever one distinct value for each pair. Rather than allocating a new product every time one is
+ * stocked or harvested, all creation paths share the instances held here.
+ */
+public final class ProductFactory {
+    private static final Product[][] CANONICAL =
+            new Product[Barcode.values().length][Quality.values().length];
+
+    static {
+        for (Barcode barcode : Barcode.values()) {
+            for (Quality quality : Quality.values()) {
+                CANONICAL[barcode.ordinal()][quality.ordinal()] = newProduct(barcode, quality);
+            }
+        }
+    }
+
+    private ProductFactory() {
+    }
+
+    /**
+     * Retrieves the product with the given barcode and quality.
+     * @param barcode the type of product.
+     * @param quality the quality of the product.
+     * @return the canonical product instance for that barcode and quality.
+     * @throws NullPointerException if the barcode is null.
+     */
+    public static Product create(Barcode barcode, Quality quality) {
+        if (barcode == null || quality == null) {
+            // no canonical instance to share. A null barcode fails in newProduct's switch, which
+            // stays cold, so the JIT never swaps its NullPointerException for a message-less one
+            return newProduct(barcode, quality);
+        }
+        return CANONICAL[barcode.ordinal()][quality.ordinal()];
+    }
+
+    private static Product newProduct(Barcode barcode, Quality quality) {
+        return switch (barcode) {
+            case Barcode.EGG -> new Egg(quality);
+            case Barcode.MILK -> new Milk(quality);
+            case Barcode.JAM -> new Jam(quality);
+            case Barcode.WOOL -> new Wool(quality);
+            case Barcode.BREAD -> new Bread(quality);
+            case Barcode.COFFEE -> new Coffee(quality);
+        };
+    }
+}
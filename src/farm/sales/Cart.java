@@ -1,5 +1,6 @@
 package farm.sales;
 
+import farm.inventory.Reservation;
 import farm.inventory.product.Product;
 
 import java.util.ArrayList;
@@ -11,6 +12,7 @@ import java.util.List;
  */
 public class Cart {
     private final List<Product> toPurchase = new ArrayList<>();
+    private final List<Reservation> reserved = new ArrayList<>();
 
     /**
      * Adds a given product to the shopping cart.
@@ -20,6 +22,39 @@ public class Cart {
         toPurchase.add(product);
     }
 
+    /**
+     * Adds a hold on some of the farm's stock to the shopping cart. Reserved stock becomes
+     * products in the cart once the customer checks out.
+     * @param reservation the reservation to add.
+     */
+    public void addReservation(Reservation reservation) {
+        reserved.add(reservation);
+    }
+
+    /**
+     * Retrieves all the reservations in the Cart in the order they were added.
+     * @return a list of all reservations in the cart
+     * @ensures the returned list is a shallow copy and cannot modify the original cart
+     */
+    public List<Reservation> getReservations() {
+        return new ArrayList<>(reserved);
+    }
+
+    /**
+     * Removes a reservation from the shopping cart, e.g. once its stock has been released.
+     * @param reservation the reservation to remove.
+     */
+    public void removeReservation(Reservation reservation) {
+        reserved.remove(reservation);
+    }
+
+    /**
+     * Removes all reservations from the shopping cart, leaving any products in it.
+     */
+    public void clearReservations() {
+        reserved.clear();
+    }
+
     /**
      * Retrieves all the products in the Cart in the order they were added.
      * @return a list of all products in the cart
@@ -34,13 +69,14 @@ public class Cart {
      */
     public void setEmpty() {
         toPurchase.clear();
+        reserved.clear();
     }
 
     /**
      * Returns if the cart is empty
-     * @return true iff there is nothing in the cart, else false.
+     * @return true iff there are no products or reservations in the cart, else false.
      */
     public boolean isEmpty() {
-        return toPurchase.isEmpty();
+        return toPurchase.isEmpty() && reserved.isEmpty();
     }
 }
@@ -7,6 +7,7 @@ import farm.sales.transaction.SpecialSaleTransaction;
 import farm.sales.transaction.Transaction;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -18,6 +19,14 @@ import java.util.List;
 public class TransactionHistory {
     private final List<Transaction> transactions = new ArrayList<>();
 
+    /**
+     * Retrieves every transaction recorded, oldest first.
+     * @return an unmodifiable view of the recorded transactions
+     */
+    public List<Transaction> getTransactions() {
+        return Collections.unmodifiableList(transactions);
+    }
+
     /**
      * Adds the given transaction to the record of all past transactions.
      * @param transaction the transaction to add to the record.
@@ -1,6 +1,7 @@
 package farm.sales;
 
 import farm.core.FailedTransactionException;
+import farm.inventory.Reservation;
 import farm.inventory.product.Product;
 import farm.sales.transaction.Transaction;
 
@@ -59,6 +60,55 @@ public class TransactionManager {
         ongoing.getAssociatedCustomer().getCart().addProduct(product);
     }
 
+    /**
+     * Adds the given reservation to the cart of the customer associated with the current
+     * transaction.
+     * <p>
+     * The reservation can only be added if there is currently an ongoing transaction and that
+     * transaction has not already been finalised.
+     * @param reservation the reservation to add to customer's cart.
+     * @requires the provided reservation is pending, i.e. has been made by the farm's inventory
+     * and not yet committed or released
+     * @throws FailedTransactionException iff there is no ongoing transaction or the transaction has already been finalised.
+     */
+    public void registerPendingReservation(Reservation reservation)
+            throws FailedTransactionException {
+        if (!hasOngoingTransaction()) {
+            throw new FailedTransactionException("No ongoing exception.");
+        } else if (ongoing.isFinalised()) {
+            throw new FailedTransactionException(
+                    "Ongoing transaction has already been finalised exception.");
+        }
+        ongoing.getAssociatedCustomer().getCart().addReservation(reservation);
+    }
+
+    /**
+     * Retrieves the currently ongoing transaction, without closing it.
+     * @return the ongoing transaction.
+     * @throws FailedTransactionException iff there is no currently ongoing transaction.
+     */
+    public Transaction getOngoingTransaction() throws FailedTransactionException {
+        if (ongoing == null) {
+            throw new FailedTransactionException("No ongoing transaction in progress.");
+        }
+        return ongoing;
+    }
+
+    /**
+     * Stops managing the currently ongoing transaction without finalising it, readying the
+     * TransactionManager to accept a new ongoing transaction.
+     * <p>
+     * The customer's cart is left untouched, so that whatever it holds can be returned to the
+     * farm's stock.
+     * @return the abandoned transaction.
+     * @throws FailedTransactionException iff there is no currently ongoing transaction to abandon.
+     */
+    public Transaction abandonCurrentTransaction() throws FailedTransactionException {
+        Transaction result = getOngoingTransaction();
+        ongoing = null;
+        return result;
+    }
+
     /**
      * Finalises the currently ongoing transaction and makes readies the TransactionManager to accept a new ongoing transaction.
      * <p>
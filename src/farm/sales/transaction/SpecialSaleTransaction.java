@@ -92,6 +92,15 @@ public class SpecialSaleTransaction extends CategorisedTransaction {
         return discounts.getOrDefault(type, 0);
     }
 
+    /**
+     * Retrieves every discount set for this transaction, including any set to 0%.
+     * @return an unmodifiable view of the mapping from product barcodes to their discount, as
+     * an integer percentage
+     */
+    public Map<Barcode, Integer> getDiscounts() {
+        return Collections.unmodifiableMap(discounts);
+    }
+
     /**
      * Calculates the total price (with discounts) of all the current products in the transaction.
      * @return the total (discounted) price calculated.
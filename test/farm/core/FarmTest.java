@@ -0,0 +1,134 @@
+package farm.core;
+
+import farm.customer.AddressBook;
+import farm.customer.Customer;
+import farm.inventory.ConcurrentInventory;
+import farm.inventory.FancyInventory;
+import farm.inventory.Inventory;
+import farm.inventory.product.Product;
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+import farm.sales.transaction.Transaction;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class FarmTest {
+    private Customer customer;
+    private Farm farm;
+
+    @Before
+    public void setUp() throws DuplicateCustomerException, InvalidStockRequestException {
+        AddressBook addressBook = new AddressBook();
+        customer = new Customer("Ali", 33651111, "UQ");
+        addressBook.addCustomer(customer);
+        farm = new Farm(new ConcurrentInventory(), addressBook);
+        farm.stockProduct(Barcode.EGG, Quality.REGULAR, 3);
+        farm.stockProduct(Barcode.EGG, Quality.GOLD, 2);
+        farm.stockProduct(Barcode.MILK, Quality.SILVER, 4);
+    }
+
+    @Test
+    public void testAddToCartReservesStock() throws FailedTransactionException {
+        farm.startTransaction(new Transaction(customer));
+        assertEquals(4, farm.addToCart(Barcode.EGG, 4));
+        assertEquals(Map.of(Barcode.EGG, 1, Barcode.MILK, 4), farm.getStockCounts());
+        assertTrue(customer.getCart().getContents().isEmpty());
+        assertEquals(2, customer.getCart().getReservations().size());
+        assertEquals(1, farm.addToCart(Barcode.EGG, 4));
+        assertEquals(0, farm.addToCart(Barcode.EGG));
+    }
+
+    @Test
+    public void testCheckoutCommitsReservations() throws FailedTransactionException {
+        farm.startTransaction(new Transaction(customer));
+        farm.addToCart(Barcode.EGG, 3);
+        farm.addToCart(Barcode.MILK);
+        assertTrue(farm.checkout());
+
+        List<Product> purchases = farm.getTransactionHistory().getLastTransaction()
+                .getPurchases();
+        assertEquals(4, purchases.size());
+        assertEquals(List.of(Quality.GOLD, Quality.GOLD, Quality.REGULAR, Quality.SILVER),
+                purchases.stream().map(Product::getQuality).toList());
+        assertEquals(Barcode.MILK, purchases.get(3).getBarcode());
+        assertEquals(Map.of(Barcode.EGG, 2, Barcode.MILK, 3), farm.getStockCounts());
+        assertTrue(customer.getCart().isEmpty());
+    }
+
+    @Test
+    public void testCancelReturnsReservedStock() throws FailedTransactionException {
+        List<Product> before = farm.getAllStock();
+        farm.startTransaction(new Transaction(customer));
+        farm.addToCart(Barcode.EGG, 5);
+        farm.addToCart(Barcode.MILK, 2);
+        assertEquals(Map.of(Barcode.MILK, 2), farm.getStockCounts());
+
+        farm.cancelTransaction();
+        assertEquals(before, farm.getAllStock());
+        assertTrue(customer.getCart().isEmpty());
+        assertFalse(farm.getTransactionManager().hasOngoingTransaction());
+        assertEquals(0, farm.getTransactionHistory().getTotalTransactionsMade());
+    }
+
+    @Test
+    public void testCancelReturnsProductsWithoutReservations()
+            throws DuplicateCustomerException, InvalidStockRequestException,
+            FailedTransactionException {
+        Inventory inventory = new FancyInventory();
+        AddressBook addressBook = new AddressBook();
+        addressBook.addCustomer(customer);
+        Farm fancy = new Farm(inventory, addressBook);
+        fancy.stockProduct(Barcode.JAM, Quality.IRIDIUM, 2);
+        List<Product> before = fancy.getAllStock();
+
+        fancy.startTransaction(new Transaction(customer));
+        assertEquals(2, fancy.addToCart(Barcode.JAM, 2));
+        assertEquals(2, customer.getCart().getContents().size());
+        assertTrue(fancy.getAllStock().isEmpty());
+        fancy.cancelTransaction();
+        assertEquals(before, fancy.getAllStock());
+        assertTrue(customer.getCart().isEmpty());
+    }
+
+    @Test
+    public void testStaleReservationsReleased() throws FailedTransactionException {
+        farm.startTransaction(new Transaction(customer));
+        farm.addToCart(Barcode.EGG, 2);
+        assertEquals(0, farm.releaseStaleReservations(Long.MAX_VALUE));
+        assertEquals(Map.of(Barcode.EGG, 3, Barcode.MILK, 4), farm.getStockCounts());
+
+        assertEquals(2, farm.releaseStaleReservations(0));
+        assertEquals(Map.of(Barcode.EGG, 5, Barcode.MILK, 4), farm.getStockCounts());
+        assertEquals(0, farm.releaseStaleReservations(0));
+
+        farm.addToCart(Barcode.MILK);
+        assertTrue(farm.checkout());
+        List<Product> purchases = farm.getTransactionHistory().getLastTransaction()
+                .getPurchases();
+        assertEquals(1, purchases.size());
+        assertEquals(Barcode.MILK, purchases.getFirst().getBarcode());
+        assertEquals(Map.of(Barcode.EGG, 5, Barcode.MILK, 3), farm.getStockCounts());
+    }
+
+    @Test
+    public void testCartEmptyOnceAllReservationsExpire() throws FailedTransactionException {
+        farm.startTransaction(new Transaction(customer));
+        farm.addToCart(Barcode.EGG, 4);
+        farm.addToCart(Barcode.MILK);
+        assertFalse(customer.getCart().isEmpty());
+
+        assertEquals(5, farm.releaseStaleReservations(0));
+        assertTrue(customer.getCart().isEmpty());
+        assertTrue(customer.getCart().getReservations().isEmpty());
+    }
+
+    @Test(expected = FailedTransactionException.class)
+    public void testReleaseWithoutTransaction() throws FailedTransactionException {
+        farm.releaseStaleReservations(0);
+    }
+}
@@ -7,12 +7,14 @@ import farm.core.UnableToInteractException;
 import farm.customer.AddressBook;
 import farm.inventory.FancyInventory;
 import farm.inventory.product.*;
+import farm.inventory.product.data.Barcode;
 import farm.inventory.product.data.Quality;
 import farm.inventory.product.data.RandomQuality;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import static org.junit.Assert.*;
 
 public class FarmGridTest {
@@ -324,6 +326,108 @@ public class FarmGridTest {
                 expectedStats(itemsPlacedAnimal), animalGrid.getStats());
     }
 
+    @Test
+    public void farmDisplayRedrawsChangedRowsTest() {
+        FarmGrid grid = new FarmGrid(3, 4, "plant");
+        String empty = grid.farmDisplay();
+        assertSame("Display was redrawn although nothing changed", empty, grid.farmDisplay());
+
+        grid.place(1, 2, berryStage1);
+        String placed = grid.farmDisplay();
+        assertEquals("-----------\n|         |\n|     .   |\n|         |\n-----------\n",
+                placed);
+
+        attemptInteraction(grid, END_DAY, 0, 0);
+        assertTrue("Display did not show growth after end of day",
+                grid.farmDisplay().contains("|     o   |"));
+        attemptInteraction(grid, REMOVE, 1, 2);
+        assertEquals("Display did not clear removed plant", empty, grid.farmDisplay());
+    }
+
+    @Test
+    public void parallelEndDayMatchesSequentialTest() {
+        FarmGrid sequential = new FarmGrid(200, 150, "plant");
+        FarmGrid parallel = new FarmGrid(200, 150, "plant");
+        char[] plants = {berryStage1, coffeeStage1, wheatStage1};
+        for (int i = 0; i < 200; i++) {
+            for (int j = (i % 3); j < 150; j += 2) {
+                sequential.place(i, j, plants[(i + j) % 3]);
+                parallel.place(i, j, plants[(i + j) % 3]);
+            }
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            parallel.setEndOfDayPool(pool);
+            for (int day = 0; day < 3; day++) {
+                attemptInteraction(sequential, END_DAY, 0, 0);
+                attemptInteraction(parallel, END_DAY, 0, 0);
+                assertEquals("Parallel end of day gave different stats",
+                        sequential.getStats(), parallel.getStats());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void harvestAllReadyTest() {
+        FarmGrid grid = new FarmGrid(4, 4, "plant");
+        assertEquals(-1, grid.nextReadyDay());
+        grid.place(0, 0, coffeeStage1);
+        grid.place(3, 3, wheatStage1);
+        assertEquals(1, grid.nextReadyDay());
+        assertEquals(0, grid.harvestAllReady().getTotal());
+
+        attemptInteraction(grid, END_DAY, 0, 0);
+        assertEquals(1, grid.getDay());
+        assertEquals(1, grid.getReadyCount());
+        assertEquals(Map.of(Barcode.BREAD, 1), grid.harvestAllReady().countByBarcode());
+        assertEquals(2, grid.nextReadyDay());
+
+        attemptInteraction(grid, END_DAY, 0, 0);
+        attemptInteraction(grid, END_DAY, 0, 0);
+        assertEquals(Map.of(Barcode.COFFEE, 1, Barcode.BREAD, 1),
+                grid.harvestAllReady().countByBarcode());
+        attemptInteraction(grid, REMOVE, 3, 3);
+        assertEquals(6, grid.nextReadyDay());
+    }
+
+    @Test
+    public void harvestIndexMatchesScanTest() {
+        char[][] symbols = {{berryStage1, coffeeStage1, wheatStage1}, {chicken, cow, sheep}};
+        String[] types = {"plant", "animal"};
+        for (int type = 0; type < types.length; type++) {
+            FarmGrid indexed = new FarmGrid(6, 7, types[type]);
+            PackedFarmGrid scanned = new PackedFarmGrid(6, 7, types[type]);
+            Random random = new Random(type);
+            for (int step = 0; step < 3_000; step++) {
+                int row = random.nextInt(6);
+                int column = random.nextInt(7);
+                switch (random.nextInt(6)) {
+                    case 0 -> {
+                        char symbol = symbols[type][random.nextInt(3)];
+                        assertEquals(scanned.placeRegion(row, column, row + 2, column + 2, symbol),
+                                indexed.placeRegion(row, column, row + 2, column + 2, symbol));
+                    }
+                    case 1 -> assertEquals(scanned.feedRegion(row, column, row + 3, column + 3),
+                            indexed.feedRegion(row, column, row + 3, column + 3));
+                    case 2 -> assertEquals(scanned.removeRegion(row, column, row + 1, column + 3),
+                            indexed.removeRegion(row, column, row + 1, column + 3));
+                    case 3 -> assertEquals(scanned.harvestRegion(row, column, row + 2, column + 2)
+                            .countByBarcode(), indexed.harvestRegion(row, column, row + 2,
+                            column + 2).countByBarcode());
+                    case 4 -> {
+                        attemptInteraction(indexed, END_DAY, 0, 0);
+                        attemptInteraction(scanned, END_DAY, 0, 0);
+                    }
+                    default -> assertEquals(scanned.harvestAllReady().countByBarcode(),
+                            indexed.harvestAllReady().countByBarcode());
+                }
+                assertEquals(scanned.getStats(), indexed.getStats());
+            }
+        }
+    }
+
     private void populatePlantGrownPlantGrid(Grid plantGrid) {
         populatePlantFarm(plantGrid);
         attemptInteraction(plantGrid, END_DAY, 0, 0);
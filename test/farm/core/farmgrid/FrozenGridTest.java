@@ -0,0 +1,74 @@
+package farm.core.farmgrid;
+
+import farm.core.UnableToInteractException;
+import farm.inventory.product.data.RandomQuality;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FrozenGridTest {
+
+    @Before
+    public void setUp() {
+        RandomQuality.setSeed(8L);
+    }
+
+    @After
+    public void tearDown() {
+        RandomQuality.setSeed(null);
+    }
+
+    @Test
+    public void testMatchesGridWhenFrozen() {
+        for (String farmType : List.of("plant", "animal")) {
+            char symbol = farmType.equals("plant") ? ':' : '४';
+            for (Grid grid : List.of(new FarmGrid(5, 7, farmType),
+                    new PackedFarmGrid(5, 7, farmType), new SparseFarmGrid(5, 7, farmType))) {
+                grid.placeRegion(1, 1, 4, 5, symbol);
+                grid.feedRegion(2, 0, 3, 7);
+                grid.harvestRegion(2, 0, 3, 3);
+                FrozenGrid frozen = FrozenGrid.of(grid);
+                assertEquals(farmType, frozen.toString());
+                assertEquals(grid.getStats(), frozen.getStats());
+                assertEquals(grid.farmDisplay(), frozen.farmDisplay());
+                assertSame(frozen, FrozenGrid.of(frozen));
+            }
+        }
+    }
+
+    @Test
+    public void testUnaffectedByLaterChanges() throws UnableToInteractException {
+        FarmGrid grid = new FarmGrid(3, 3, "plant");
+        grid.place(0, 0, '.');
+        FrozenGrid frozen = FrozenGrid.of(grid);
+        List<List<String>> stats = frozen.getStats();
+        String display = frozen.farmDisplay();
+
+        grid.place(1, 1, 'ἴ');
+        grid.interact("end-day", 0, 0);
+        grid.interact("remove", 0, 0);
+        assertEquals(stats, frozen.getStats());
+        assertEquals(display, frozen.farmDisplay());
+        assertNotEquals(grid.getStats(), frozen.getStats());
+    }
+
+    @Test
+    public void testCannotBeChanged() {
+        FarmGrid grid = new FarmGrid(2, 2, "animal");
+        grid.place(0, 0, '৬');
+        FrozenGrid frozen = FrozenGrid.of(grid);
+        assertFalse(frozen.place(1, 1, '৬'));
+        assertFalse(frozen.canPlace('৬'));
+        assertFalse(frozen.restoreTile(1, 1, '৬', 0, false, false));
+        assertEquals(0, frozen.placeRegion(0, 0, 2, 2, '४'));
+        assertEquals(0, frozen.feedRegion(0, 0, 2, 2));
+        assertEquals(0, frozen.removeRegion(0, 0, 2, 2));
+        assertThrows(UnableToInteractException.class, () -> frozen.harvest(0, 0));
+        assertThrows(UnableToInteractException.class, () -> frozen.interact("end-day", 0, 0));
+        assertEquals(grid.getStats(), frozen.getStats());
+    }
+}
@@ -0,0 +1,83 @@
+package farm.core.farmgrid;
+
+import farm.inventory.product.Product;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Differential checks shared by the tests of grids which reimplement {@link FarmGrid}.
+ */
+final class GridBehaviour {
+    /** Every placeable symbol, followed by one which places nothing. */
+    static final char[] SYMBOLS = {'.', ':', 'ἴ', '৬', '४', 'ඔ', 'F'};
+    private static final String[] COMMANDS = {"feed", "end-day", "remove", "dance"};
+
+    private GridBehaviour() {
+    }
+
+    /**
+     * Creates an empty grid of the implementation under test.
+     */
+    interface GridFactory {
+        Grid create(int rows, int columns, String type);
+    }
+
+    /**
+     * Runs the same random sequence of commands against a FarmGrid and a grid from the factory,
+     * checking that every result, exception, display and stat matches.
+     */
+    static void assertMatchesFarmGrid(GridFactory factory, String type, int rows, int columns,
+            long seed) {
+        assertMatchesFarmGrid(factory, type, rows, columns, seed, SYMBOLS);
+    }
+
+    /**
+     * Runs the same random sequence of commands against a FarmGrid and a grid from the factory,
+     * placing only the given symbols, and checks that every result, exception, display and stat
+     * matches.
+     */
+    static void assertMatchesFarmGrid(GridFactory factory, String type, int rows, int columns,
+            long seed, char[] symbols) {
+        FarmGrid expected = new FarmGrid(rows, columns, type);
+        Grid actual = factory.create(rows, columns, type);
+        Random random = new Random(seed);
+        for (int step = 0; step < 5_000; step++) {
+            int row = random.nextInt(rows + 2) - 1;
+            int column = random.nextInt(columns + 2) - 1;
+            switch (random.nextInt(4)) {
+                case 0 -> {
+                    char symbol = symbols[random.nextInt(symbols.length)];
+                    assertEquals(outcome(() -> expected.place(row, column, symbol)),
+                            outcome(() -> actual.place(row, column, symbol)));
+                }
+                case 1 -> assertEquals(outcome(() -> expected.harvest(row, column)),
+                        outcome(() -> actual.harvest(row, column)));
+                default -> {
+                    String command = COMMANDS[random.nextInt(COMMANDS.length)];
+                    assertEquals(outcome(() -> expected.interact(command, row, column)),
+                            outcome(() -> actual.interact(command, row, column)));
+                }
+            }
+            assertEquals(expected.farmDisplay(), actual.farmDisplay());
+            assertEquals(expected.getStats(), actual.getStats());
+        }
+    }
+
+    private interface Action {
+        Object run() throws Exception;
+    }
+
+    private static String outcome(Action action) {
+        try {
+            Object result = action.run();
+            if (result instanceof Product product) {
+                return product + " " + product.getQuality();
+            }
+            return String.valueOf(result);
+        } catch (Exception e) {
+            return e.getClass().getSimpleName() + ": " + e.getMessage();
+        }
+    }
+}
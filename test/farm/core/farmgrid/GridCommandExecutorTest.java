@@ -0,0 +1,153 @@
+package farm.core.farmgrid;
+
+import farm.core.UnableToInteractException;
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.RandomQuality;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class GridCommandExecutorTest {
+
+    @Before
+    public void setUp() {
+        RandomQuality.setSeed(21L);
+    }
+
+    @After
+    public void tearDown() {
+        RandomQuality.setSeed(null);
+    }
+
+    @Test
+    public void testBatchStatuses() {
+        FarmGrid grid = new FarmGrid(3, 3, "animal");
+        GridCommandExecutor.Result result = new GridCommandExecutor(grid).execute(List.of(
+                GridCommand.place(0, 0, '৬'),
+                GridCommand.place(0, 0, '४'),
+                GridCommand.harvest(0, 0),
+                GridCommand.feed(0, 0),
+                GridCommand.feed(2, 2),
+                GridCommand.harvest(0, 0),
+                GridCommand.harvest(0, 0),
+                GridCommand.endDay(),
+                GridCommand.remove(0, 0),
+                GridCommand.remove(0, 0)));
+        assertArrayEquals(new byte[] {1, 0, 0, 1, 0, 1, 0, 1, 1, 0}, result.getStatuses());
+        assertEquals(5, result.getSucceeded());
+        assertEquals(Map.of(Barcode.EGG, 1), result.getHarvested().countByBarcode());
+        assertEquals(2, result.getHarvested().getSkipped());
+        assertEquals(List.of("ground", " "), grid.getStats().get(0));
+    }
+
+    @Test
+    public void testInvalidBatchRunsNothing() {
+        for (GridCommand invalid : List.of(GridCommand.feed(3, 0), GridCommand.remove(0, -1),
+                GridCommand.place(0, 0, 'F'), new GridCommand(null, 0, 0, ' '))) {
+            FarmGrid grid = new FarmGrid(3, 3, "plant");
+            GridCommandExecutor executor = new GridCommandExecutor(grid);
+            try {
+                executor.execute(Stream.of(GridCommand.place(1, 1, '.'), invalid));
+                fail("Expected " + invalid + " to be rejected");
+            } catch (IllegalArgumentException expected) {
+                assertTrue(expected.getMessage().startsWith("Command 1 "));
+            }
+            assertEquals(new FarmGrid(3, 3, "plant").getStats(), grid.getStats());
+        }
+    }
+
+    @Test
+    public void testWrongFarmTypeRejected() {
+        for (String farmType : List.of("plant", "animal")) {
+            char own = farmType.equals("plant") ? '.' : '৬';
+            char other = farmType.equals("plant") ? '৬' : '.';
+            for (Grid grid : List.of(new FarmGrid(3, 3, farmType),
+                    new PackedFarmGrid(3, 3, farmType), new SparseFarmGrid(3, 3, farmType))) {
+                List<List<String>> empty = grid.getStats();
+                try {
+                    new GridCommandExecutor(grid).execute(List.of(GridCommand.place(0, 0, own),
+                            GridCommand.place(1, 1, other)));
+                    fail("Expected " + other + " to be rejected on a " + farmType + " farm");
+                } catch (IllegalArgumentException expected) {
+                    assertTrue(expected.getMessage().startsWith("Command 1 "));
+                }
+                assertEquals(empty, grid.getStats());
+                assertTrue(grid.canPlace(own));
+                assertFalse(grid.canPlace(other));
+            }
+        }
+    }
+
+    @Test
+    public void testParse() {
+        assertEquals(GridCommand.place(0, 3, '.'), GridCommand.parse("place 0 3 ."));
+        assertEquals(GridCommand.harvest(1, 2), GridCommand.parse(" harvest  1 2"));
+        assertEquals(GridCommand.feed(4, 5), GridCommand.parse("feed 4 5"));
+        assertEquals(GridCommand.remove(0, 0), GridCommand.parse("remove 0 0"));
+        assertEquals(GridCommand.endDay(), GridCommand.parse("end-day"));
+        for (String malformed : List.of("dance 1 1", "feed 1", "feed a 1", "place 1 1 ab")) {
+            try {
+                GridCommand.parse(malformed);
+                fail("Expected " + malformed + " to be rejected");
+            } catch (IllegalArgumentException expected) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testBatchMatchesSingleCommands() throws UnableToInteractException {
+        char[] symbols = {'.', ':', 'ἴ'};
+        Random random = new Random(3);
+        List<GridCommand> commands = new ArrayList<>();
+        for (int step = 0; step < 2_000; step++) {
+            int row = random.nextInt(6);
+            int column = random.nextInt(6);
+            commands.add(switch (random.nextInt(5)) {
+                case 0, 1 -> GridCommand.place(row, column, symbols[random.nextInt(3)]);
+                case 2 -> GridCommand.harvest(row, column);
+                case 3 -> GridCommand.remove(row, column);
+                default -> GridCommand.endDay();
+            });
+        }
+        for (Grid grid : List.of(new FarmGrid(6, 6, "plant"), new PackedFarmGrid(6, 6, "plant"),
+                new SparseFarmGrid(6, 6, "plant"))) {
+            RandomQuality.setSeed(21L);
+            FarmGrid expected = new FarmGrid(6, 6, "plant");
+            for (GridCommand command : commands) {
+                int row = command.row();
+                int column = command.column();
+                switch (command.type()) {
+                    case PLACE -> {
+                        try {
+                            expected.place(row, column, command.symbol());
+                        } catch (IllegalStateException occupied) {
+                            // skipped by the batch too
+                        }
+                    }
+                    case HARVEST -> {
+                        try {
+                            expected.harvest(row, column);
+                        } catch (UnableToInteractException notReady) {
+                            // skipped by the batch too
+                        }
+                    }
+                    case REMOVE -> expected.interact("remove", row, column);
+                    default -> expected.interact("end-day", 0, 0);
+                }
+            }
+            RandomQuality.setSeed(21L);
+            new GridCommandExecutor(grid).execute(commands);
+            assertEquals(expected.getStats(), grid.getStats());
+            assertEquals(expected.farmDisplay(), grid.farmDisplay());
+        }
+    }
+}
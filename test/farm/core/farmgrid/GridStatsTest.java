@@ -0,0 +1,150 @@
+package farm.core.farmgrid;
+
+import farm.files.FileSaver;
+import farm.inventory.product.data.RandomQuality;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class GridStatsTest {
+    private static final char[] PLANTS = {'.', ':', 'ἴ'};
+    private static final char[] ANIMALS = {'৬', '४', 'ඔ'};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        RandomQuality.setSeed(13L);
+    }
+
+    @After
+    public void tearDown() {
+        RandomQuality.setSeed(null);
+    }
+
+    @Test
+    public void testSnapshotMatchesStats() {
+        for (String farmType : List.of("plant", "animal")) {
+            for (Grid grid : grids(farmType)) {
+                fill(grid, farmType, 5);
+                List<List<String>> expected = grid.getStats();
+                GridStats stats = grid.snapshotStats();
+                assertEquals(expected.size(), stats.size());
+                for (int tile = 0; tile < stats.size(); tile++) {
+                    assertEquals(expected.get(tile), stats.toStats(tile));
+                }
+                assertEquals(stats.toStats(0).get(0), stats.getType(0));
+            }
+        }
+    }
+
+    @Test
+    public void testVisitorMatchesSnapshot() {
+        for (Grid grid : grids("animal")) {
+            fill(grid, "animal", 9);
+            GridStats stats = grid.snapshotStats();
+            List<String> visited = new ArrayList<>();
+            List<String> replayed = new ArrayList<>();
+            grid.visitTiles(new Recorder(visited));
+            stats.accept(new Recorder(replayed));
+            assertEquals(visited, replayed);
+            assertEquals(stats.size(), visited.size());
+        }
+    }
+
+    @Test
+    public void testKindCounts() {
+        FarmGrid grid = new FarmGrid(3, 3, "plant");
+        grid.place(0, 0, '.');
+        grid.place(1, 1, '.');
+        grid.place(2, 2, ':');
+        GridStats stats = grid.snapshotStats();
+        assertEquals(3, stats.getKindCount());
+        assertEquals("ground", stats.getKindType(0));
+        assertEquals(stats.getKind(0), stats.getKind(4));
+        assertEquals("berry", stats.getKindType(stats.getKind(0)));
+        assertEquals(":", stats.getKindSymbol(stats.getKind(8)));
+        assertArrayEquals(new int[] {6, 2, 1}, stats.countByKind());
+        assertTrue(stats.isPlant(8));
+        assertTrue(stats.isGround(1));
+        assertEquals(1, stats.getStage(8));
+    }
+
+    @Test
+    public void testSavedStatsUnchanged() throws IOException {
+        for (String farmType : List.of("plant", "animal")) {
+            for (Grid grid : grids(farmType)) {
+                fill(grid, farmType, 2);
+                File file = folder.newFile();
+                new FileSaver().save(file.getPath(), grid);
+                List<String> lines = Files.readAllLines(file.toPath(), Charset.defaultCharset());
+                assertEquals("Stats: " + grid.getStats(), lines.get(3));
+            }
+        }
+    }
+
+    private static List<Grid> grids(String farmType) {
+        return List.of(new FarmGrid(6, 5, farmType), new PackedFarmGrid(6, 5, farmType),
+                new SparseFarmGrid(6, 5, farmType));
+    }
+
+    /**
+     * Places, grows, feeds and harvests a random selection of tiles.
+     */
+    private static void fill(Grid grid, String farmType, long seed) {
+        Random random = new Random(seed);
+        char[] symbols = farmType.equals("plant") ? PLANTS : ANIMALS;
+        for (int step = 0; step < 60; step++) {
+            int row = random.nextInt(6);
+            int column = random.nextInt(5);
+            switch (random.nextInt(4)) {
+                case 0 -> grid.placeRegion(row, column, row + 1, column + 1,
+                        symbols[random.nextInt(3)]);
+                case 1 -> grid.feedRegion(row, column, row + 2, column + 2);
+                case 2 -> grid.harvestRegion(row, column, row + 2, column + 2);
+                default -> {
+                    if (random.nextInt(4) == 0) {
+                        new GridCommandExecutor(grid).execute(List.of(GridCommand.endDay()));
+                    }
+                }
+            }
+        }
+    }
+
+    private static class Recorder implements TileVisitor {
+        private final List<String> visits;
+
+        Recorder(List<String> visits) {
+            this.visits = visits;
+        }
+
+        @Override
+        public void visitGround(int row, int column) {
+            visits.add(row + "," + column);
+        }
+
+        @Override
+        public void visitPlant(int row, int column, String type, String symbol, int stage) {
+            visits.add(row + "," + column + " " + type + symbol + stage);
+        }
+
+        @Override
+        public void visitAnimal(int row, int column, String type, String symbol, boolean fed,
+                boolean collected) {
+            visits.add(row + "," + column + " " + type + symbol + fed + collected);
+        }
+    }
+}
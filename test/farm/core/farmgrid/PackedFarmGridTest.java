@@ -0,0 +1,103 @@
+package farm.core.farmgrid;
+
+import farm.core.UnableToInteractException;
+import farm.inventory.product.data.RandomQuality;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class PackedFarmGridTest {
+    @Before
+    public void setUp() {
+        RandomQuality.setSeed(42L);
+    }
+
+    @After
+    public void tearDown() {
+        RandomQuality.setSeed(null);
+    }
+
+    @Test
+    public void testPlantFarmMatchesFarmGrid() {
+        GridBehaviour.assertMatchesFarmGrid(PackedFarmGrid::new, "plant", 7, 9, 1);
+    }
+
+    @Test
+    public void testAnimalFarmMatchesFarmGrid() {
+        GridBehaviour.assertMatchesFarmGrid(PackedFarmGrid::new, "animal", 6, 4, 2);
+    }
+
+    @Test
+    public void testInitialDisplayAndStats() {
+        PackedFarmGrid grid = new PackedFarmGrid(2, 3, "plant");
+        FarmGrid expected = new FarmGrid(2, 3, "plant");
+        assertEquals(expected.farmDisplay(), grid.farmDisplay());
+        assertEquals(expected.getStats(), grid.getStats());
+        assertEquals("plant", grid.toString());
+    }
+
+    @Test
+    public void testStatsAreSnapshot() throws UnableToInteractException {
+        PackedFarmGrid grid = new PackedFarmGrid(1, 2, "plant");
+        grid.place(0, 0, '.');
+        List<List<String>> stats = grid.getStats();
+        grid.interact("end-day", 0, 0);
+        assertEquals(List.of("berry", ".", "Stage: 1"), stats.get(0));
+        assertEquals(List.of("berry", "o", "Stage: 2"), grid.getStats().get(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidFarmType() {
+        new PackedFarmGrid(2, 2, "fish");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPlaceOnOccupiedTile() {
+        PackedFarmGrid grid = new PackedFarmGrid(2, 2, "animal");
+        grid.place(1, 1, '४');
+        grid.place(1, 1, 'ඔ');
+    }
+
+    @Test
+    public void testLargeGridEndDay() throws UnableToInteractException {
+        PackedFarmGrid grid = new PackedFarmGrid(1000, 1000, "plant");
+        for (int i = 0; i < 1000; i++) {
+            grid.place(i, i, ':');
+        }
+        for (int day = 0; day < 3; day++) {
+            grid.interact("end-day", 0, 0);
+        }
+        assertEquals(List.of("coffee", "%", "Stage: 4"), grid.getStats().get(999 * 1000 + 999));
+        assertEquals(1_000_000, grid.getStats().size());
+    }
+
+    @Test
+    public void testParallelEndDayMatchesSequential() throws UnableToInteractException {
+        PackedFarmGrid sequential = new PackedFarmGrid(300, 200, "animal");
+        PackedFarmGrid parallel = new PackedFarmGrid(300, 200, "animal");
+        for (int i = 0; i < 300; i++) {
+            for (int j = 0; j < 200; j += 1 + i % 3) {
+                sequential.place(i, j, GridBehaviour.SYMBOLS[3 + j % 3]);
+                parallel.place(i, j, GridBehaviour.SYMBOLS[3 + j % 3]);
+                if ((i + j) % 2 == 0) {
+                    sequential.interact("feed", i, j);
+                    parallel.interact("feed", i, j);
+                }
+            }
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            parallel.setEndOfDayPool(pool);
+            sequential.interact("end-day", 0, 0);
+            parallel.interact("end-day", 0, 0);
+            assertEquals(sequential.getStats(), parallel.getStats());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package farm.core.farmgrid;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Random batches of grid commands, shared by the tests which need a grid in a varied state.
+ */
+public final class RandomGridCommands {
+    private static final char[] PLANTS = {'.', ':', 'ἴ'};
+    private static final char[] ANIMALS = {'৬', '४', 'ඔ'};
+
+    private RandomGridCommands() {
+    }
+
+    /**
+     * Runs a random batch of commands against a grid.
+     * <p>
+     * Two in five commands place a species of the farm type, one in five feeds and one in five
+     * harvests. The rest end the day one time in {@code endDayOdds}, and remove a tile otherwise.
+     * Every command targets a tile inside the grid.
+     * @param grid the grid to run the commands against, with at least one tile
+     * @param farmType the farm type of the grid, "plant" or "animal"
+     * @param random the source of the commands, so the same seed gives the same batch
+     * @param steps the number of commands to run
+     * @param endDayOdds one in how many of the remaining commands end the day
+     */
+    public static void run(Grid grid, String farmType, Random random, int steps,
+            int endDayOdds) {
+        char[] symbols = farmType.equals("plant") ? PLANTS : ANIMALS;
+        List<GridCommand> commands = new ArrayList<>(steps);
+        for (int step = 0; step < steps; step++) {
+            int row = random.nextInt(grid.getRows());
+            int column = random.nextInt(grid.getColumns());
+            commands.add(switch (random.nextInt(5)) {
+                case 0, 1 -> GridCommand.place(row, column,
+                        symbols[random.nextInt(symbols.length)]);
+                case 2 -> GridCommand.feed(row, column);
+                case 3 -> GridCommand.harvest(row, column);
+                default -> random.nextInt(endDayOdds) == 0 ? GridCommand.endDay()
+                        : GridCommand.remove(row, column);
+            });
+        }
+        new GridCommandExecutor(grid).execute(commands);
+    }
+}
@@ -0,0 +1,166 @@
+package farm.core.farmgrid;
+
+import farm.core.UnableToInteractException;
+import farm.inventory.product.Product;
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+import farm.inventory.product.data.RandomQuality;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class RegionOperationsTest {
+
+    @Before
+    public void setUp() {
+        RandomQuality.setSeed(99L);
+    }
+
+    @After
+    public void tearDown() {
+        RandomQuality.setSeed(null);
+    }
+
+    @Test
+    public void testPlantRegions() throws UnableToInteractException {
+        for (String type : List.of("object", "packed", "sparse", "default")) {
+            Grid grid = create(type, 20, 30, "plant");
+            assertEquals(type, 100, grid.placeRegion(-5, 0, 10, 10, '.'));
+            assertEquals(type, 0, grid.placeRegion(0, 0, 10, 10, ':'));
+            assertEquals(type, 0, grid.placeRegion(0, 0, 10, 10, '৬'));
+            assertEquals(type, 50, grid.placeRegion(10, 25, 40, 40, 'ἴ'));
+
+            HarvestBatch unripe = grid.harvestRegion(0, 0, 20, 30);
+            assertEquals(type, 0, unripe.getTotal());
+            assertEquals(type, 600, unripe.getSkipped());
+
+            grid.interact("end-day", 0, 0);
+            grid.interact("end-day", 0, 0);
+            HarvestBatch ripe = grid.harvestRegion(0, 0, 20, 30);
+            assertEquals(type, Map.of(Barcode.JAM, 100, Barcode.BREAD, 50),
+                    ripe.countByBarcode());
+            assertEquals(type, 450, ripe.getSkipped());
+            assertEquals(type, 150, ripe.getProducts().size());
+            assertEquals(type, 0, grid.feedRegion(0, 0, 20, 30));
+
+            assertEquals(type, 25, grid.removeRegion(0, 0, 5, 5));
+            assertEquals(type, List.of("ground", " "), grid.getStats().get(0));
+            assertEquals(type, List.of("berry", ".", "Stage: 0"), grid.getStats().get(5));
+        }
+    }
+
+    @Test
+    public void testAnimalRegions() {
+        for (String type : List.of("object", "packed", "sparse", "default")) {
+            Grid grid = create(type, 8, 8, "animal");
+            assertEquals(type, 16, grid.placeRegion(0, 0, 4, 4, '৬'));
+            assertEquals(type, 8, grid.placeRegion(4, 0, 5, 8, '४'));
+            assertEquals(type, 0, grid.harvestRegion(0, 0, 8, 8).getTotal());
+            assertEquals(type, 16, grid.feedRegion(2, 0, 100, 100));
+
+            HarvestBatch batch = grid.harvestRegion(0, 0, 8, 8);
+            assertEquals(type, Map.of(Barcode.EGG, 8, Barcode.MILK, 8), batch.countByBarcode());
+            assertEquals(type, 0, grid.harvestRegion(0, 0, 8, 8).getTotal());
+            assertEquals(type, 24, grid.removeRegion(0, 0, 8, 8));
+            assertEquals(type, 0, grid.removeRegion(0, 0, 8, 8));
+        }
+    }
+
+    @Test
+    public void testQualitiesMatchAcrossGrids() {
+        Map<Quality, Integer> expected = null;
+        for (String type : List.of("object", "packed", "sparse")) {
+            RandomQuality.setSeed(5L);
+            Grid grid = create(type, 50, 50, "animal");
+            grid.placeRegion(0, 0, 50, 50, 'ඔ');
+            grid.feedRegion(0, 0, 50, 50);
+            HarvestBatch batch = grid.harvestRegion(10, 10, 40, 40);
+            Map<Quality, Integer> qualities = new EnumMap<>(Quality.class);
+            for (Quality quality : Quality.values()) {
+                qualities.put(quality, batch.getCount(Barcode.WOOL, quality));
+            }
+            if (expected == null) {
+                expected = qualities;
+            }
+            assertEquals(type, expected, qualities);
+            assertEquals(type, 900, batch.getTotal());
+        }
+    }
+
+    @Test
+    public void testRegionsMatchSingleTileChanges() {
+        FarmGrid byRegion = new FarmGrid(6, 6, "plant");
+        FarmGrid byTile = new FarmGrid(6, 6, "plant");
+        byRegion.placeRegion(1, 2, 4, 5, ':');
+        for (int i = 1; i < 4; i++) {
+            for (int j = 2; j < 5; j++) {
+                byTile.place(i, j, ':');
+            }
+        }
+        assertEquals(byTile.getStats(), byRegion.getStats());
+        assertEquals(byTile.farmDisplay(), byRegion.farmDisplay());
+    }
+
+    private static Grid create(String type, int rows, int columns, String farmType) {
+        return switch (type) {
+            case "object" -> new FarmGrid(rows, columns, farmType);
+            case "packed" -> new PackedFarmGrid(rows, columns, farmType);
+            case "sparse" -> new SparseFarmGrid(rows, columns, farmType);
+            default -> new CellOnlyGrid(new FarmGrid(rows, columns, farmType));
+        };
+    }
+
+    /**
+     * A grid which only forwards the single-tile operations, so that the default region
+     * operations on {@link Grid} are used.
+     */
+    private static class CellOnlyGrid implements Grid {
+        private final Grid grid;
+
+        CellOnlyGrid(Grid grid) {
+            this.grid = grid;
+        }
+
+        @Override
+        public boolean interact(String command, int row, int column)
+                throws UnableToInteractException {
+            return grid.interact(command, row, column);
+        }
+
+        @Override
+        public boolean place(int row, int column, char symbol) {
+            return grid.place(row, column, symbol);
+        }
+
+        @Override
+        public Product harvest(int row, int column) throws UnableToInteractException {
+            return grid.harvest(row, column);
+        }
+
+        @Override
+        public String farmDisplay() {
+            return grid.farmDisplay();
+        }
+
+        @Override
+        public List<List<String>> getStats() {
+            return grid.getStats();
+        }
+
+        @Override
+        public int getRows() {
+            return grid.getRows();
+        }
+
+        @Override
+        public int getColumns() {
+            return grid.getColumns();
+        }
+    }
+}
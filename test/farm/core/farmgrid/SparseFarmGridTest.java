@@ -0,0 +1,97 @@
+package farm.core.farmgrid;
+
+import farm.core.UnableToInteractException;
+import farm.inventory.product.data.RandomQuality;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SparseFarmGridTest {
+    @Before
+    public void setUp() {
+        RandomQuality.setSeed(7L);
+    }
+
+    @After
+    public void tearDown() {
+        RandomQuality.setSeed(null);
+    }
+
+    @Test
+    public void testPlantFarmMatchesFarmGrid() {
+        GridBehaviour.assertMatchesFarmGrid(SparseFarmGrid::new, "plant", 8, 5, 3);
+    }
+
+    @Test
+    public void testAnimalFarmMatchesFarmGrid() {
+        GridBehaviour.assertMatchesFarmGrid(SparseFarmGrid::new, "animal", 5, 8, 4);
+    }
+
+    @Test
+    public void testGroundStatsAndDisplay() {
+        SparseFarmGrid grid = new SparseFarmGrid(3, 4, "animal");
+        FarmGrid expected = new FarmGrid(3, 4, "animal");
+        grid.place(1, 3, '৬');
+        expected.place(1, 3, '৬');
+        assertEquals(expected.getStats(), grid.getStats());
+        assertEquals(expected.farmDisplay(), grid.farmDisplay());
+        assertEquals(List.of("ground", " "), grid.getStats().get(0));
+        assertEquals(1, grid.getOccupiedCount());
+    }
+
+    @Test
+    public void testHugeMostlyEmptyGrid() throws UnableToInteractException {
+        SparseFarmGrid grid = new SparseFarmGrid(40_000, 40_000, "plant");
+        for (int i = 0; i < 40_000; i += 100) {
+            grid.place(i, 39_999 - i, 'ἴ');
+        }
+        grid.interact("end-day", 0, 0);
+        List<List<String>> stats = grid.getStats();
+        assertEquals(1_600_000_000, stats.size());
+        assertEquals(List.of("wheat", "#", "Stage: 2"), stats.get(100 * 40_000 + 39_899));
+        assertEquals(List.of("ground", " "), stats.get(1));
+        assertEquals(400, grid.getOccupiedCount());
+        grid.harvest(0, 39_999);
+        grid.interact("remove", 0, 39_999);
+        assertEquals(399, grid.getOccupiedCount());
+    }
+
+    @Test
+    public void testTileMapMatchesHashMap() {
+        TileMap tiles = new TileMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, tiles.remove(key));
+            } else {
+                expected.put(key, i);
+                tiles.put(key, i);
+            }
+            if (i % 1_000 == 0) {
+                assertEquals(expected.size(), tiles.size());
+            }
+        }
+        for (int key = 0; key < 5_000; key++) {
+            assertEquals((int) expected.getOrDefault(key, TileMap.EMPTY), tiles.get(key));
+        }
+        for (int key = 0; key < 5_000; key++) {
+            tiles.remove(key);
+        }
+        assertEquals(0, tiles.size());
+        assertEquals(16, tiles.capacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGridTooLarge() {
+        new SparseFarmGrid(100_000, 100_000, "plant");
+    }
+}
@@ -0,0 +1,148 @@
+package farm.core.farmgrid;
+
+import farm.core.animals.Cow;
+import farm.core.plants.Berry;
+import farm.core.plants.Wheat;
+import farm.inventory.product.data.RandomQuality;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SpeciesRegistryTest {
+
+    @Test
+    public void testBuiltInSpecies() {
+        SpeciesRegistry registry = SpeciesRegistry.getDefault();
+        assertTrue(registry.createPlant('.') instanceof Berry);
+        assertTrue(registry.createPlant('ἴ') instanceof Wheat);
+        assertTrue(registry.createAnimal('४') instanceof Cow);
+        assertNull(registry.createPlant('४'));
+        assertNull(registry.createAnimal('.'));
+        assertNull(registry.createPlant('F'));
+        assertNotSame(registry.createPlant(':'), registry.createPlant(':'));
+        assertEquals(Character.valueOf('ඔ'), registry.findSymbol("sheep"));
+        assertNull(registry.findSymbol("goat"));
+        assertTrue(registry.isPlant(':'));
+        assertFalse(registry.isAnimal(':'));
+    }
+
+    @Test
+    public void testRegisteredSpeciesOnPackedGrids() {
+        SpeciesRegistry registry = SpeciesRegistry.getDefault();
+        if (registry.findSymbol("gourd") == null) {
+            registry.registerPlant("gourd", 'G', Gourd::new);
+            registry.registerAnimal("llama", 'L', Llama::new);
+        }
+        char[] symbols = {'G', 'L', '.', '४', 'F'};
+        RandomQuality.setSeed(29L);
+        try {
+            for (String type : List.of("plant", "animal")) {
+                GridBehaviour.assertMatchesFarmGrid(PackedFarmGrid::new, type, 4, 5, 17,
+                        symbols);
+                GridBehaviour.assertMatchesFarmGrid(SparseFarmGrid::new, type, 4, 5, 19,
+                        symbols);
+            }
+        } finally {
+            RandomQuality.setSeed(null);
+        }
+        assertTrue(new PackedFarmGrid(1, 1, "plant").canPlace('G'));
+        assertFalse(new PackedFarmGrid(1, 1, "animal").canPlace('G'));
+        assertTrue(new SparseFarmGrid(1, 1, "animal").canPlace('L'));
+        assertFalse(new SparseFarmGrid(1, 1, "plant").canPlace('L'));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPlantWhichNeverRipensRejectedByPackedGrid() {
+        SpeciesRegistry registry = SpeciesRegistry.getDefault();
+        if (registry.findSymbol("bramble") == null) {
+            registry.registerPlant("bramble", 'B', Bramble::new);
+        }
+        new PackedFarmGrid(1, 1, "plant").place(0, 0, 'B');
+    }
+
+    @Test
+    public void testCustomSpecies() {
+        SpeciesRegistry registry = new SpeciesRegistry();
+        registry.registerPlant("pumpkin", 'P', Pumpkin::new);
+        PlantFarm farm = new PlantFarm(registry);
+        Object item = farm.createItem('P');
+        assertTrue(farm.isValidForFarm(item));
+        assertEquals(List.of("pumpkin", ".", "Stage: 1"), farm.getItemStats(item));
+        assertNull(farm.createItem('.'));
+        assertFalse(new AnimalFarm(registry).isValidForFarm(new AnimalFarm(registry)
+                .createItem('P')));
+    }
+
+    @Test
+    public void testRegisteredSpeciesPlacedByBatch() {
+        SpeciesRegistry registry = SpeciesRegistry.getDefault();
+        if (registry.findSymbol("marrow") == null) {
+            registry.registerPlant("marrow", 'M', Marrow::new);
+        }
+        FarmGrid grid = new FarmGrid(2, 2, "plant");
+        GridCommandExecutor.Result result = new GridCommandExecutor(grid).execute(List.of(
+                GridCommand.place(0, 1, 'M'), GridCommand.place(1, 0, '.')));
+        assertArrayEquals(new byte[] {GridCommandExecutor.SUCCEEDED,
+                GridCommandExecutor.SUCCEEDED}, result.getStatuses());
+        assertEquals(List.of("marrow", ".", "Stage: 1"), grid.getStats().get(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateSymbol() {
+        SpeciesRegistry registry = SpeciesRegistry.load(getClass().getClassLoader());
+        registry.registerAnimal("hen", '৬', Cow::new);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDuplicateName() {
+        SpeciesRegistry registry = SpeciesRegistry.load(getClass().getClassLoader());
+        registry.registerPlant("berry", 'b', Berry::new);
+    }
+
+    private static class Pumpkin extends Berry {
+        @Override
+        public String getType() {
+            return "pumpkin";
+        }
+    }
+
+    private static class Marrow extends Berry {
+        @Override
+        public String getType() {
+            return "marrow";
+        }
+    }
+
+    private static class Gourd extends Wheat {
+        @Override
+        public String getType() {
+            return "gourd";
+        }
+    }
+
+    private static class Llama extends Cow {
+        @Override
+        public String getSymbol() {
+            return "L";
+        }
+
+        @Override
+        public String getType() {
+            return "llama";
+        }
+    }
+
+    private static class Bramble extends Berry {
+        @Override
+        public boolean isHarvestable() {
+            return false;
+        }
+
+        @Override
+        public String getType() {
+            return "bramble";
+        }
+    }
+}
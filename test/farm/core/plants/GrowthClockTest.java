@@ -0,0 +1,66 @@
+package farm.core.plants;
+
+import farm.core.UnableToInteractException;
+import farm.inventory.product.data.Quality;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+public class GrowthClockTest {
+
+    @Test
+    public void testClockedPlantsMatchGrownPlants() throws UnableToInteractException {
+        List<Supplier<Plant>> species = List.of(Berry::new, CoffeePlant::new, Wheat::new);
+        Random random = new Random(17);
+        for (Supplier<Plant> factory : species) {
+            Plant grown = factory.get();
+            Plant clocked = factory.get();
+            GrowthClock clock = new GrowthClock();
+            assertTrue(clocked.followClock(clock));
+            for (int step = 0; step < 2_000; step++) {
+                switch (random.nextInt(4)) {
+                    case 0, 1 -> {
+                        grown.grow();
+                        clock.advance();
+                    }
+                    case 2 -> {
+                        assertEquals(grown.isHarvestable(), clocked.isHarvestable());
+                        if (grown.isHarvestable()) {
+                            assertEquals(grown.harvest(Quality.GOLD).getBarcode(),
+                                    clocked.harvest(Quality.GOLD).getBarcode());
+                        }
+                    }
+                    default -> {
+                        grown.reset();
+                        clocked.reset();
+                    }
+                }
+                assertEquals(grown.getsStats(), clocked.getsStats());
+                assertEquals(grown.isHarvestable(), clocked.isHarvestable());
+            }
+        }
+    }
+
+    @Test
+    public void testFollowingClockKeepsStage() {
+        Plant plant = new CoffeePlant();
+        plant.grow();
+        plant.grow();
+        GrowthClock clock = new GrowthClock();
+        clock.advance();
+        plant.followClock(clock);
+        assertEquals(List.of("coffee", "*", "Stage: 3"), plant.getsStats());
+        plant.grow();
+        assertEquals(List.of("coffee", "*", "Stage: 3"), plant.getsStats());
+        for (int day = 0; day < 1_000; day++) {
+            clock.advance();
+        }
+        assertEquals(1_001, clock.getDay());
+        assertEquals(List.of("coffee", "%", "Stage: 4"), plant.getsStats());
+        assertTrue(plant.isHarvestable());
+    }
+}
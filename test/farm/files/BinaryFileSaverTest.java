@@ -0,0 +1,125 @@
+package farm.files;
+
+import farm.core.UnableToInteractException;
+import farm.core.farmgrid.FarmGrid;
+import farm.core.farmgrid.Grid;
+import farm.core.farmgrid.GridCommand;
+import farm.core.farmgrid.GridCommandExecutor;
+import farm.core.farmgrid.PackedFarmGrid;
+import farm.core.farmgrid.RandomGridCommands;
+import farm.core.farmgrid.SparseFarmGrid;
+import farm.inventory.product.data.RandomQuality;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BinaryFileSaverTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        RandomQuality.setSeed(31L);
+    }
+
+    @After
+    public void tearDown() {
+        RandomQuality.setSeed(null);
+    }
+
+    @Test
+    public void testRoundTripKeepsEveryTile() throws IOException {
+        for (String farmType : List.of("plant", "animal")) {
+            for (Grid grid : List.of(new FarmGrid(7, 9, farmType),
+                    new PackedFarmGrid(7, 9, farmType), new SparseFarmGrid(7, 9, farmType))) {
+                fill(grid, farmType);
+                File file = folder.newFile();
+                new BinaryFileSaver().save(file.getPath(), grid);
+                assertEquals(20 + 7 * 9 * 4, file.length());
+                assertTrue(BinaryFileLoader.isBinaryFile(file.getPath()));
+
+                Grid loaded = new BinaryFileLoader().load(file.getPath());
+                assertEquals(farmType, loaded.toString());
+                assertEquals(grid.getStats(), loaded.getStats());
+                assertEquals(grid.farmDisplay(), loaded.farmDisplay());
+            }
+        }
+    }
+
+    @Test
+    public void testLoadedPlantsKeepGrowing() throws IOException, UnableToInteractException {
+        FarmGrid grid = new FarmGrid(2, 2, "plant");
+        grid.place(0, 0, ':');
+        grid.place(1, 1, 'ἴ');
+        endDay(grid);
+        grid.harvest(1, 1);
+        File file = folder.newFile();
+        new BinaryFileSaver().save(file.getPath(), grid);
+
+        Grid loaded = new BinaryFileLoader().load(file.getPath());
+        for (int day = 0; day < 3; day++) {
+            endDay(grid);
+            endDay(loaded);
+            assertEquals(grid.getStats(), loaded.getStats());
+        }
+    }
+
+    @Test
+    public void testCorruptFileRejected() throws IOException {
+        FarmGrid grid = new FarmGrid(3, 3, "animal");
+        grid.place(1, 1, '४');
+        File file = folder.newFile();
+        new BinaryFileSaver().save(file.getPath(), grid);
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(20 + 4 * 4 + 3);
+            raw.write(0x01);
+        }
+        assertLoadFails(file, "checksum");
+
+        new BinaryFileSaver().save(file.getPath(), grid);
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.setLength(raw.length() - 1);
+        }
+        assertLoadFails(file, "truncated");
+    }
+
+    @Test
+    public void testTextExportIsNotBinary() throws IOException {
+        FarmGrid grid = new FarmGrid(2, 2, "plant");
+        File file = folder.newFile();
+        new FileSaver().save(file.getPath(), grid);
+        assertFalse(BinaryFileLoader.isBinaryFile(file.getPath()));
+        assertFalse(BinaryFileLoader.isBinaryFile(new File(folder.getRoot(), "missing")
+                .getPath()));
+        assertLoadFails(file, "Not a binary farm file");
+    }
+
+    private void assertLoadFails(File file, String message) {
+        try {
+            new BinaryFileLoader().load(file.getPath());
+            fail("Expected loading to fail with " + message);
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains(message));
+        }
+    }
+
+    private static void fill(Grid grid, String farmType) {
+        RandomGridCommands.run(grid, farmType, new Random(5), 150, 5);
+    }
+
+    private static void endDay(Grid grid) {
+        new GridCommandExecutor(grid).execute(List.of(GridCommand.endDay()));
+    }
+}
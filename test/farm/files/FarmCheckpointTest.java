@@ -0,0 +1,254 @@
+package farm.files;
+
+import farm.core.DuplicateCustomerException;
+import farm.core.FailedTransactionException;
+import farm.core.Farm;
+import farm.core.InvalidStockRequestException;
+import farm.core.farmgrid.FarmGrid;
+import farm.core.farmgrid.Grid;
+import farm.customer.AddressBook;
+import farm.customer.Customer;
+import farm.inventory.BasicInventory;
+import farm.inventory.ConcurrentInventory;
+import farm.inventory.FancyInventory;
+import farm.inventory.PerishableInventory;
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+import farm.inventory.product.data.RandomQuality;
+import farm.sales.TransactionHistory;
+import farm.sales.transaction.CategorisedTransaction;
+import farm.sales.transaction.SpecialSaleTransaction;
+import farm.sales.transaction.Transaction;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class FarmCheckpointTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Farm farm;
+    private FarmGrid grid;
+
+    @Before
+    public void setUp() throws DuplicateCustomerException, InvalidStockRequestException,
+            FailedTransactionException {
+        RandomQuality.setSeed(23L);
+        AddressBook addressBook = new AddressBook();
+        Customer ali = new Customer("Ali", 33651111, "UQ");
+        addressBook.addCustomer(ali);
+        addressBook.addCustomer(new Customer("James", 1234, null));
+        farm = new Farm(new PerishableInventory(), addressBook);
+        farm.stockProduct(Barcode.EGG, Quality.GOLD, 6);
+        farm.stockProduct(Barcode.MILK, Quality.REGULAR, 4);
+        farm.stockProduct(Barcode.WOOL, Quality.IRIDIUM, 3);
+        farm.endDay();
+        farm.stockProduct(Barcode.EGG, Quality.REGULAR, 5);
+
+        farm.startTransaction(new SpecialSaleTransaction(ali,
+                Map.of(Barcode.EGG, 10, Barcode.JAM, 0)));
+        farm.addToCart(Barcode.EGG, 3);
+        farm.addToCart(Barcode.WOOL);
+        farm.checkout();
+        farm.startTransaction(new CategorisedTransaction(new Customer("Visitor", 99, "Road")));
+        farm.addToCart(Barcode.MILK, 2);
+        farm.checkout();
+        farm.startTransaction(new Transaction(ali));
+        farm.addToCart(Barcode.EGG);
+        farm.checkout();
+
+        grid = new FarmGrid(6, 8, "animal");
+        grid.placeRegion(0, 0, 4, 8, '৬');
+        grid.feedRegion(0, 0, 2, 8);
+        grid.harvestRegion(0, 0, 1, 8);
+    }
+
+    @After
+    public void tearDown() {
+        RandomQuality.setSeed(null);
+    }
+
+    @Test
+    public void testRestoresWholeFarm() throws IOException {
+        File file = folder.newFile();
+        new FarmCheckpointSaver().save(file.getPath(), farm, grid);
+
+        FarmCheckpoint checkpoint = FarmCheckpoint.open(file.getPath());
+        assertTrue(checkpoint.hasGrid());
+        Grid restoredGrid = checkpoint.loadGrid();
+        assertEquals(grid.getStats(), restoredGrid.getStats());
+
+        PerishableInventory inventory = new PerishableInventory();
+        Farm restored = checkpoint.loadFarm(inventory);
+        assertEquals(farm.getAllStock(), restored.getAllStock());
+        assertEquals(farm.getAllCustomers().toString(), restored.getAllCustomers().toString());
+        assertNull(restored.getAllCustomers().get(1).getAddress());
+
+        List<Transaction> expected = farm.getTransactionHistory().getTransactions();
+        List<Transaction> actual = restored.getTransactionHistory().getTransactions();
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getClass(), actual.get(i).getClass());
+            assertEquals(expected.get(i).getReceipt(), actual.get(i).getReceipt());
+            assertEquals(expected.get(i).getTotal(), actual.get(i).getTotal());
+        }
+        assertEquals(Map.of(Barcode.EGG, 10, Barcode.JAM, 0),
+                ((SpecialSaleTransaction) actual.getFirst()).getDiscounts());
+        assertSame(restored.getAllCustomers().getFirst(),
+                actual.getFirst().getAssociatedCustomer());
+        TransactionHistory history = farm.getTransactionHistory();
+        assertEquals(history.getGrossEarnings(),
+                restored.getTransactionHistory().getGrossEarnings());
+
+        for (int day = 0; day < 6; day++) {
+            assertEquals(farm.endDay(), restored.endDay());
+            assertEquals(farm.getAllStock(), restored.getAllStock());
+        }
+    }
+
+    @Test
+    public void testKeepsOrderOfBasicInventory() throws IOException {
+        BasicInventory stock = new BasicInventory();
+        for (Quality quality : List.of(Quality.GOLD, Quality.REGULAR, Quality.REGULAR,
+                Quality.GOLD)) {
+            stock.addProduct(Barcode.JAM, quality);
+            stock.addProduct(Barcode.COFFEE, quality);
+        }
+        Farm basic = new Farm(stock, new AddressBook());
+        File file = folder.newFile();
+        new FarmCheckpointSaver().save(file.getPath(), basic, null);
+
+        FarmCheckpoint checkpoint = FarmCheckpoint.open(file.getPath());
+        assertFalse(checkpoint.hasGrid());
+        assertNull(checkpoint.loadGrid());
+        Farm restored = checkpoint.loadFarm(new BasicInventory());
+        assertEquals(basic.getAllStock(), restored.getAllStock());
+        assertEquals(List.of(), restored.getAllCustomers());
+        assertEquals(0, restored.getTransactionHistory().getTotalTransactionsMade());
+    }
+
+    @Test
+    public void testRestoresIntoSavedKindOfInventory() throws IOException {
+        farm = new Farm(new PerishableInventory(Map.of(Barcode.MILK, 2, Barcode.JAM, 9)),
+                new AddressBook());
+        farm.stockProduct(Barcode.MILK, Quality.SILVER);
+        farm.stockProduct(Barcode.JAM, Quality.GOLD);
+        farm.endDay();
+        farm.stockProduct(Barcode.MILK, Quality.REGULAR);
+        File file = folder.newFile();
+        new FarmCheckpointSaver().save(file.getPath(), farm, null);
+
+        Farm restored = FarmCheckpoint.open(file.getPath()).loadFarm();
+        PerishableInventory inventory = (PerishableInventory) restored.getInventory();
+        assertEquals(2, inventory.getShelfLife(Barcode.MILK));
+        assertEquals(9, inventory.getShelfLife(Barcode.JAM));
+        assertEquals(0, inventory.getShelfLife(Barcode.EGG));
+        assertEquals(1, inventory.getExpiringQuantity(Barcode.MILK));
+        assertEquals(farm.getAllStock(), restored.getAllStock());
+        assertEquals(1, restored.endDay());
+        assertEquals(1, farm.endDay());
+        assertEquals(farm.getAllStock(), restored.getAllStock());
+
+        Farm concurrent = new Farm(new ConcurrentInventory(), new AddressBook());
+        concurrent.stockProduct(Barcode.WOOL, Quality.IRIDIUM);
+        new FarmCheckpointSaver().save(file.getPath(), concurrent, null);
+        restored = FarmCheckpoint.open(file.getPath()).loadFarm();
+        assertTrue(restored.getInventory() instanceof ConcurrentInventory);
+        assertEquals(concurrent.getAllStock(), restored.getAllStock());
+    }
+
+    @Test
+    public void testKeepsAgesBeyondSignedShort() throws IOException {
+        farm = new Farm(new PerishableInventory(Map.of(Barcode.JAM, 40_000)), new AddressBook());
+        farm.stockProduct(Barcode.JAM, Quality.GOLD);
+        for (int day = 0; day < 35_000; day++) {
+            farm.endDay();
+        }
+        File file = folder.newFile();
+        new FarmCheckpointSaver().save(file.getPath(), farm, null);
+
+        Farm restored = FarmCheckpoint.open(file.getPath()).loadFarm();
+        assertEquals(farm.getAllStock(), restored.getAllStock());
+        PerishableInventory inventory = (PerishableInventory) restored.getInventory();
+        assertEquals(40_000, inventory.getShelfLife(Barcode.JAM));
+        for (int day = 0; day < 4_999; day++) {
+            assertEquals(0, restored.endDay());
+        }
+        assertEquals(1, restored.endDay());
+    }
+
+    @Test
+    public void testShelfLifeTooLongToSaveRejected() throws IOException {
+        farm = new Farm(new PerishableInventory(Map.of(Barcode.JAM, 0x10000)), new AddressBook());
+        File file = folder.newFile();
+        try {
+            new FarmCheckpointSaver().save(file.getPath(), farm, null);
+            fail("Expected a shelf life too long for the checkpoint to be rejected");
+        } catch (IllegalArgumentException expected) {
+            assertEquals(0, file.length());
+        }
+    }
+
+    @Test
+    public void testPerishableStockRejectedByOtherInventory() throws IOException {
+        File file = folder.newFile();
+        new FarmCheckpointSaver().save(file.getPath(), farm, null);
+        FarmCheckpoint checkpoint = FarmCheckpoint.open(file.getPath());
+        FancyInventory inventory = new FancyInventory();
+        try {
+            checkpoint.loadStock(inventory);
+            fail("Expected perishable stock to be rejected by a fancy inventory");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(inventory.getAllProducts().isEmpty());
+        }
+    }
+
+    @Test
+    public void testSectionsLoadedIndependently() throws IOException {
+        File file = folder.newFile();
+        new FarmCheckpointSaver().save(file.getPath(), farm, grid);
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            for (int entry = 0; entry < 4; entry++) {
+                raw.seek(FarmCheckpointFormat.HEADER_SIZE
+                        + (long) entry * FarmCheckpointFormat.ENTRY_SIZE);
+                if (raw.readInt() == FarmCheckpointFormat.HISTORY) {
+                    raw.seek(raw.readLong() + 10);
+                    raw.write(0x55);
+                }
+            }
+        }
+
+        FarmCheckpoint checkpoint = FarmCheckpoint.open(file.getPath());
+        assertEquals(grid.getStats(), checkpoint.loadGrid().getStats());
+        assertEquals(2, checkpoint.loadAddressBook().getAllRecords().size());
+        try {
+            checkpoint.loadHistory(new AddressBook());
+            fail("Expected the corrupt history to be rejected");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("checksum"));
+        }
+    }
+
+    @Test
+    public void testNotACheckpoint() throws IOException {
+        File file = folder.newFile();
+        new BinaryFileSaver().save(file.getPath(), grid);
+        try {
+            FarmCheckpoint.open(file.getPath());
+            fail("Expected a grid save to be rejected");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("Not a farm"));
+        }
+    }
+}
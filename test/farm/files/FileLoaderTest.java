@@ -0,0 +1,107 @@
+package farm.files;
+
+import farm.core.farmgrid.FarmGrid;
+import farm.core.farmgrid.Grid;
+import farm.core.farmgrid.RandomGridCommands;
+import farm.inventory.product.data.RandomQuality;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+
+public class FileLoaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        RandomQuality.setSeed(41L);
+    }
+
+    @After
+    public void tearDown() {
+        RandomQuality.setSeed(null);
+    }
+
+    @Test
+    public void testRoundTripKeepsEveryTile() throws IOException {
+        for (String farmType : List.of("plant", "animal")) {
+            for (int[] size : new int[][] {{4, 9}, {9, 4}, {1, 1}, {120, 130}}) {
+                FarmGrid grid = new FarmGrid(size[0], size[1], farmType);
+                fill(grid, farmType);
+                File file = folder.newFile();
+                new FileSaver().save(file.getPath(), grid);
+
+                Grid loaded = new FileLoader().load(file.getPath());
+                assertEquals(farmType, loaded.toString());
+                assertEquals(grid.getStats(), loaded.getStats());
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyGrid() throws IOException {
+        File file = folder.newFile();
+        new FileSaver().save(file.getPath(), new FarmGrid(0, 0, "plant"));
+        assertEquals(List.of(), new FileLoader().load(file.getPath()).getStats());
+    }
+
+    @Test
+    public void testBackgroundExportWritesSnapshot() throws IOException {
+        FarmGrid grid = new FarmGrid(12, 15, "animal");
+        fill(grid, "animal");
+        List<List<String>> saved = grid.getStats();
+        List<Runnable> writes = new ArrayList<>();
+        File file = folder.newFile();
+        CompletableFuture<Void> save = new FileSaver().saveInBackground(file.getPath(), grid,
+                writes::add);
+
+        grid.feedRegion(0, 0, 12, 15);
+        assertNotEquals(saved, grid.getStats());
+        assertFalse(save.isDone());
+        writes.removeFirst().run();
+        assertTrue(save.isDone());
+        assertEquals(saved, new FileLoader().load(file.getPath()).getStats());
+
+        save = new FileSaver().saveInBackground(new File(folder.getRoot(), "missing/farm.txt")
+                .getPath(), grid, Runnable::run);
+        assertTrue(save.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testMalformedFilesRejected() throws IOException {
+        String header = "plant\nRows: 1\nColumns: 2\n";
+        for (String stats : List.of("Stats: [[ground,  ]]", "Stats: [[ground,  ], [ground,  ]",
+                "Stats: [[ground,  ], [berry, ., Stage: x]]", "Stats: [[ground,  ], [cow, ४]]",
+                "Stats: [[ground,  ], [pumpkin, P, Stage: 1]]",
+                "Stats: [[ground,  ] [ground,  ]]", "Stats: [[a, b, c, d, e]]",
+                "Stats: [[" + "x".repeat(100) + ", y]]", "Stats: ")) {
+            File file = folder.newFile();
+            Files.writeString(file.toPath(), header + stats + "\n");
+            try {
+                new FileLoader().load(file.getPath());
+                fail("Expected " + stats + " to be rejected");
+            } catch (IOException expected) {
+                // expected
+            }
+        }
+    }
+
+    private static void fill(Grid grid, String farmType) {
+        RandomGridCommands.run(grid, farmType,
+                new Random(grid.getRows() * 31L + grid.getColumns()),
+                4 * grid.getRows() * grid.getColumns(), 9);
+    }
+}
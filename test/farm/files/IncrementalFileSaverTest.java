@@ -0,0 +1,259 @@
+package farm.files;
+
+import farm.core.farmgrid.FarmGrid;
+import farm.core.farmgrid.Grid;
+import farm.core.farmgrid.PackedFarmGrid;
+import farm.core.farmgrid.RandomGridCommands;
+import farm.inventory.product.data.RandomQuality;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+
+public class IncrementalFileSaverTest {
+    private static final int BASE_SIZE = 20 + 30 * 40 * 4;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final List<Runnable> compactions = new ArrayList<>();
+    private Random random;
+
+    @Before
+    public void setUp() {
+        RandomQuality.setSeed(17L);
+        random = new Random(3);
+    }
+
+    @After
+    public void tearDown() {
+        RandomQuality.setSeed(null);
+    }
+
+    @Test
+    public void testDeltasReplayToLatestSave() throws IOException {
+        for (String farmType : List.of("plant", "animal")) {
+            File file = folder.newFile();
+            IncrementalFileSaver saver = new IncrementalFileSaver(file.getPath(),
+                    compactions::add);
+            FarmGrid grid = new FarmGrid(30, 40, farmType);
+            saver.save(grid);
+            assertEquals(BASE_SIZE, file.length());
+            assertEquals(0, grid.getChangedCount());
+
+            long length = file.length();
+            for (int save = 0; save < 5; save++) {
+                change(grid, farmType, 40);
+                int changed = grid.getChangedCount();
+                saver.save(grid);
+                assertEquals(length + 16 + 8L * changed, file.length());
+                length = file.length();
+                assertEquals(0, grid.getChangedCount());
+                assertEquals(0, grid.getEndedDays());
+
+                Grid loaded = new BinaryFileLoader().load(file.getPath());
+                assertEquals(farmType, grid.getStats(), loaded.getStats());
+                assertEquals(farmType, grid.farmDisplay(), loaded.farmDisplay());
+            }
+        }
+    }
+
+    @Test
+    public void testUnchangedGridWritesNothing() throws IOException {
+        File file = folder.newFile();
+        IncrementalFileSaver saver = new IncrementalFileSaver(file.getPath(), compactions::add);
+        FarmGrid grid = new FarmGrid(30, 40, "plant");
+        grid.place(1, 1, ':');
+        saver.save(grid);
+        saver.save(grid);
+        assertEquals(BASE_SIZE, file.length());
+    }
+
+    @Test
+    public void testBaseWrittenWhenChangesAreNotTracked() throws IOException {
+        File file = folder.newFile();
+        IncrementalFileSaver saver = new IncrementalFileSaver(file.getPath(), compactions::add);
+        FarmGrid first = new FarmGrid(30, 40, "animal");
+        saver.save(first);
+        change(first, "animal", 20);
+        saver.save(first);
+        assertTrue(file.length() > BASE_SIZE);
+
+        Grid packed = new PackedFarmGrid(30, 40, "animal");
+        change(packed, "animal", 20);
+        saver.save(packed);
+        assertEquals(BASE_SIZE, file.length());
+        change(packed, "animal", 20);
+        saver.save(packed);
+        assertEquals(BASE_SIZE, file.length());
+        assertEquals(packed.getStats(),
+                new BinaryFileLoader().load(file.getPath()).getStats());
+    }
+
+    @Test
+    public void testTornSegmentIgnored() throws IOException {
+        File file = folder.newFile();
+        IncrementalFileSaver saver = new IncrementalFileSaver(file.getPath(), compactions::add);
+        FarmGrid grid = new FarmGrid(30, 40, "plant");
+        saver.save(grid);
+        change(grid, "plant", 30);
+        saver.save(grid);
+        List<List<String>> saved = grid.getStats();
+        change(grid, "plant", 30);
+        saver.save(grid);
+
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.setLength(raw.length() - 3);
+        }
+        assertEquals(saved, new BinaryFileLoader().load(file.getPath()).getStats());
+
+        change(grid, "plant", 10);
+        saver.save(grid);
+        assertEquals(BASE_SIZE, file.length());
+        assertEquals(grid.getStats(), new BinaryFileLoader().load(file.getPath()).getStats());
+    }
+
+    @Test
+    public void testCorruptSegmentRejected() throws IOException {
+        File file = folder.newFile();
+        IncrementalFileSaver saver = new IncrementalFileSaver(file.getPath(), compactions::add);
+        FarmGrid grid = new FarmGrid(30, 40, "animal");
+        saver.save(grid);
+        change(grid, "animal", 30);
+        saver.save(grid);
+        change(grid, "animal", 30);
+        saver.save(grid);
+
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(BASE_SIZE + 12 + 4);
+            raw.write(0x7F);
+        }
+        try {
+            new BinaryFileLoader().load(file.getPath());
+            fail("Expected the corrupt segment to be rejected");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("checksum"));
+        }
+    }
+
+    @Test
+    public void testCompactionFoldsDeltasIntoBase() throws IOException {
+        File file = folder.newFile();
+        IncrementalFileSaver saver = new IncrementalFileSaver(file.getPath(), compactions::add);
+        FarmGrid grid = new FarmGrid(30, 40, "plant");
+        saver.save(grid);
+        while (compactions.isEmpty()) {
+            change(grid, "plant", 60);
+            saver.save(grid);
+        }
+        long compactedLength = file.length();
+
+        change(grid, "plant", 20);
+        int changed = grid.getChangedCount();
+        saver.save(grid);
+        long appended = file.length() - compactedLength;
+        assertEquals(16 + 8L * changed, appended);
+        assertEquals(1, compactions.size());
+
+        compactions.removeFirst().run();
+        assertEquals(BASE_SIZE + appended, file.length());
+        assertEquals(grid.getStats(), new BinaryFileLoader().load(file.getPath()).getStats());
+
+        change(grid, "plant", 20);
+        saver.save(grid);
+        assertEquals(grid.getStats(), new BinaryFileLoader().load(file.getPath()).getStats());
+        assertEquals(grid.farmDisplay(),
+                new BinaryFileLoader().load(file.getPath()).farmDisplay());
+    }
+
+    @Test
+    public void testCompactionAbandonedAfterNewBase() throws IOException {
+        File file = folder.newFile();
+        IncrementalFileSaver saver = new IncrementalFileSaver(file.getPath(), compactions::add);
+        FarmGrid grid = new FarmGrid(30, 40, "animal");
+        saver.save(grid);
+        while (compactions.isEmpty()) {
+            change(grid, "animal", 60);
+            saver.save(grid);
+        }
+        FarmGrid other = new FarmGrid(30, 40, "animal");
+        change(other, "animal", 10);
+        saver.save(other);
+
+        compactions.removeFirst().run();
+        assertEquals(BASE_SIZE, file.length());
+        assertEquals(other.getStats(), new BinaryFileLoader().load(file.getPath()).getStats());
+        assertEquals(1, file.getParentFile().list().length);
+    }
+
+    @Test
+    public void testBackgroundSavesWriteSnapshotsInOrder() throws IOException {
+        File file = folder.newFile();
+        IncrementalFileSaver saver = new IncrementalFileSaver(file.getPath(), compactions::add);
+        List<Runnable> writes = new ArrayList<>();
+        FarmGrid grid = new FarmGrid(30, 40, "plant");
+        change(grid, "plant", 30);
+        List<CompletableFuture<Void>> saves = new ArrayList<>();
+        List<List<List<String>>> snapshots = new ArrayList<>();
+        for (int save = 0; save < 3; save++) {
+            saves.add(saver.saveInBackground(grid, writes::add));
+            snapshots.add(grid.getStats());
+            change(grid, "plant", 30);
+        }
+        assertEquals(0, file.length());
+        assertEquals(1, writes.size());
+
+        for (int save = 0; save < 3; save++) {
+            writes.removeFirst().run();
+            assertTrue(saves.get(save).isDone());
+            assertEquals(snapshots.get(save),
+                    new BinaryFileLoader().load(file.getPath()).getStats());
+        }
+        assertTrue(writes.isEmpty());
+
+        saver.save(grid);
+        assertEquals(grid.getStats(), new BinaryFileLoader().load(file.getPath()).getStats());
+    }
+
+    @Test
+    public void testFailedSaveMakesNextSaveWriteBase() throws IOException {
+        File directory = folder.newFolder();
+        File file = new File(directory, "farm.bin");
+        IncrementalFileSaver saver = new IncrementalFileSaver(file.getPath(), compactions::add);
+        FarmGrid grid = new FarmGrid(30, 40, "animal");
+        saver.save(grid);
+
+        List<Runnable> writes = new ArrayList<>();
+        change(grid, "animal", 20);
+        CompletableFuture<Void> failing = saver.saveInBackground(grid, writes::add);
+        change(grid, "animal", 20);
+        CompletableFuture<Void> following = saver.saveInBackground(grid, writes::add);
+        assertTrue(file.delete());
+        assertTrue(directory.delete());
+        writes.removeFirst().run();
+        writes.removeFirst().run();
+        assertTrue(failing.isCompletedExceptionally());
+        assertTrue(following.isCompletedExceptionally());
+
+        assertTrue(directory.mkdir());
+        change(grid, "animal", 20);
+        saver.save(grid);
+        assertEquals(BASE_SIZE, file.length());
+        assertEquals(grid.getStats(), new BinaryFileLoader().load(file.getPath()).getStats());
+    }
+
+    private void change(Grid grid, String farmType, int steps) {
+        RandomGridCommands.run(grid, farmType, random, steps, 2);
+    }
+}
@@ -0,0 +1,175 @@
+package farm.inventory;
+
+import farm.core.FailedTransactionException;
+import farm.core.InvalidStockRequestException;
+import farm.inventory.product.Egg;
+import farm.inventory.product.Jam;
+import farm.inventory.product.Milk;
+import farm.inventory.product.Product;
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class BucketedInventoryTest {
+    private BucketedInventory inventory;
+    private List<Product> testProduct;
+
+    @Before
+    public void setUp() {
+        inventory = new BucketedInventory();
+        testProduct = new ArrayList<>();
+    }
+
+    @Test
+    public void testEmptyInventory() {
+        assertEquals(testProduct, inventory.getAllProducts());
+        assertFalse(inventory.existsProduct(Barcode.EGG));
+    }
+
+    @Test
+    public void testExistsProductNull() {
+        assertFalse(inventory.existsProduct(null));
+    }
+
+    @Test
+    public void testAddMultipleProduct() {
+        testProduct.add(new Egg());
+        testProduct.add(new Jam());
+        testProduct.add(new Jam());
+        inventory.addProduct(Barcode.JAM, Quality.REGULAR);
+        inventory.addProduct(Barcode.EGG, Quality.REGULAR);
+        inventory.addProduct(Barcode.JAM, Quality.REGULAR);
+        assertEquals(testProduct, inventory.getAllProducts());
+    }
+
+    @Test
+    public void testRemoveHighestQualityFirst() {
+        inventory.addProduct(Barcode.EGG, Quality.SILVER);
+        inventory.addProduct(Barcode.EGG, Quality.IRIDIUM);
+        inventory.addProduct(Barcode.EGG, Quality.REGULAR);
+        inventory.addProduct(Barcode.EGG, Quality.GOLD);
+        assertEquals(List.of(new Egg(Quality.IRIDIUM)), inventory.removeProduct(Barcode.EGG));
+        assertEquals(List.of(new Egg(Quality.GOLD)), inventory.removeProduct(Barcode.EGG));
+        assertEquals(List.of(new Egg(Quality.SILVER)), inventory.removeProduct(Barcode.EGG));
+        assertEquals(List.of(new Egg(Quality.REGULAR)), inventory.removeProduct(Barcode.EGG));
+        assertEquals(Collections.emptyList(), inventory.removeProduct(Barcode.EGG));
+    }
+
+    @Test
+    public void testAddAndRemoveByQuantity()
+            throws InvalidStockRequestException, FailedTransactionException {
+        inventory.addProduct(Barcode.MILK, Quality.REGULAR, 3);
+        inventory.addProduct(Barcode.MILK, Quality.GOLD, 2);
+        assertEquals(5, inventory.getStockedQuantity(Barcode.MILK));
+
+        List<Product> removed = inventory.removeProduct(Barcode.MILK, 3);
+        assertEquals(List.of(new Milk(Quality.GOLD), new Milk(Quality.GOLD),
+                new Milk(Quality.REGULAR)), removed);
+        assertEquals(2, inventory.getStockedQuantity(Barcode.MILK, Quality.REGULAR));
+        assertEquals(0, inventory.getStockedQuantity(Barcode.MILK, Quality.GOLD));
+    }
+
+    @Test
+    public void testRemoveMoreThanStocked()
+            throws InvalidStockRequestException, FailedTransactionException {
+        inventory.addProduct(Barcode.EGG, Quality.REGULAR, 4);
+        assertEquals(4, inventory.removeProduct(Barcode.EGG, 5).size());
+        assertFalse(inventory.existsProduct(Barcode.EGG));
+        assertTrue(inventory.getAllProducts().isEmpty());
+    }
+
+    @Test
+    public void testGetAllProductsGroupedByBarcode() {
+        inventory.addProduct(Barcode.WOOL, Quality.REGULAR);
+        inventory.addProduct(Barcode.MILK, Quality.REGULAR);
+        inventory.addProduct(Barcode.EGG, Quality.SILVER);
+        inventory.addProduct(Barcode.MILK, Quality.IRIDIUM);
+        List<Product> products = inventory.getAllProducts();
+        assertEquals(List.of(Barcode.EGG, Barcode.MILK, Barcode.MILK, Barcode.WOOL),
+                products.stream().map(Product::getBarcode).toList());
+        assertEquals(Quality.IRIDIUM, products.get(1).getQuality());
+    }
+
+    @Test(expected = InvalidStockRequestException.class)
+    public void testAddNegativeQuantity() throws InvalidStockRequestException {
+        inventory.addProduct(Barcode.EGG, Quality.REGULAR, -1);
+    }
+
+    @Test
+    public void testLargeInventory() throws InvalidStockRequestException,
+            FailedTransactionException {
+        inventory.addProduct(Barcode.EGG, Quality.REGULAR, 1_000_000);
+        for (int i = 0; i < 100_000; i++) {
+            inventory.removeProduct(Barcode.EGG);
+        }
+        assertEquals(900_000, inventory.getStockedQuantity(Barcode.EGG));
+        assertEquals(900_000, inventory.removeProduct(Barcode.EGG, 1_000_000).size());
+    }
+
+    @Test
+    public void testQuerySummaries() throws InvalidStockRequestException {
+        inventory.addProduct(Barcode.EGG, Quality.REGULAR, 3);
+        inventory.addProduct(Barcode.EGG, Quality.GOLD, 1);
+        inventory.addProduct(Barcode.WOOL, Quality.SILVER, 2);
+
+        assertEquals(Map.of(Barcode.EGG, 4, Barcode.WOOL, 2), inventory.countByBarcode());
+        assertEquals(Map.of(Quality.REGULAR, 3, Quality.GOLD, 1),
+                inventory.countByQuality(Barcode.EGG));
+        assertEquals(4 * 50 + 2 * 2850, inventory.getStockValue());
+        assertEquals(inventory.getAllProducts(), inventory.stream().toList());
+
+        List<Product> visited = new ArrayList<>();
+        inventory.forEach(visited::add);
+        assertEquals(inventory.getAllProducts(), visited);
+    }
+
+    @Test
+    public void testReserveAndCommit() throws InvalidStockRequestException {
+        inventory.addProduct(Barcode.JAM, Quality.REGULAR, 2);
+        inventory.addProduct(Barcode.JAM, Quality.IRIDIUM, 1);
+
+        List<Reservation> reservations = inventory.reserve(Barcode.JAM, 2);
+        assertEquals(2, reservations.size());
+        assertEquals(Quality.IRIDIUM, reservations.get(0).getQuality());
+        assertEquals(1, reservations.get(1).getQuantity());
+        assertEquals(1, inventory.getStockedQuantity(Barcode.JAM));
+
+        assertEquals(List.of(new Jam(Quality.IRIDIUM)), inventory.commit(reservations.get(0)));
+        assertEquals(Reservation.State.COMMITTED, reservations.get(0).getState());
+        assertEquals(1, inventory.getStockedQuantity(Barcode.JAM));
+    }
+
+    @Test
+    public void testReleaseReturnsStock() throws InvalidStockRequestException {
+        inventory.addProduct(Barcode.EGG, Quality.GOLD, 5);
+        Reservation reservation = inventory.reserve(Barcode.EGG, 3).getFirst();
+        assertEquals(2, inventory.getStockedQuantity(Barcode.EGG));
+
+        inventory.release(reservation);
+        assertFalse(reservation.isPending());
+        assertEquals(5, inventory.getStockedQuantity(Barcode.EGG, Quality.GOLD));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReservationSettledOnce() throws InvalidStockRequestException {
+        inventory.addProduct(Barcode.EGG, Quality.GOLD, 1);
+        Reservation reservation = inventory.reserve(Barcode.EGG, 1).getFirst();
+        inventory.commit(reservation);
+        inventory.release(reservation);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testReservationFromOtherInventory() throws InvalidStockRequestException {
+        BucketedInventory other = new BucketedInventory();
+        other.addProduct(Barcode.EGG, Quality.GOLD, 1);
+        inventory.release(other.reserve(Barcode.EGG, 1).getFirst());
+    }
+}
@@ -0,0 +1,143 @@
+package farm.inventory;
+
+import farm.core.FailedTransactionException;
+import farm.core.InvalidStockRequestException;
+import farm.inventory.product.Egg;
+import farm.inventory.product.Product;
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentInventoryTest {
+    private ConcurrentInventory inventory;
+
+    @Before
+    public void setUp() {
+        inventory = new ConcurrentInventory();
+    }
+
+    @Test
+    public void testAddAndRemoveProduct() {
+        inventory.addProduct(Barcode.EGG, Quality.REGULAR);
+        inventory.addProduct(Barcode.EGG, Quality.GOLD);
+        assertTrue(inventory.existsProduct(Barcode.EGG));
+        assertEquals(List.of(new Egg(Quality.GOLD)), inventory.removeProduct(Barcode.EGG));
+        assertEquals(List.of(new Egg(Quality.REGULAR)), inventory.removeProduct(Barcode.EGG));
+        assertEquals(Collections.emptyList(), inventory.removeProduct(Barcode.EGG));
+        assertFalse(inventory.existsProduct(Barcode.EGG));
+    }
+
+    @Test
+    public void testExistsProductNull() {
+        assertFalse(inventory.existsProduct(null));
+    }
+
+    @Test
+    public void testRemoveByQuantity()
+            throws InvalidStockRequestException, FailedTransactionException {
+        inventory.addProduct(Barcode.JAM, Quality.SILVER, 3);
+        inventory.addProduct(Barcode.JAM, Quality.IRIDIUM, 1);
+        List<Product> removed = inventory.removeProduct(Barcode.JAM, 2);
+        assertEquals(Quality.IRIDIUM, removed.get(0).getQuality());
+        assertEquals(Quality.SILVER, removed.get(1).getQuality());
+        assertEquals(2, inventory.getStockedQuantity(Barcode.JAM));
+        assertEquals(2, inventory.removeProduct(Barcode.JAM, 10).size());
+    }
+
+    @Test
+    public void testConcurrentRemovalNeverOversells() throws Exception {
+        int stock = 100_000;
+        int lanes = 8;
+        inventory.addProduct(Barcode.MILK, Quality.REGULAR, stock / 2);
+        inventory.addProduct(Barcode.MILK, Quality.GOLD, stock / 2);
+
+        ExecutorService executor = Executors.newFixedThreadPool(lanes);
+        try {
+            List<Future<Integer>> sold = new ArrayList<>();
+            for (int i = 0; i < lanes; i++) {
+                sold.add(executor.submit(() -> {
+                    int count = 0;
+                    List<Product> bought;
+                    while (!(bought = inventory.removeProduct(Barcode.MILK, 3)).isEmpty()) {
+                        count += bought.size();
+                    }
+                    return count;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> lane : sold) {
+                total += lane.get(30, TimeUnit.SECONDS);
+            }
+            assertEquals(stock, total);
+            assertFalse(inventory.existsProduct(Barcode.MILK));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConcurrentStockingIsNotLost() throws Exception {
+        int lanes = 8;
+        int perLane = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(lanes);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < lanes; i++) {
+                results.add(executor.submit(() -> {
+                    for (int j = 0; j < perLane; j++) {
+                        inventory.addProduct(Barcode.WOOL, Quality.values()[j % 4]);
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+            assertEquals(lanes * perLane, inventory.getStockedQuantity(Barcode.WOOL));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConcurrentReserveAndRelease() throws Exception {
+        int stock = 1_000;
+        int lanes = 8;
+        inventory.addProduct(Barcode.EGG, Quality.SILVER, stock);
+
+        ExecutorService executor = Executors.newFixedThreadPool(lanes);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < lanes; i++) {
+                int lane = i;
+                results.add(executor.submit(() -> {
+                    int committed = 0;
+                    for (int j = 0; j < 10_000; j++) {
+                        for (Reservation reservation : inventory.reserve(Barcode.EGG, 2)) {
+                            if (lane == 0 && j % 100 == 0) {
+                                committed += inventory.commit(reservation).size();
+                            } else {
+                                inventory.release(reservation);
+                            }
+                        }
+                    }
+                    return committed;
+                }));
+            }
+            int committed = 0;
+            for (Future<Integer> result : results) {
+                committed += result.get(30, TimeUnit.SECONDS);
+            }
+            assertEquals(stock - committed, inventory.getStockedQuantity(Barcode.EGG));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
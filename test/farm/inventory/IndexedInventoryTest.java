@@ -0,0 +1,119 @@
+package farm.inventory;
+
+import farm.core.FailedTransactionException;
+import farm.core.InvalidStockRequestException;
+import farm.inventory.product.*;
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class IndexedInventoryTest {
+    private IndexedInventory inventory;
+    private List<Product> testProduct;
+
+    @Before
+    public void setUp() {
+        inventory = new IndexedInventory();
+        testProduct = new ArrayList<>();
+    }
+
+    @Test
+    public void testEmptyInventory() {
+        assertEquals(testProduct, inventory.getAllProducts());
+        assertFalse(inventory.existsProduct(Barcode.EGG));
+        assertFalse(inventory.existsProduct(null));
+    }
+
+    @Test
+    public void testGetAllProductsKeepsInsertionOrder() {
+        inventory.addProduct(Barcode.JAM, Quality.REGULAR);
+        inventory.addProduct(Barcode.EGG, Quality.GOLD);
+        inventory.addProduct(Barcode.JAM, Quality.SILVER);
+        inventory.addProduct(Barcode.WOOL, Quality.REGULAR);
+        inventory.addProduct(Barcode.EGG, Quality.REGULAR);
+        testProduct.add(new Jam(Quality.REGULAR));
+        testProduct.add(new Egg(Quality.GOLD));
+        testProduct.add(new Jam(Quality.SILVER));
+        testProduct.add(new Wool(Quality.REGULAR));
+        testProduct.add(new Egg(Quality.REGULAR));
+        assertEquals(testProduct, inventory.getAllProducts());
+    }
+
+    @Test
+    public void testRemoveFirstStockedProduct() {
+        inventory.addProduct(Barcode.EGG, Quality.REGULAR);
+        inventory.addProduct(Barcode.MILK, Quality.REGULAR);
+        inventory.addProduct(Barcode.EGG, Quality.IRIDIUM);
+
+        assertEquals(List.of(new Egg(Quality.REGULAR)), inventory.removeProduct(Barcode.EGG));
+        assertEquals(List.of(new Milk(), new Egg(Quality.IRIDIUM)), inventory.getAllProducts());
+        assertEquals(List.of(new Egg(Quality.IRIDIUM)), inventory.removeProduct(Barcode.EGG));
+        assertFalse(inventory.existsProduct(Barcode.EGG));
+        assertEquals(Collections.emptyList(), inventory.removeProduct(Barcode.EGG));
+    }
+
+    @Test
+    public void testMatchesBasicInventory() {
+        BasicInventory basic = new BasicInventory();
+        Barcode[] barcodes = Barcode.values();
+        Quality[] qualities = Quality.values();
+        for (int i = 0; i < 500; i++) {
+            Barcode barcode = barcodes[(i * 7) % barcodes.length];
+            if (i % 3 == 2) {
+                assertEquals(basic.removeProduct(barcode), inventory.removeProduct(barcode));
+            } else {
+                basic.addProduct(barcode, qualities[i % qualities.length]);
+                inventory.addProduct(barcode, qualities[i % qualities.length]);
+            }
+        }
+        assertEquals(basic.getAllProducts(), inventory.getAllProducts());
+    }
+
+    @Test(expected = InvalidStockRequestException.class)
+    public void testAddProductWithQuantity() throws InvalidStockRequestException {
+        inventory.addProduct(Barcode.EGG, Quality.REGULAR, 2);
+    }
+
+    @Test(expected = FailedTransactionException.class)
+    public void testRemoveProductWithQuantity() throws FailedTransactionException {
+        inventory.removeProduct(Barcode.EGG, 2);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testAddNullProduct() {
+        inventory.addProduct(null, Quality.REGULAR);
+    }
+
+    @Test
+    public void testLargeInventory() {
+        for (int i = 0; i < 100000; i++) {
+            inventory.addProduct(Barcode.EGG, Quality.REGULAR);
+        }
+        for (int i = 0; i < 99999; i++) {
+            inventory.removeProduct(Barcode.EGG);
+        }
+        assertEquals(1, inventory.getAllProducts().size());
+    }
+
+    @Test
+    public void testQuerySummaries() {
+        inventory.addProduct(Barcode.MILK, Quality.REGULAR);
+        inventory.addProduct(Barcode.EGG, Quality.SILVER);
+        inventory.addProduct(Barcode.MILK, Quality.GOLD);
+
+        assertEquals(List.of(new Milk(), new Egg(Quality.SILVER), new Milk(Quality.GOLD)),
+                inventory.stream().toList());
+        assertEquals(Map.of(Barcode.MILK, 2, Barcode.EGG, 1), inventory.countByBarcode());
+        assertEquals(Map.of(Quality.REGULAR, 1, Quality.GOLD, 1),
+                inventory.countByQuality(Barcode.MILK));
+        assertEquals(2 * 440 + 50, inventory.getStockValue());
+    }
+}
@@ -0,0 +1,83 @@
+package farm.inventory;
+
+import farm.core.FailedTransactionException;
+import farm.core.InvalidStockRequestException;
+import farm.inventory.product.Jam;
+import farm.inventory.product.Product;
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class MappedInventoryTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+    private MappedInventory inventory;
+
+    @Before
+    public void setUp() throws IOException {
+        file = folder.getRoot().toPath().resolve("stock.ledger");
+        inventory = new MappedInventory(file);
+    }
+
+    @Test
+    public void testAddAndRemoveProduct()
+            throws InvalidStockRequestException, FailedTransactionException {
+        inventory.addProduct(Barcode.JAM, Quality.SILVER, 3);
+        inventory.addProduct(Barcode.JAM, Quality.IRIDIUM);
+        assertEquals(List.of(new Jam(Quality.IRIDIUM)), inventory.removeProduct(Barcode.JAM));
+        List<Product> removed = inventory.removeProduct(Barcode.JAM, 5);
+        assertEquals(3, removed.size());
+        assertEquals(Quality.SILVER, removed.get(0).getQuality());
+        assertFalse(inventory.existsProduct(Barcode.JAM));
+        assertEquals(Collections.emptyList(), inventory.removeProduct(Barcode.JAM));
+    }
+
+    @Test
+    public void testStockSurvivesReopening() throws IOException, InvalidStockRequestException {
+        inventory.addProduct(Barcode.WOOL, Quality.GOLD, 1_000_000);
+        inventory.addProduct(Barcode.EGG, Quality.REGULAR);
+        inventory.close();
+
+        MappedInventory reopened = new MappedInventory(file);
+        assertEquals(Map.of(Barcode.WOOL, 1_000_000, Barcode.EGG, 1), reopened.countByBarcode());
+        assertEquals(1_000_000, reopened.getStockedQuantity(Barcode.WOOL, Quality.GOLD));
+        assertEquals(1_000_000L * 2850 + 50, reopened.getStockValue());
+    }
+
+    @Test
+    public void testGetAllProductsOrder() {
+        inventory.addProduct(Barcode.MILK, Quality.REGULAR);
+        inventory.addProduct(Barcode.EGG, Quality.REGULAR);
+        inventory.addProduct(Barcode.MILK, Quality.GOLD);
+        assertEquals(List.of(Barcode.EGG, Barcode.MILK, Barcode.MILK),
+                inventory.stream().map(Product::getBarcode).toList());
+        assertEquals(Quality.GOLD, inventory.getAllProducts().get(1).getQuality());
+        assertEquals(inventory.getAllProducts(), inventory.stream().toList());
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsOtherFiles() throws IOException {
+        Path other = folder.getRoot().toPath().resolve("notes.txt");
+        Files.writeString(other, "not a ledger");
+        new MappedInventory(other);
+    }
+
+    @Test(expected = InvalidStockRequestException.class)
+    public void testNegativeQuantity() throws InvalidStockRequestException {
+        inventory.addProduct(Barcode.EGG, Quality.REGULAR, -1);
+    }
+}
@@ -0,0 +1,122 @@
+package farm.inventory;
+
+import farm.core.FailedTransactionException;
+import farm.core.InvalidStockRequestException;
+import farm.inventory.product.Egg;
+import farm.inventory.product.Product;
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class PerishableInventoryTest {
+    private PerishableInventory inventory;
+
+    @Before
+    public void setUp() {
+        inventory = new PerishableInventory(Map.of(Barcode.EGG, 3, Barcode.MILK, 1));
+    }
+
+    @Test
+    public void testStockExpiresAfterShelfLife() throws InvalidStockRequestException {
+        inventory.addProduct(Barcode.EGG, Quality.REGULAR, 4);
+        inventory.addProduct(Barcode.WOOL, Quality.GOLD, 2);
+        assertEquals(0, inventory.advanceDay());
+        inventory.addProduct(Barcode.EGG, Quality.SILVER);
+        assertEquals(0, inventory.advanceDay());
+        assertEquals(4, inventory.getExpiringQuantity(Barcode.EGG));
+        assertEquals(4, inventory.advanceDay());
+        assertEquals(Map.of(Quality.SILVER, 1), inventory.countByQuality(Barcode.EGG));
+        assertEquals(1, inventory.advanceDay());
+        assertFalse(inventory.existsProduct(Barcode.EGG));
+        for (int i = 0; i < 10; i++) {
+            inventory.advanceDay();
+        }
+        assertEquals(2, inventory.getStockedQuantity(Barcode.WOOL));
+        assertEquals(14, inventory.getDay());
+    }
+
+    @Test
+    public void testSingleDayShelfLife() {
+        inventory.addProduct(Barcode.MILK, Quality.REGULAR);
+        assertEquals(1, inventory.getExpiringQuantity(Barcode.MILK));
+        assertEquals(1, inventory.advanceDay());
+        inventory.addProduct(Barcode.MILK, Quality.REGULAR);
+        assertTrue(inventory.existsProduct(Barcode.MILK));
+    }
+
+    @Test
+    public void testRemovesOldestStockOfHighestQuality()
+            throws InvalidStockRequestException, FailedTransactionException {
+        inventory.addProduct(Barcode.EGG, Quality.GOLD, 2);
+        inventory.advanceDay();
+        inventory.addProduct(Barcode.EGG, Quality.GOLD, 2);
+        inventory.addProduct(Barcode.EGG, Quality.REGULAR);
+
+        List<Product> removed = inventory.removeProduct(Barcode.EGG, 3);
+        assertEquals(List.of(new Egg(Quality.GOLD), new Egg(Quality.GOLD),
+                new Egg(Quality.GOLD)), removed);
+        // the remaining gold egg is from the second day, so outlives the first day's stock
+        inventory.advanceDay();
+        assertEquals(0, inventory.advanceDay());
+        assertEquals(2, inventory.advanceDay());
+        assertFalse(inventory.existsProduct(Barcode.EGG));
+    }
+
+    @Test
+    public void testExpiryMatchesQuerySummaries() throws InvalidStockRequestException {
+        inventory.addProduct(Barcode.EGG, Quality.IRIDIUM, 3);
+        inventory.addProduct(Barcode.JAM, Quality.REGULAR);
+        assertEquals(inventory.getAllProducts(), inventory.stream().toList());
+        for (int i = 0; i < 3; i++) {
+            inventory.advanceDay();
+        }
+        assertEquals(Map.of(Barcode.JAM, 1), inventory.countByBarcode());
+        assertEquals(670, inventory.getStockValue());
+        assertEquals(1, inventory.getAllProducts().size());
+        assertEquals(inventory.getAllProducts(), inventory.stream().toList());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidShelfLife() {
+        new PerishableInventory(Map.of(Barcode.BREAD, 0));
+    }
+
+    @Test
+    public void testRestoredStockKeepsItsAge() throws InvalidStockRequestException {
+        inventory.addProduct(Barcode.EGG, Quality.REGULAR, 4);
+        inventory.addProduct(Barcode.WOOL, Quality.GOLD, 2);
+        inventory.advanceDay();
+        inventory.addProduct(Barcode.EGG, Quality.REGULAR);
+        inventory.addProduct(Barcode.MILK, Quality.SILVER, 3);
+
+        PerishableInventory restored = new PerishableInventory(
+                Map.of(Barcode.EGG, 3, Barcode.MILK, 1));
+        List<String> batches = new ArrayList<>();
+        inventory.visitStock((barcode, quality, quantity, age) -> {
+            batches.add(barcode + " " + quality + " " + quantity + " " + age);
+            restored.restoreStock(barcode, quality, quantity, age);
+        });
+        assertEquals(List.of("EGG REGULAR 4 1", "EGG REGULAR 1 0", "MILK SILVER 3 0",
+                "WOOL GOLD 2 0"), batches);
+        assertEquals(inventory.getAllProducts(), restored.getAllProducts());
+        for (int day = 0; day < 3; day++) {
+            assertEquals(inventory.advanceDay(), restored.advanceDay());
+            assertEquals(inventory.getAllProducts(), restored.getAllProducts());
+        }
+
+        restored.restoreStock(Barcode.EGG, Quality.GOLD, 2, 3);
+        assertFalse(restored.existsProduct(Barcode.EGG));
+    }
+
+    @Test(expected = InvalidStockRequestException.class)
+    public void testNegativeQuantity() throws InvalidStockRequestException {
+        inventory.addProduct(Barcode.EGG, Quality.REGULAR, -1);
+    }
+}
@@ -0,0 +1,201 @@
+package farm.inventory.journal;
+
+import farm.core.FailedTransactionException;
+import farm.core.InvalidStockRequestException;
+import farm.inventory.BasicInventory;
+import farm.inventory.BucketedInventory;
+import farm.inventory.PerishableInventory;
+import farm.inventory.product.Egg;
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static org.junit.Assert.*;
+
+public class JournaledInventoryTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+
+    @Before
+    public void setUp() {
+        directory = folder.getRoot().toPath().resolve("stock");
+    }
+
+    @Test
+    public void testRestoresStockAfterReopening()
+            throws IOException, InvalidStockRequestException, FailedTransactionException {
+        try (JournaledInventory inventory =
+                     new JournaledInventory(new BucketedInventory(), directory)) {
+            inventory.addProduct(Barcode.EGG, Quality.GOLD, 5);
+            inventory.addProduct(Barcode.EGG, Quality.REGULAR);
+            inventory.addProduct(Barcode.MILK, Quality.SILVER, 2);
+            assertEquals(List.of(new Egg(Quality.GOLD), new Egg(Quality.GOLD)),
+                    inventory.removeProduct(Barcode.EGG, 2));
+        }
+
+        try (JournaledInventory inventory =
+                     new JournaledInventory(new BucketedInventory(), directory)) {
+            assertEquals(Map.of(Quality.GOLD, 3, Quality.REGULAR, 1),
+                    inventory.countByQuality(Barcode.EGG));
+            assertEquals(Map.of(Barcode.EGG, 4, Barcode.MILK, 2), inventory.countByBarcode());
+        }
+    }
+
+    @Test
+    public void testRestoresIntoBasicInventory() throws IOException {
+        try (JournaledInventory inventory =
+                     new JournaledInventory(new BasicInventory(), directory)) {
+            inventory.addProduct(Barcode.JAM, Quality.IRIDIUM);
+            inventory.addProduct(Barcode.JAM, Quality.REGULAR);
+            inventory.removeProduct(Barcode.JAM);
+        }
+
+        try (JournaledInventory inventory =
+                     new JournaledInventory(new BasicInventory(), directory)) {
+            assertEquals(Map.of(Quality.REGULAR, 1), inventory.countByQuality(Barcode.JAM));
+        }
+    }
+
+    @Test
+    public void testSnapshotBoundsJournal() throws IOException {
+        try (JournaledInventory inventory =
+                     new JournaledInventory(new BucketedInventory(), directory, 8, 100)) {
+            for (int i = 0; i < 1_000; i++) {
+                inventory.addProduct(Barcode.WOOL, Quality.values()[i % 4]);
+            }
+            inventory.flush();
+            assertTrue(inventory.getJournalSize() < 100 * 12 + 16);
+        }
+
+        try (JournaledInventory inventory =
+                     new JournaledInventory(new BucketedInventory(), directory, 8, 100)) {
+            assertEquals(Map.of(Barcode.WOOL, 1_000), inventory.countByBarcode());
+        }
+    }
+
+    @Test
+    public void testSnapshotPlusTail() throws IOException, FailedTransactionException {
+        try (JournaledInventory inventory =
+                     new JournaledInventory(new BucketedInventory(), directory)) {
+            inventory.addProduct(Barcode.BREAD, Quality.SILVER);
+            inventory.addProduct(Barcode.BREAD, Quality.SILVER);
+            inventory.snapshot();
+            inventory.addProduct(Barcode.BREAD, Quality.GOLD);
+            inventory.removeProduct(Barcode.BREAD, 2);
+        }
+
+        try (JournaledInventory inventory =
+                     new JournaledInventory(new BucketedInventory(), directory)) {
+            assertEquals(Map.of(Quality.SILVER, 1), inventory.countByQuality(Barcode.BREAD));
+        }
+    }
+
+    @Test
+    public void testIgnoresTornRecord() throws IOException {
+        try (JournaledInventory inventory =
+                     new JournaledInventory(new BucketedInventory(), directory)) {
+            inventory.addProduct(Barcode.COFFEE, Quality.REGULAR);
+            inventory.addProduct(Barcode.COFFEE, Quality.REGULAR);
+        }
+        Path journal = directory.resolve(InventoryJournal.JOURNAL_FILE);
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        try (JournaledInventory inventory =
+                     new JournaledInventory(new BucketedInventory(), directory)) {
+            assertEquals(Map.of(Barcode.COFFEE, 1), inventory.countByBarcode());
+            inventory.addProduct(Barcode.COFFEE, Quality.GOLD);
+        }
+
+        try (JournaledInventory inventory =
+                     new JournaledInventory(new BucketedInventory(), directory)) {
+            assertEquals(Map.of(Quality.REGULAR, 1, Quality.GOLD, 1),
+                    inventory.countByQuality(Barcode.COFFEE));
+        }
+    }
+
+    @Test
+    public void testReplaysJournalLongerThanReadBuffer() throws IOException {
+        try (JournaledInventory inventory =
+                     new JournaledInventory(new BucketedInventory(), directory)) {
+            for (int i = 0; i < 10_001; i++) {
+                inventory.addProduct(Barcode.MILK, Quality.values()[i % 4]);
+            }
+        }
+
+        try (JournaledInventory inventory =
+                     new JournaledInventory(new BucketedInventory(), directory)) {
+            assertEquals(Map.of(Quality.REGULAR, 2_501, Quality.SILVER, 2_500,
+                    Quality.GOLD, 2_500, Quality.IRIDIUM, 2_500),
+                    inventory.countByQuality(Barcode.MILK));
+        }
+    }
+
+    @Test
+    public void testStopsAtUnknownOperation() throws IOException {
+        try (JournaledInventory inventory =
+                     new JournaledInventory(new BucketedInventory(), directory)) {
+            inventory.addProduct(Barcode.JAM, Quality.GOLD);
+            inventory.addProduct(Barcode.JAM, Quality.GOLD);
+            inventory.addProduct(Barcode.JAM, Quality.GOLD);
+        }
+        // rewrite the second record with an unknown op but a matching checksum
+        Path journal = directory.resolve(InventoryJournal.JOURNAL_FILE);
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer record = ByteBuffer.allocate(12);
+            channel.read(record, 16 + 12);
+            record.put(0, (byte) 7);
+            CRC32 crc = new CRC32();
+            crc.update(record.array(), 0, 8);
+            record.putInt(8, (int) crc.getValue());
+            channel.write(record.flip(), 16 + 12);
+        }
+
+        try (JournaledInventory inventory =
+                     new JournaledInventory(new BucketedInventory(), directory)) {
+            assertEquals(Map.of(Barcode.JAM, 1), inventory.countByBarcode());
+            assertEquals(16 + 12, inventory.getJournalSize());
+        }
+    }
+
+    @Test(expected = InvalidStockRequestException.class)
+    public void testRejectedRequestIsNotRecorded()
+            throws IOException, InvalidStockRequestException {
+        try (JournaledInventory inventory =
+                     new JournaledInventory(new BasicInventory(), directory)) {
+            inventory.addProduct(Barcode.EGG, Quality.REGULAR, 3);
+        } finally {
+            try (JournaledInventory inventory =
+                         new JournaledInventory(new BasicInventory(), directory)) {
+                assertFalse(inventory.existsProduct(Barcode.EGG));
+            }
+        }
+    }
+
+    @Test
+    public void testPerishableInventoryRejected() throws IOException {
+        try {
+            new JournaledInventory(new PerishableInventory(), directory).close();
+            fail("Expected a perishable inventory to be rejected");
+        } catch (IllegalArgumentException expected) {
+            assertFalse(Files.exists(directory));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package farm.inventory.product;
+
+import farm.inventory.product.data.Barcode;
+import farm.inventory.product.data.Quality;
+import org.junit.Test;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ProductFactoryTest {
+
+    @Test
+    public void testCanonicalInstancesShared() {
+        Map<Product, Boolean> distinct = new IdentityHashMap<>();
+        for (Barcode barcode : Barcode.values()) {
+            for (Quality quality : Quality.values()) {
+                Product product = ProductFactory.create(barcode, quality);
+                assertSame(product, ProductFactory.create(barcode, quality));
+                assertEquals(barcode, product.getBarcode());
+                assertEquals(quality, product.getQuality());
+                distinct.put(product, true);
+            }
+        }
+        assertEquals(24, distinct.size());
+    }
+
+    @Test
+    public void testEqualToConstructedProducts() {
+        for (Quality quality : Quality.values()) {
+            for (Product constructed : List.of(new Egg(quality), new Milk(quality),
+                    new Jam(quality), new Wool(quality), new Bread(quality),
+                    new Coffee(quality))) {
+                Product canonical = ProductFactory.create(constructed.getBarcode(), quality);
+                assertEquals(constructed.getClass(), canonical.getClass());
+                assertEquals(constructed, canonical);
+                assertEquals(canonical, constructed);
+                assertEquals(constructed.hashCode(), canonical.hashCode());
+            }
+        }
+        assertNotEquals(ProductFactory.create(Barcode.EGG, Quality.GOLD),
+                ProductFactory.create(Barcode.EGG, Quality.SILVER));
+        assertNotEquals(ProductFactory.create(Barcode.EGG, Quality.GOLD),
+                ProductFactory.create(Barcode.MILK, Quality.GOLD));
+    }
+
+    @Test
+    public void testNullQualityNotShared() {
+        Product product = ProductFactory.create(Barcode.WOOL, null);
+        assertEquals(Barcode.WOOL, product.getBarcode());
+        assertNull(product.getQuality());
+        assertTrue(product instanceof Wool);
+        assertNotSame(product, ProductFactory.create(Barcode.WOOL, null));
+        assertEquals(new Wool(null), product);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullBarcode() {
+        ProductFactory.create(null, Quality.REGULAR);
+    }
+}